@@ -0,0 +1,67 @@
+package com.bugs.productmanager.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    /**
+     * 경비 목록 화면의 독립 조회 병렬 실행용 풀
+     * 각 작업이 커넥션 1개를 점유하므로 pool-size는 Hikari maximum-pool-size보다 충분히 작게 유지한다.
+     * 큐가 가득 차면 요청 스레드가 직접 실행 (CallerRuns) → 풀 고갈 시에도 순차 실행으로 동작
+     */
+    @Bean(name = "listQueryExecutor", destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor listQueryExecutor(
+            @Value("${expense.list.parallel.pool-size:8}") int poolSize,
+            @Value("${expense.list.parallel.queue-capacity:64}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("list-query-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 엑셀 업로드 작업 실행용 풀
+     * 작업 하나가 끝날 때까지 커넥션 1개와 트랜잭션을 점유하므로 워커 수를 작게 고정하고,
+     * 큐가 가득 차면 거부(TaskRejectedException)해 작업을 실패로 기록한다.
+     */
+    @Bean(name = "importJobExecutor", destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor importJobExecutor(
+            @Value("${excel.import.workers:2}") int workers,
+            @Value("${excel.import.queue-capacity:20}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("import-job-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 여러 시트 엑셀의 시트별 병렬 파싱용 풀 (DB 를 쓰지 않는 CPU 작업)
+     * 큐가 가득 차면 업로드 작업 스레드가 직접 파싱 (CallerRuns) → 결과는 같고 느려지기만 한다
+     */
+    @Bean(name = "importParseExecutor", destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor importParseExecutor(
+            @Value("${excel.import.parallel.threads:4}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("import-parse-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
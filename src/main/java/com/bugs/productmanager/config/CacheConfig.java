@@ -1,29 +1,45 @@
 package com.bugs.productmanager.config;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.concurrent.TimeUnit;
-
+/**
+ * Caffeine 캐시 설정. 캐시별 크기(엔트리 수 또는 추정 바이트)/TTL/통계는 application.properties 의 app.cache.* 로 정한다.
+ * 새 캐시는 app.cache.specs.{이름}.* 만 추가하면 시작 시 등록된다.
+ */
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
 public class CacheConfig {
 
     @Bean
-    public CacheManager cacheManager() {
-        CaffeineCacheManager manager = new CaffeineCacheManager(
-                "distinctYm", "distinctCategory", "distinctDivision",
-                "distinctPurpose", "distinctStoreName",
-                "distinctDepartment", "distinctTeam"
-        );
-        manager.setCaffeine(Caffeine.newBuilder()
-                .maximumSize(100)
-                .expireAfterWrite(10, TimeUnit.MINUTES)
-                .recordStats());
+    public CacheManager cacheManager(CacheProperties properties) {
+        // 필터 드롭다운 값 목록(distinct*)은 캐시 대신 ExpenseDimensionIndex 가 증감으로 유지한다
+        // 필터 조회 결과 캐시(expenseQuery/budgetQuery)는 데이터 버전 스탬프로 무효화, TTL은 메모리 회수용
+        CaffeineCacheManager manager = new CaffeineCacheManager();
+        manager.setCaffeine(newBuilder(properties.getDefaults()));
+        properties.getSpecs().keySet().forEach(name ->
+                manager.registerCustomCache(name, newBuilder(properties.specFor(name)).build()));
         return manager;
     }
+
+    /**
+     * 설정으로 Caffeine 빌더 생성
+     */
+    public static Caffeine<Object, Object> newBuilder(CacheProperties.Spec spec) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder();
+        if (spec.getMaximumWeight() != null) {
+            builder.maximumWeight(spec.getMaximumWeight().toBytes()).weigher(new CacheWeigher());
+        } else if (spec.getMaximumSize() != null) {
+            builder.maximumSize(spec.getMaximumSize());
+        }
+        if (spec.getExpireAfterWrite() != null) builder.expireAfterWrite(spec.getExpireAfterWrite());
+        if (!Boolean.FALSE.equals(spec.getRecordStats())) builder.recordStats();
+        return builder;
+    }
 }
@@ -0,0 +1,81 @@
+package com.bugs.productmanager.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 캐시별 설정 (app.cache.*)
+ * - app.cache.defaults.* : 명시되지 않은 캐시에 쓰는 기본값
+ * - app.cache.specs.{캐시이름}.* : 캐시별 설정. 여기 적힌 이름은 시작 시 모두 등록된다
+ * maximum-weight 가 있으면 CacheWeigher 의 추정 바이트 기준, 없으면 maximum-size(엔트리 수) 기준으로 퇴출한다.
+ */
+@ConfigurationProperties(prefix = "app.cache")
+public class CacheProperties {
+
+    private Spec defaults = new Spec();
+    private Map<String, Spec> specs = new LinkedHashMap<>();
+
+    public static class Spec {
+        /** 최대 엔트리 수 (maximum-weight 가 없을 때) */
+        private Long maximumSize;
+        /** 최대 추정 크기 (예: 64MB) */
+        private DataSize maximumWeight;
+        private Duration expireAfterWrite;
+        private Boolean recordStats;
+
+        public Long getMaximumSize() { return maximumSize; }
+        public void setMaximumSize(Long maximumSize) { this.maximumSize = maximumSize; }
+
+        public DataSize getMaximumWeight() { return maximumWeight; }
+        public void setMaximumWeight(DataSize maximumWeight) { this.maximumWeight = maximumWeight; }
+
+        public Duration getExpireAfterWrite() { return expireAfterWrite; }
+        public void setExpireAfterWrite(Duration expireAfterWrite) { this.expireAfterWrite = expireAfterWrite; }
+
+        public Boolean getRecordStats() { return recordStats; }
+        public void setRecordStats(Boolean recordStats) { this.recordStats = recordStats; }
+
+        /** 비어 있는 항목은 base 값으로 채운 설정 */
+        public Spec withDefaults(Spec base) {
+            Spec merged = new Spec();
+            boolean ownBound = maximumSize != null || maximumWeight != null;
+            merged.maximumSize = ownBound ? maximumSize : base.maximumSize;
+            merged.maximumWeight = ownBound ? maximumWeight : base.maximumWeight;
+            merged.expireAfterWrite = expireAfterWrite != null ? expireAfterWrite : base.expireAfterWrite;
+            merged.recordStats = recordStats != null ? recordStats : base.recordStats;
+            return merged;
+        }
+
+        /** 모니터 표시용 요약 (예: "64MB / TTL 10분") */
+        public String describe() {
+            StringBuilder sb = new StringBuilder();
+            if (maximumWeight != null) sb.append("최대 ").append(maximumWeight.toMegabytes()).append("MB");
+            else if (maximumSize != null) sb.append("최대 ").append(maximumSize).append("개");
+            else sb.append("무제한");
+            if (expireAfterWrite != null) sb.append(" / TTL ").append(format(expireAfterWrite));
+            return sb.toString();
+        }
+
+        private static String format(Duration d) {
+            if (d.toSeconds() % 3600 == 0) return d.toHours() + "시간";
+            if (d.toSeconds() % 60 == 0) return d.toMinutes() + "분";
+            return d.toSeconds() + "초";
+        }
+    }
+
+    public Spec getDefaults() { return defaults; }
+    public void setDefaults(Spec defaults) { this.defaults = defaults; }
+
+    public Map<String, Spec> getSpecs() { return specs; }
+    public void setSpecs(Map<String, Spec> specs) { this.specs = specs; }
+
+    /** 캐시 이름의 최종 설정 (캐시별 설정 + 기본값) */
+    public Spec specFor(String name) {
+        Spec spec = specs.get(name);
+        return spec != null ? spec.withDefaults(defaults) : defaults;
+    }
+}
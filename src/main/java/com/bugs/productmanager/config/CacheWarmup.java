@@ -0,0 +1,108 @@
+package com.bugs.productmanager.config;
+
+import com.bugs.productmanager.service.BudgetService;
+import com.bugs.productmanager.service.ExpenseDimensionIndex;
+import com.bugs.productmanager.service.ExpenseService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 서버 시작 후 캐시 예열
+ * - ApplicationReadyEvent 의 다른 작업(집계 초기 적재 등)이 끝난 뒤 마지막에 실행
+ * - 필터 값 목록/옵션 트리를 적재하고, 회사별 기본 목록 화면(최신 월)과 차트 조회를 한 번씩 돌려 캐시와 JIT 를 데운다
+ * - 끝나기 전까지 health 는 OUT_OF_SERVICE → 로드밸런서가 예열 중인 인스턴스로 요청을 보내지 않는다
+ * 예열 중 오류는 기록만 하고 서비스는 시작한다 (캐시는 첫 요청에서 채워짐).
+ */
+@Component
+public class CacheWarmup implements HealthIndicator {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheWarmup.class);
+    private static final DateTimeFormatter FMT = DateTimeFormatter.ofPattern("yyyy-MM");
+    private static final int WARMUP_PAGE_SIZE = 100;
+
+    private final ExpenseService expenseService;
+    private final BudgetService budgetService;
+    private final boolean enabled;
+
+    private volatile boolean done;
+    private volatile long durationMs;
+    private volatile String error;
+
+    public CacheWarmup(ExpenseService expenseService, BudgetService budgetService,
+                       @Value("${app.warmup.enabled:true}") boolean enabled) {
+        this.expenseService = expenseService;
+        this.budgetService = budgetService;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void warmUp() {
+        if (!enabled) {
+            done = true;
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            // 필터 드롭다운 값 목록 + 전체 범위 옵션 트리
+            List<String> ymList = expenseService.findDistinctYm();
+            List<String> categories = expenseService.findDistinctCategory();
+            expenseService.findDistinctDivision();
+            expenseService.findDistinctPurpose();
+            expenseService.findDistinctStoreName();
+            expenseService.findDistinctDepartment();
+            expenseService.findDistinctTeam();
+            expenseService.findFilterOptions(new ExpenseDimensionIndex.Scope(null, null, null));
+
+            // 기본 목록 화면: 전체 + 회사별 최신 월 (목록 첫 페이지, 집계, 예산, 최근 13개월/전년 동월 차트)
+            List<String> latest = ymList.isEmpty() ? List.of() : List.of(ymList.get(0));
+            List<String> chartYm = new ArrayList<>();
+            List<String> prevYearYm = new ArrayList<>();
+            YearMonth now = YearMonth.now();
+            for (YearMonth m = now.minusMonths(12); !m.isAfter(now); m = m.plusMonths(1)) {
+                chartYm.add(m.format(FMT));
+                prevYearYm.add(m.minusYears(1).format(FMT));
+            }
+            List<String> scopes = new ArrayList<>();
+            scopes.add(null);
+            scopes.addAll(categories);
+            for (String category : scopes) {
+                expenseService.findFilterOptions(new ExpenseDimensionIndex.Scope(category, null, null));
+                expenseService.findPage(latest, category, List.of(), null, null, null, List.of(), null, WARMUP_PAGE_SIZE);
+                expenseService.aggregate(latest, category, List.of(), null, null, null, List.of());
+                budgetService.findFiltered(latest, category, List.of(), null, List.of());
+                expenseService.sumAmountByYm(chartYm, category, List.of(), null, null, null, List.of());
+                budgetService.findFiltered(chartYm, category, List.of(), null, List.of());
+                expenseService.sumAmountByYm(prevYearYm, category, List.of(), null, null, null, List.of());
+            }
+        } catch (RuntimeException e) {
+            error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            log.warn("캐시 예열 중 오류 (첫 요청에서 채워집니다)", e);
+        } finally {
+            durationMs = System.currentTimeMillis() - start;
+            done = true;
+            log.info("캐시 예열 완료: {}ms", durationMs);
+        }
+    }
+
+    @Override
+    public Health health() {
+        if (!done) return Health.outOfService().withDetail("warmup", "진행 중").build();
+        Health.Builder builder = Health.up().withDetail("durationMs", durationMs);
+        if (error != null) builder.withDetail("error", error);
+        return builder.build();
+    }
+}
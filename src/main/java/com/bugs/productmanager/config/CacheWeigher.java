@@ -0,0 +1,125 @@
+package com.bugs.productmanager.config;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.temporal.Temporal;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 캐시 엔트리 추정 크기 (바이트)
+ * 64bit JVM + compressed oops 기준 근사치. 정확한 힙 측정이 아니라 캐시 간 상대 비교와 한도용이다.
+ * - 조회 결과 캐시에 들어가는 모양(경비 페이지, 집계 결과, 필터 키)은 그 타입이 Sized 로 자기 크기를 알려준다
+ * - 컬렉션은 앞쪽 SAMPLE 개 원소만 재고 원소 수만큼 늘린다 (조회 결과 목록은 같은 모양의 행)
+ * - 그 밖의 애플리케이션 클래스만 필드를 리플렉션으로 따라간다 (JDK 내부 클래스는 고정값)
+ */
+public class CacheWeigher implements Weigher<Object, Object> {
+
+    public static final int OBJECT_HEADER = 16;
+    public static final int REFERENCE = 4;
+    private static final int MAX_DEPTH = 8;
+    private static final int SAMPLE = 16;
+
+    /** 자기 크기를 아는 캐시 값 (감싼 값이 있으면 estimate 로 더한다) */
+    public interface Sized {
+        long estimatedBytes();
+    }
+
+    /** 클래스별 인스턴스 필드 (리플렉션 결과 재사용) */
+    private static final Map<Class<?>, Field[]> FIELDS = new ConcurrentHashMap<>();
+
+    @Override
+    public int weigh(Object key, Object value) {
+        long bytes = estimate(key) + estimate(value);
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(1, bytes));
+    }
+
+    public static long estimate(Object o) {
+        return estimate(o, java.util.Collections.newSetFromMap(new IdentityHashMap<>()), 0);
+    }
+
+    private static long estimate(Object o, Set<Object> seen, int depth) {
+        if (o == null) return 0;
+        if (depth > MAX_DEPTH || !seen.add(o)) return REFERENCE;
+        Class<?> type = o.getClass();
+
+        if (o instanceof String s) return OBJECT_HEADER + 8 + OBJECT_HEADER + s.length() * 2L;
+        if (o instanceof Boolean || o instanceof Character || type.isEnum()) return 0; // 공유 인스턴스
+        if (o instanceof BigDecimal || o instanceof BigInteger) return 40;
+        if (o instanceof Number) return 24;
+        if (o instanceof Temporal) return 32;
+
+        if (o instanceof Sized sized) return sized.estimatedBytes();
+
+        if (o instanceof Collection<?> c) {
+            int count = c.size();
+            long elements = 0;
+            int sampled = 0;
+            for (Iterator<?> it = c.iterator(); it.hasNext() && sampled < SAMPLE; sampled++) {
+                elements += estimate(it.next(), seen, depth + 1);
+            }
+            if (sampled > 0 && sampled < count) elements = elements * count / sampled;
+            return OBJECT_HEADER + 16 + (long) count * REFERENCE + elements;
+        }
+        if (o instanceof Map<?, ?> m) {
+            long size = OBJECT_HEADER + 16 + (long) m.size() * (OBJECT_HEADER + 3 * REFERENCE);
+            for (Map.Entry<?, ?> e : m.entrySet()) {
+                size += estimate(e.getKey(), seen, depth + 1) + estimate(e.getValue(), seen, depth + 1);
+            }
+            return size;
+        }
+        if (type.isArray()) {
+            int length = Array.getLength(o);
+            if (type.getComponentType().isPrimitive()) return OBJECT_HEADER + (long) length * 8;
+            long size = OBJECT_HEADER + (long) length * REFERENCE;
+            for (int i = 0; i < length; i++) size += estimate(Array.get(o, i), seen, depth + 1);
+            return size;
+        }
+        if (type.getName().startsWith("java.") || type.getName().startsWith("jdk.")) return OBJECT_HEADER + 16;
+
+        // 애플리케이션 클래스 (레코드, 엔티티, 조회 결과 등)
+        long size = OBJECT_HEADER;
+        for (Field f : fieldsOf(type)) {
+            if (f.getType().isPrimitive()) {
+                size += 8;
+                continue;
+            }
+            size += REFERENCE;
+            try {
+                size += estimate(f.get(o), seen, depth + 1);
+            } catch (IllegalAccessException e) {
+                // 접근 불가 필드는 참조 크기만
+            }
+        }
+        return size;
+    }
+
+    /**
+     * 원소 하나가 elementBytes 인 ArrayList 추정 크기 (Sized 구현에서 행 목록을 셀 때)
+     */
+    public static long listBytes(int size, long elementBytes) {
+        return OBJECT_HEADER + 16 + size * (REFERENCE + elementBytes);
+    }
+
+    private static Field[] fieldsOf(Class<?> type) {
+        return FIELDS.computeIfAbsent(type, t -> {
+            java.util.List<Field> fields = new java.util.ArrayList<>();
+            for (Class<?> c = t; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field f : c.getDeclaredFields()) {
+                    if (Modifier.isStatic(f.getModifiers())) continue;
+                    if (f.trySetAccessible()) fields.add(f);
+                }
+            }
+            return fields.toArray(new Field[0]);
+        });
+    }
+}
@@ -7,6 +7,8 @@ import java.util.Collection;
 
 public class CustomUserPrincipal extends User {
 
+    private static final long serialVersionUID = 1L;
+
     private final String company;
     private final String department;
     private final String team;
@@ -0,0 +1,32 @@
+package com.bugs.productmanager.config;
+
+import com.bugs.productmanager.service.QueryStats;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * DataSource 를 datasource-proxy 로 감싸 모든 JDBC 실행(Hibernate, JdbcTemplate, Flyway)을 QueryStats 에 기록한다.
+ * 커넥션 풀 정보는 DataSource#unwrap 으로 원래 HikariDataSource 를 꺼내 본다.
+ */
+@Component
+public class DataSourceProxyPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<QueryStats> queryStats;
+
+    public DataSourceProxyPostProcessor(ObjectProvider<QueryStats> queryStats) {
+        this.queryStats = queryStats;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) return bean;
+        return ProxyDataSourceBuilder.create(beanName, dataSource)
+                .listener(queryStats.getObject().listener())
+                .build();
+    }
+}
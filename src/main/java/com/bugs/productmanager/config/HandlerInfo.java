@@ -0,0 +1,35 @@
+package com.bugs.productmanager.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * 요청을 처리하는 컨트롤러 메서드 이름(컨트롤러#메서드)과 매핑 템플릿(uri).
+ * 인터셉터/필터가 각자 만들지 않도록 처음 조회할 때 한 번 만들어 요청 속성에 둔다.
+ * 매핑 템플릿은 핸들러 매핑 단계에서 정해지므로 preHandle 부터 조회할 수 있다.
+ */
+record HandlerInfo(String uri, String handler) {
+
+    private static final String ATTR = HandlerInfo.class.getName();
+
+    /**
+     * @return 컨트롤러 메서드가 아닌 핸들러(정적 리소스 등)면 null
+     */
+    static HandlerInfo resolve(HttpServletRequest request, Object handler) {
+        if (request.getAttribute(ATTR) instanceof HandlerInfo info) return info;
+        if (!(handler instanceof HandlerMethod method)) return null;
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        HandlerInfo info = new HandlerInfo(pattern != null ? pattern.toString() : "UNKNOWN",
+                method.getBeanType().getSimpleName() + "#" + method.getMethod().getName());
+        request.setAttribute(ATTR, info);
+        return info;
+    }
+
+    /**
+     * @return 인터셉터가 이미 만든 값, 컨트롤러 요청이 아니면 null
+     */
+    static HandlerInfo current(HttpServletRequest request) {
+        return request.getAttribute(ATTR) instanceof HandlerInfo info ? info : null;
+    }
+}
@@ -0,0 +1,29 @@
+package com.bugs.productmanager.config;
+
+import jakarta.annotation.PostConstruct;
+import org.apache.poi.openxml4j.util.ZipSecureFile;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * POI zip bomb 방어 한도 (JVM 전역 설정이므로 시작 시 한 번만 적용)
+ * 압축 해제 크기/압축률이 비정상인 xlsx 엔트리는 열기 전에 거부한다.
+ */
+@Configuration
+public class PoiSecurityConfig {
+
+    private final long maxEntryBytes;
+    private final double minInflateRatio;
+
+    public PoiSecurityConfig(@Value("${excel.import.max-entry-bytes:104857600}") long maxEntryBytes,
+                             @Value("${excel.import.min-inflate-ratio:0.01}") double minInflateRatio) {
+        this.maxEntryBytes = maxEntryBytes;
+        this.minInflateRatio = minInflateRatio;
+    }
+
+    @PostConstruct
+    public void applyZipLimits() {
+        ZipSecureFile.setMaxEntrySize(maxEntryBytes);
+        ZipSecureFile.setMinInflateRatio(minInflateRatio);
+    }
+}
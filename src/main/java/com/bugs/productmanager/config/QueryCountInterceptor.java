@@ -0,0 +1,34 @@
+package com.bugs.productmanager.config;
+
+import com.bugs.productmanager.service.QueryStats;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * 컨트롤러 요청마다 실행된 SQL 문 수를 세고, app.query.request-limit 을 넘으면 QueryStats 가 경고 로그를 남긴다.
+ */
+@Component
+public class QueryCountInterceptor implements HandlerInterceptor {
+
+    private final QueryStats queryStats;
+
+    public QueryCountInterceptor(QueryStats queryStats) {
+        this.queryStats = queryStats;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        HandlerInfo info = HandlerInfo.resolve(request, handler);
+        if (info != null) {
+            queryStats.beginRequest(info.handler() + " " + request.getMethod() + " " + request.getRequestURI());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (HandlerInfo.current(request) != null) queryStats.endRequest();
+    }
+}
@@ -0,0 +1,33 @@
+package com.bugs.productmanager.config;
+
+import com.bugs.productmanager.service.RequestTiming;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+/**
+ * 모든 Spring Data 리포지토리 호출을 RequestTiming DB 구간으로 감싼다 (트랜잭션 시작/커밋 포함).
+ * 스트림을 돌려주는 조회는 호출 시간만 들어가고 결과를 읽는 시간은 호출한 쪽 구간에 들어간다.
+ */
+@Component
+public class RepositoryTimingPostProcessor implements BeanPostProcessor {
+
+    private static final MethodInterceptor DB_SPAN = invocation -> {
+        RequestTiming.Span span = RequestTiming.span(RequestTiming.Phase.DB);
+        try {
+            return invocation.proceed();
+        } finally {
+            span.close();
+        }
+    };
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory ->
+                    factory.addRepositoryProxyPostProcessor((proxyFactory, info) -> proxyFactory.addAdvice(0, DB_SPAN)));
+        }
+        return bean;
+    }
+}
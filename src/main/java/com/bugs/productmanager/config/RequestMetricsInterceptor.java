@@ -0,0 +1,51 @@
+package com.bugs.productmanager.config;
+
+import com.bugs.productmanager.service.RequestMetrics;
+import io.micrometer.core.instrument.binder.http.Outcome;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * 컨트롤러 메서드 실행 시간 기록 (RequestMetrics). 정적 리소스 등 컨트롤러가 아닌 핸들러는 제외.
+ * afterCompletion 은 응답 본문(엑셀 다운로드 스트림 포함)을 다 쓴 뒤 호출된다.
+ */
+@Component
+public class RequestMetricsInterceptor implements HandlerInterceptor {
+
+    private static final String START_ATTR = RequestMetricsInterceptor.class.getName() + ".start";
+
+    private final RequestMetrics requestMetrics;
+
+    public RequestMetricsInterceptor(RequestMetrics requestMetrics) {
+        this.requestMetrics = requestMetrics;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (HandlerInfo.resolve(request, handler) != null) request.setAttribute(START_ATTR, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        HandlerInfo info = HandlerInfo.current(request);
+        if (info == null || !(request.getAttribute(START_ATTR) instanceof Long start)) return;
+        long elapsed = System.nanoTime() - start;
+
+        String outcome = ex != null ? Outcome.SERVER_ERROR.name() : Outcome.forStatus(response.getStatus()).name();
+        requestMetrics.record(new RequestMetrics.Key(info.uri(), info.handler(), currentRole(), outcome), elapsed);
+    }
+
+    private String currentRole() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated()) return "ANONYMOUS";
+        return auth.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .findFirst().orElse("ANONYMOUS");
+    }
+}
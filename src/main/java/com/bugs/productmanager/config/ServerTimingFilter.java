@@ -0,0 +1,135 @@
+package com.bugs.productmanager.config;
+
+import com.bugs.productmanager.service.RequestMetrics;
+import com.bugs.productmanager.service.RequestTiming;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 요청 구간별 시간(RequestTiming)을 RequestMetrics 에 기록하고, 켜져 있으면 Server-Timing 헤더로도 내보낸다.
+ * - 지표는 컨트롤러 요청(인터셉터가 HandlerInfo 를 남긴 요청)만 기록한다 (설정과 무관)
+ * - 헤더는 app.server-timing.enabled=true 일 때만 붙인다 (구간 시간이 밖으로 새지 않게 기본은 끔)
+ * - 헤더는 응답 본문을 쓰기 직전(getWriter/getOutputStream/redirect/error)에 붙이므로
+ *   그 시점에 끝나지 않는 render 는 헤더에 넣지 않고 지표로만 본다
+ * 보안 필터 시간도 전체(total)에 넣기 위해 가장 먼저 실행한다.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private final RequestMetrics requestMetrics;
+    private final boolean headerEnabled;
+
+    public ServerTimingFilter(RequestMetrics requestMetrics,
+                              @Value("${app.server-timing.enabled:false}") boolean headerEnabled) {
+        this.requestMetrics = requestMetrics;
+        this.headerEnabled = headerEnabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestTiming.begin();
+        TimingResponse timingResponse = headerEnabled ? new TimingResponse(response) : null;
+        try {
+            chain.doFilter(request, timingResponse != null ? timingResponse : response);
+        } finally {
+            try {
+                if (timingResponse != null) timingResponse.addTimingHeader();
+                HandlerInfo info = HandlerInfo.current(request);
+                if (info != null) {
+                    requestMetrics.recordPhases(new RequestMetrics.Endpoint(info.uri(), info.handler()),
+                            RequestTiming.snapshot(), RequestTiming.elapsed());
+                }
+            } finally {
+                RequestTiming.end();
+            }
+        }
+    }
+
+    /**
+     * db;dur=12.3;desc="DB", agg;dur=..., total;dur=... (render 제외)
+     */
+    static String headerValue(Map<RequestTiming.Phase, Long> phases, long totalNanos) {
+        StringBuilder sb = new StringBuilder();
+        phases.forEach((phase, nanos) -> {
+            if (phase != RequestTiming.Phase.RENDER) appendMetric(sb, phase.metricName(), nanos, phase.description());
+        });
+        appendMetric(sb, "total", totalNanos, "Total");
+        return sb.toString();
+    }
+
+    private static void appendMetric(StringBuilder sb, String name, long nanos, String description) {
+        if (!sb.isEmpty()) sb.append(", ");
+        sb.append(name).append(";dur=").append(String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0))
+          .append(";desc=\"").append(description).append('"');
+    }
+
+    /**
+     * 커밋 전에 Server-Timing 헤더를 한 번 붙이는 응답 래퍼
+     */
+    private static final class TimingResponse extends HttpServletResponseWrapper {
+
+        private boolean headerAdded;
+
+        TimingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        void addTimingHeader() {
+            if (headerAdded || isCommitted() || !RequestTiming.isActive()) return;
+            headerAdded = true;
+            setHeader("Server-Timing", headerValue(RequestTiming.snapshot(), RequestTiming.elapsed()));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addTimingHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addTimingHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addTimingHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addTimingHeader();
+            super.sendRedirect(location);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addTimingHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addTimingHeader();
+            super.sendError(sc, msg);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.bugs.productmanager.config;
+
+import com.bugs.productmanager.service.RequestTiming;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+/**
+ * 컨트롤러 요청 표시(ServerTimingFilter 가 지표를 기록할 HandlerInfo)와 뷰 렌더링 구간 측정.
+ * postHandle 은 렌더링 직전, afterCompletion 은 렌더링 직후에 호출된다.
+ */
+@Component
+public class ServerTimingInterceptor implements HandlerInterceptor {
+
+    private static final String RENDER_SPAN_ATTR = ServerTimingInterceptor.class.getName() + ".render";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        HandlerInfo.resolve(request, handler);
+        return true;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        if (modelAndView != null && !modelAndView.wasCleared()) {
+            request.setAttribute(RENDER_SPAN_ATTR, RequestTiming.span(RequestTiming.Phase.RENDER));
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(RENDER_SPAN_ATTR) instanceof RequestTiming.Span span) {
+            request.removeAttribute(RENDER_SPAN_ATTR);
+            span.close();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.bugs.productmanager.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final RequestMetricsInterceptor requestMetricsInterceptor;
+    private final QueryCountInterceptor queryCountInterceptor;
+    private final ServerTimingInterceptor serverTimingInterceptor;
+
+    public WebMvcConfig(RequestMetricsInterceptor requestMetricsInterceptor,
+                        QueryCountInterceptor queryCountInterceptor,
+                        ServerTimingInterceptor serverTimingInterceptor) {
+        this.requestMetricsInterceptor = requestMetricsInterceptor;
+        this.queryCountInterceptor = queryCountInterceptor;
+        this.serverTimingInterceptor = serverTimingInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(requestMetricsInterceptor);
+        registry.addInterceptor(queryCountInterceptor);
+        registry.addInterceptor(serverTimingInterceptor);
+    }
+}
@@ -2,11 +2,20 @@ package com.bugs.productmanager.controller;
 
 import com.bugs.productmanager.config.CustomUserPrincipal;
 import com.bugs.productmanager.model.Budget;
+import com.bugs.productmanager.model.BudgetRow;
 import com.bugs.productmanager.model.Expense;
+import com.bugs.productmanager.model.ImportJob;
 import com.bugs.productmanager.service.BudgetService;
 import com.bugs.productmanager.service.ExcelService;
+import com.bugs.productmanager.service.ExpenseAggregator;
+import com.bugs.productmanager.service.ExpenseDimensionIndex;
 import com.bugs.productmanager.service.ExpenseService;
+import com.bugs.productmanager.service.ExportFileCache;
+import com.bugs.productmanager.service.ImportJobService;
+import com.bugs.productmanager.service.QueryFanOut;
+import com.bugs.productmanager.service.QueryResultCache;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -21,21 +30,37 @@ import java.nio.charset.StandardCharsets;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.*;;
+import java.util.concurrent.CompletableFuture;
 
 @Controller
 @RequestMapping("/expenses")
 public class ExpenseController {
 
+    private static final int MIN_PAGE_SIZE = 10;
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final ExpenseService expenseService;
     private final BudgetService budgetService;
     private final ExcelService excelService;
+    private final QueryFanOut queryFanOut;
+    private final ImportJobService importJobService;
+    private final ExportFileCache exportFileCache;
+    private final QueryResultCache queryCache;
 
     public ExpenseController(ExpenseService expenseService,
                              BudgetService budgetService,
-                             ExcelService excelService) {
+                             ExcelService excelService,
+                             QueryFanOut queryFanOut,
+                             ImportJobService importJobService,
+                             ExportFileCache exportFileCache,
+                             QueryResultCache queryCache) {
         this.expenseService = expenseService;
         this.budgetService = budgetService;
         this.excelService = excelService;
+        this.queryFanOut = queryFanOut;
+        this.importJobService = importJobService;
+        this.exportFileCache = exportFileCache;
+        this.queryCache = queryCache;
     }
 
     @GetMapping
@@ -47,6 +72,8 @@ public class ExpenseController {
             @RequestParam(required = false) List<String> team,
             @RequestParam(required = false, defaultValue = "storeName") String searchType,
             @RequestParam(required = false) String searchKeyword,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "100") int size,
             Authentication auth,
             Model model) {
 
@@ -72,53 +99,108 @@ public class ExpenseController {
         List<String> ymValues = ym != null ? ym.stream().filter(s -> s != null && !s.isEmpty()).toList() : List.of();
         List<String> divValues = division != null ? division.stream().filter(s -> s != null && !s.isEmpty()).toList() : List.of();
 
-        List<String> ymList = expenseService.findDistinctYm();
-        List<String> divisionList = expenseService.findDistinctDivision();
-
         // 권한별 필터 목록 제한
         String role = getUserRole(auth);
         String userComp = getUserCompany(auth);
         String userDept = getUserDepartment(auth);
         String userTm = getUserTeam(auth);
 
-        List<String> categoryList;
-        List<String> departmentList;
-        List<String> teamList;
+        // 필터 없으면 최신 월로 기본 설정
+        ymValues = expenseService.resolveDefaultYmList(ymValues, category, divValues, purpose, storeName, department, teamValues);
+
+        // 차트 데이터: 최근 1년치 고정 + 전년 동월
+        YearMonth now = YearMonth.now();
+        YearMonth start = now.minusMonths(12);
+        DateTimeFormatter fmt = DateTimeFormatter.ofPattern("yyyy-MM");
+        List<String> chartYmList = new ArrayList<>();
+        for (YearMonth m = start; !m.isAfter(now); m = m.plusMonths(1)) {
+            chartYmList.add(m.format(fmt));
+        }
+        List<String> prevYearYmList = new ArrayList<>();
+        for (String ym2 : chartYmList) {
+            YearMonth m = YearMonth.parse(ym2, fmt);
+            prevYearYmList.add(m.minusYears(1).format(fmt));
+        }
 
+        // 서로 독립적인 조회는 병렬 실행 후 합류 (expense.list.parallel.*)
+        final List<String> fYm = ymValues;
+        final String fCat = category;
+        final String fDept = department;
+        final String fPurpose = purpose;
+        final String fStore = storeName;
+        int pageSize = Math.max(MIN_PAGE_SIZE, Math.min(size, MAX_PAGE_SIZE));
+        QueryFanOut.Scope fanOut = queryFanOut.open("expenseList");
+
+        CompletableFuture<List<String>> ymListF = fanOut.fork("distinctYm", expenseService::findDistinctYm);
+        CompletableFuture<List<String>> divisionListF = fanOut.fork("distinctDivision", expenseService::findDistinctDivision);
+        CompletableFuture<List<String>> categoryListF;
+        CompletableFuture<List<String>> departmentListF;
+        CompletableFuture<List<String>> teamListF;
+        // 권한 범위의 옵션 트리 (메모리 색인): 화면에 인라인해 회사→실→팀 캐스케이딩에 쓴다
+        ExpenseDimensionIndex.FilterOptions options = expenseService.findFilterOptions(resolveScope(auth));
+        model.addAttribute("filterOptions", options);
         if ("ROLE_ADMIN".equals(role)) {
-            categoryList = expenseService.findDistinctCategory();
-            departmentList = expenseService.findDistinctDepartment();
-            teamList = expenseService.findDistinctTeam();
-        } else if ("ROLE_COMPANY".equals(role)) {
-            categoryList = userComp != null ? List.of(userComp) : List.of();
-            departmentList = expenseService.findDistinctDepartment();  // 회사 내 실은 JS 캐스케이딩으로 필터
-            teamList = expenseService.findDistinctTeam();
-        } else if ("ROLE_DEPARTMENT".equals(role)) {
-            categoryList = userComp != null ? List.of(userComp) : List.of();
-            departmentList = userDept != null ? List.of(userDept) : List.of();
-            teamList = expenseService.findDistinctTeam();  // 실 내 팀은 JS 캐스케이딩으로 필터
+            categoryListF = fanOut.fork("distinctCategory", expenseService::findDistinctCategory);
+            departmentListF = fanOut.fork("distinctDepartment", expenseService::findDistinctDepartment);
+            teamListF = fanOut.fork("distinctTeam", expenseService::findDistinctTeam);
+        } else if ("ROLE_COMPANY".equals(role) || "ROLE_DEPARTMENT".equals(role)) {
+            // 전체 실/팀 대신 권한 범위의 옵션 트리에서 뽑는다 (선택에 따른 세부 캐스케이딩은 JS 에서)
+            categoryListF = CompletableFuture.completedFuture(userComp != null ? List.of(userComp) : List.of());
+            departmentListF = CompletableFuture.completedFuture("ROLE_DEPARTMENT".equals(role)
+                    ? (userDept != null ? List.of(userDept) : List.of())
+                    : options.categories().stream()
+                            .flatMap(c -> c.departments().stream())
+                            .map(ExpenseDimensionIndex.DepartmentNode::name)
+                            .distinct().sorted().toList());
+            teamListF = CompletableFuture.completedFuture(options.categories().stream()
+                    .flatMap(c -> c.departments().stream())
+                    .flatMap(d -> d.teams().stream())
+                    .map(ExpenseDimensionIndex.TeamNode::name)
+                    .distinct().sorted().toList());
         } else {
             // ROLE_TEAM
-            categoryList = userComp != null ? List.of(userComp) : List.of();
-            departmentList = userDept != null ? List.of(userDept) : List.of();
-            teamList = userTm != null ? List.of(userTm) : List.of();
+            categoryListF = CompletableFuture.completedFuture(userComp != null ? List.of(userComp) : List.of());
+            departmentListF = CompletableFuture.completedFuture(userDept != null ? List.of(userDept) : List.of());
+            teamListF = CompletableFuture.completedFuture(userTm != null ? List.of(userTm) : List.of());
         }
 
-        // 필터 없으면 최신 월로 기본 설정
-        ymValues = expenseService.resolveDefaultYmList(ymValues, category, divValues, purpose, storeName, department, teamValues);
-
-        List<Expense> expenses = expenseService.findFiltered(ymValues, category, divValues, purpose, storeName, department, teamValues);
-        BigDecimal totalAmount = expenseService.calcTotalAmount(expenses);
-
-        List<Budget> budgets = budgetService.findFiltered(ymValues, category, divValues, department, teamValues);
+        // 목록은 keyset 페이지 단위, 합계/건수는 집계 쿼리로 전체 기준
+        CompletableFuture<ExpenseService.ExpensePage> pageF = fanOut.fork("page",
+                () -> expenseService.findPage(fYm, fCat, divValues, fPurpose, fStore, fDept, teamValues, cursor, pageSize));
+        // 합계/건수/예산별 사용금액/파이 차트는 예산키 GROUP BY 한 번을 단일 패스로 집계
+        CompletableFuture<ExpenseAggregator.Result> usageF = fanOut.fork("aggregate",
+                () -> expenseService.aggregate(fYm, fCat, divValues, fPurpose, fStore, fDept, teamValues));
+        CompletableFuture<List<BudgetRow>> budgetsF = fanOut.fork("budgets",
+                () -> budgetService.findFiltered(fYm, fCat, divValues, fDept, teamValues));
+        CompletableFuture<Map<String, BigDecimal>> chartUsedF = fanOut.fork("chartUsed",
+                () -> expenseService.sumAmountByYm(chartYmList, fCat, divValues, fPurpose, fStore, fDept, teamValues));
+        CompletableFuture<List<BudgetRow>> chartBudgetsF = fanOut.fork("chartBudgets",
+                () -> budgetService.findFiltered(chartYmList, fCat, divValues, fDept, teamValues));
+        CompletableFuture<Map<String, BigDecimal>> prevYearUsedF = fanOut.fork("prevYearUsed",
+                () -> expenseService.sumAmountByYm(prevYearYmList, fCat, divValues, fPurpose, fStore, fDept, teamValues));
+        fanOut.join();
+
+        List<String> ymList = ymListF.join();
+        List<String> divisionList = divisionListF.join();
+        List<String> categoryList = categoryListF.join();
+        List<String> departmentList = departmentListF.join();
+        List<String> teamList = teamListF.join();
+        ExpenseService.ExpensePage page = pageF.join();
+        ExpenseAggregator.Result usage = usageF.join();
+        BigDecimal totalAmount = usage.totalAmount();
+        List<BudgetRow> budgets = budgetsF.join();
         BigDecimal monthlyAmount = budgetService.calcMonthlyAmount(budgets);
         BigDecimal prevRemaining = budgetService.calcPrevRemaining(budgets);
         BigDecimal budgetTotal = monthlyAmount.add(prevRemaining);
         BigDecimal remaining = budgetTotal.subtract(totalAmount);
 
-        model.addAttribute("expenses", expenses);
+        model.addAttribute("expenses", page.content());
+        model.addAttribute("hasNext", page.hasNext());
+        model.addAttribute("nextCursor", page.nextCursor());
+        model.addAttribute("isFirstPage", cursor == null || cursor.isEmpty());
+        model.addAttribute("pageSize", pageSize);
         model.addAttribute("totalAmount", totalAmount);
-        model.addAttribute("totalCount", expenses.size());
+        model.addAttribute("totalCount", usage.count());
         model.addAttribute("monthlyAmount", monthlyAmount);
         model.addAttribute("prevRemaining", prevRemaining);
         model.addAttribute("budgetTotal", budgetTotal);
@@ -147,46 +229,27 @@ public class ExpenseController {
                 : 0;
         model.addAttribute("usagePercent", usagePercent);
         model.addAttribute("budgetList", budgets);
-        Map<String, BigDecimal> usedAmountMap = expenseService.calcUsedAmountByBudgetKey(expenses);
-        model.addAttribute("usedAmountMap", usedAmountMap);
+        model.addAttribute("usedAmountMap", usage.usedAmountByKeyString());
 
         // 예산별 사용률 맵
         Map<String, Integer> budgetUsageMap = new LinkedHashMap<>();
-        for (Budget b : budgets) {
-            String key = b.getYm() + "_" + b.getCategory() + "_" + b.getDivision()
-                       + "_" + nullSafe(b.getDepartment()) + "_" + nullSafe(b.getTeam());
-            BigDecimal used = usedAmountMap.getOrDefault(key, BigDecimal.ZERO);
+        for (BudgetRow b : budgets) {
+            ExpenseAggregator.BudgetKey key = ExpenseAggregator.BudgetKey.of(b);
+            BigDecimal used = usage.usedAmount(key);
             BigDecimal total = b.getTotalBudget();
             int pct = total.compareTo(BigDecimal.ZERO) > 0
                     ? used.multiply(BigDecimal.valueOf(100)).divide(total, 0, java.math.RoundingMode.HALF_UP).intValue() : 0;
-            budgetUsageMap.put(key, pct);
+            budgetUsageMap.put(key.asString(), pct);
         }
         model.addAttribute("budgetUsageMap", budgetUsageMap);
 
-        // 차트 데이터: 최근 1년치 고정
-        YearMonth now = YearMonth.now();
-        YearMonth start = now.minusMonths(12);
-        DateTimeFormatter fmt = DateTimeFormatter.ofPattern("yyyy-MM");
-        List<String> chartYmList = new ArrayList<>();
-        for (YearMonth m = start; !m.isAfter(now); m = m.plusMonths(1)) {
-            chartYmList.add(m.format(fmt));
-        }
-        List<Expense> chartExpenses = expenseService.findFiltered(chartYmList, category, divValues, purpose, storeName, department, teamValues);
-        Map<String, BigDecimal> chartUsedData = expenseService.calcAmountByYm(chartExpenses);
-        List<Budget> chartBudgets = budgetService.findFiltered(chartYmList, category, divValues, department, teamValues);
-        Map<String, BigDecimal> chartBudgetData = budgetService.calcBudgetTotalByYm(chartBudgets);
+        // 차트 데이터
+        Map<String, BigDecimal> chartUsedData = chartUsedF.join();
+        Map<String, BigDecimal> chartBudgetData = budgetService.calcBudgetTotalByYm(chartBudgetsF.join());
+        Map<String, BigDecimal> prevYearUsedData = prevYearUsedF.join();
         List<String> chartLabels = new ArrayList<>();
         List<BigDecimal> chartUsedValues = new ArrayList<>();
         List<BigDecimal> chartRemainValues = new ArrayList<>();
-        // 전년 동월 데이터
-        List<String> prevYearYmList = new ArrayList<>();
-        for (String ym2 : chartYmList) {
-            YearMonth m = YearMonth.parse(ym2, fmt);
-            prevYearYmList.add(m.minusYears(1).format(fmt));
-        }
-        List<Expense> prevYearExpenses = expenseService.findFiltered(prevYearYmList, category, divValues, purpose, storeName, department, teamValues);
-        Map<String, BigDecimal> prevYearUsedData = expenseService.calcAmountByYm(prevYearExpenses);
-
         List<BigDecimal> chartPrevYearValues = new ArrayList<>();
         for (int i = 0; i < chartYmList.size(); i++) {
             String ym2 = chartYmList.get(i);
@@ -203,20 +266,12 @@ public class ExpenseController {
         model.addAttribute("chartPrevYearValues", chartPrevYearValues);
 
         // 파이 차트 데이터: 카테고리별 사용금액
-        Map<String, BigDecimal> catAmountMap = new LinkedHashMap<>();
-        for (Expense e : expenses) {
-            String cat = e.getCategory() != null ? e.getCategory() : "기타";
-            catAmountMap.merge(cat, e.getAmount() != null ? e.getAmount() : BigDecimal.ZERO, BigDecimal::add);
-        }
+        Map<String, BigDecimal> catAmountMap = usage.amountByCategory();
         model.addAttribute("pieLabels", new ArrayList<>(catAmountMap.keySet()));
         model.addAttribute("pieValues", new ArrayList<>(catAmountMap.values()));
 
         // 파이 차트: 구분별 사용금액
-        Map<String, BigDecimal> divAmountMap = new LinkedHashMap<>();
-        for (Expense e : expenses) {
-            String div = e.getDivision() != null ? e.getDivision() : "기타";
-            divAmountMap.merge(div, e.getAmount() != null ? e.getAmount() : BigDecimal.ZERO, BigDecimal::add);
-        }
+        Map<String, BigDecimal> divAmountMap = usage.amountByDivision();
         model.addAttribute("pieDivLabels", new ArrayList<>(divAmountMap.keySet()));
         model.addAttribute("pieDivValues", new ArrayList<>(divAmountMap.values()));
 
@@ -403,6 +458,7 @@ public class ExpenseController {
                               @RequestParam(value = "ym", required = false) String ym,
                               @RequestParam(value = "department", required = false) String department,
                               @RequestParam(value = "team", required = false) String team,
+                              @RequestParam(value = "replaceMissing", defaultValue = "false") boolean replaceMissing,
                               Authentication auth,
                               RedirectAttributes redirectAttributes) {
         department = resolveDepartment(auth, department);
@@ -414,9 +470,8 @@ public class ExpenseController {
             return "redirect:/expenses/upload";
         }
         try {
-            ExcelService.UploadResult result = excelService.importExcel(file, ym, department, team);
-            redirectAttributes.addFlashAttribute("successMsg",
-                    "업로드 완료! 예산 " + result.budgetCount() + "건, 경비 " + result.expenseCount() + "건 등록되었습니다.");
+            ImportJob job = importJobService.submit(file, ym, department, team, replaceMissing, auth.getName());
+            redirectAttributes.addFlashAttribute("jobId", job.getId());
             redirectAttributes.addFlashAttribute("ym", ym);
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("errorMsg", "업로드 실패: " + e.getMessage());
@@ -425,6 +480,28 @@ public class ExpenseController {
         return "redirect:/expenses/upload";
     }
 
+    /**
+     * 업로드 작업 진행 상태 (업로드 화면에서 폴링). 본인 작업 또는 관리자만 조회 가능
+     */
+    @GetMapping("/upload/jobs/{id}")
+    @ResponseBody
+    public ResponseEntity<ImportJobService.JobStatus> uploadJobStatus(@PathVariable String id, Authentication auth) {
+        Optional<ImportJob> job = importJobService.findById(id);
+        if (job.isEmpty() || !(isAdmin(auth) || job.get().getUsername().equals(auth.getName()))) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.of(importJobService.status(id));
+    }
+
+    /**
+     * 캐스케이딩 필터 옵션 (회사 → 실 → 팀, 단계별 ym). 로그인 사용자의 권한 범위 안의 값만 돌려준다
+     */
+    @GetMapping("/filter-options")
+    @ResponseBody
+    public ExpenseDimensionIndex.FilterOptions filterOptions(Authentication auth) {
+        return expenseService.findFilterOptions(resolveScope(auth));
+    }
+
     @GetMapping("/download")
     public void downloadExcel(
             @RequestParam(required = false) List<String> ym,
@@ -437,38 +514,39 @@ public class ExpenseController {
             Authentication auth,
             HttpServletResponse response) throws IOException {
 
-        category = resolveCategory(auth, category);
-        department = resolveDepartment(auth, department);
+        // 행은 export 중에 스트림으로 읽으므로 람다에서 쓰는 조건은 final 로 둔다
+        String cat = resolveCategory(auth, category);
+        String dept = resolveDepartment(auth, department);
         List<String> teamValues = resolveTeamValues(auth, team);
 
-        String purpose = null;
-        String storeName = null;
-        if (searchKeyword != null && !searchKeyword.trim().isEmpty()) {
-            if ("storeName".equals(searchType)) {
-                storeName = searchKeyword.trim();
-            } else {
-                purpose = searchKeyword.trim();
-            }
-        }
+        String keyword = searchKeyword != null ? searchKeyword.trim() : "";
+        boolean byStoreName = "storeName".equals(searchType);
+        String purpose = !keyword.isEmpty() && !byStoreName ? keyword : null;
+        String storeName = !keyword.isEmpty() && byStoreName ? keyword : null;
         List<String> ymValues = ym != null ? ym.stream().filter(s -> s != null && !s.isEmpty()).toList() : List.of();
         List<String> divValues = division != null ? division.stream().filter(s -> s != null && !s.isEmpty()).toList() : List.of();
-        List<Expense> expenses = expenseService.findFiltered(ymValues, category, divValues, purpose, storeName, department, teamValues);
-        List<Budget> budgets = budgetService.findFiltered(ymValues, category, divValues, department, teamValues);
 
         boolean hasYm = !ymValues.isEmpty();
-        boolean hasCat = category != null && !category.isEmpty();
+        boolean hasCat = cat != null && !cat.isEmpty();
 
         String filename = "경비예산";
         if (hasYm && ymValues.size() == 1) filename += "_" + ymValues.get(0).replace("-", "");
         else if (hasYm) filename += "_" + ymValues.size() + "개월";
-        if (hasCat) filename += "_" + category;
+        if (hasCat) filename += "_" + cat;
         filename += ".xlsx";
 
         response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
         response.setHeader("Content-Disposition",
                 "attachment; filename*=UTF-8''" + URLEncoder.encode(filename, StandardCharsets.UTF_8));
 
-        excelService.exportExcel(expenses, budgets, response.getOutputStream());
+        // 같은 필터 + 같은 데이터 버전이면 이전에 만든 파일을 그대로 보낸다 (월말 보고서 반복 다운로드)
+        QueryResultCache.Key key = QueryResultCache.Key.of("download", ymValues, cat, divValues,
+                purpose, storeName, dept, teamValues);
+        exportFileCache.serve(key, exportStamp(key), out -> excelService.exportExcel(
+                        action -> expenseService.forEachRowBySection(
+                                ymValues, cat, divValues, purpose, storeName, dept, teamValues, action),
+                        budgetService.findFiltered(ymValues, cat, divValues, dept, teamValues), out),
+                response.getOutputStream());
     }
 
     // ==================== 전체 백업 ====================
@@ -479,15 +557,25 @@ public class ExpenseController {
         String dept = resolveDepartment(auth, null);
         List<String> tmValues = resolveTeamValues(auth, null);
 
-        List<Expense> allExpenses = expenseService.findFiltered(List.of(), cat, List.of(), null, null, dept, tmValues);
-        List<Budget> allBudgets = budgetService.findFiltered(List.of(), cat, List.of(), dept, tmValues);
-
         String filename = "경비예산_전체백업_" + java.time.LocalDate.now() + ".xlsx";
         response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
         response.setHeader("Content-Disposition",
                 "attachment; filename*=UTF-8''" + URLEncoder.encode(filename, StandardCharsets.UTF_8));
 
-        excelService.exportExcel(allExpenses, allBudgets, response.getOutputStream());
+        QueryResultCache.Key key = QueryResultCache.Key.of("backup", List.of(), cat, List.of(),
+                null, null, dept, tmValues);
+        exportFileCache.serve(key, exportStamp(key), out -> excelService.exportExcel(
+                        action -> expenseService.forEachRowBySection(
+                                List.of(), cat, List.of(), null, null, dept, tmValues, action),
+                        budgetService.findFiltered(List.of(), cat, List.of(), dept, tmValues), out),
+                response.getOutputStream());
+    }
+
+    /** export 파일은 경비와 예산을 함께 담으므로 두 테이블의 데이터 버전을 이어 붙여 스탬프로 쓴다 */
+    private List<Long> exportStamp(QueryResultCache.Key key) {
+        List<Long> stamp = new ArrayList<>(queryCache.stamp(QueryResultCache.EXPENSE, key));
+        stamp.addAll(queryCache.stamp(QueryResultCache.BUDGET, key));
+        return stamp;
     }
 
     // ==================== Helpers ====================
@@ -560,6 +648,19 @@ public class ExpenseController {
         return team.stream().filter(t -> t != null && !t.isEmpty()).toList();
     }
 
+    /**
+     * 권한 레벨별 조회 범위: ADMIN 전체, COMPANY 자기 회사, DEPARTMENT 자기 실, TEAM 자기 팀
+     */
+    private ExpenseDimensionIndex.Scope resolveScope(Authentication auth) {
+        String role = getUserRole(auth);
+        if ("ROLE_ADMIN".equals(role)) return new ExpenseDimensionIndex.Scope(null, null, null);
+        String comp = getUserCompany(auth);
+        if ("ROLE_COMPANY".equals(role)) return new ExpenseDimensionIndex.Scope(comp, null, null);
+        String dept = getUserDepartment(auth);
+        if ("ROLE_DEPARTMENT".equals(role)) return new ExpenseDimensionIndex.Scope(comp, dept, null);
+        return new ExpenseDimensionIndex.Scope(comp, dept, getUserTeam(auth));
+    }
+
     private boolean canAccessExpense(Authentication auth, Expense expense) {
         if (isAdmin(auth)) return true;
         String role = getUserRole(auth);
@@ -599,10 +700,6 @@ public class ExpenseController {
         return canAccessBudget(auth, budget);
     }
 
-    private String nullSafe(String s) {
-        return s != null ? s : "";
-    }
-
     private String buildRedirect(String ym, String category, String division, String department, String team) {
         return "redirect:/expenses?ym=" + enc(ym) + "&category=" + enc(category) + "&division=" + enc(division)
              + "&department=" + enc(department) + "&team=" + enc(team);
@@ -1,9 +1,10 @@
 package com.bugs.productmanager.controller;
 
 import com.bugs.productmanager.config.CustomUserPrincipal;
-import com.bugs.productmanager.model.Budget;
-import com.bugs.productmanager.model.Expense;
+import com.bugs.productmanager.model.BudgetRow;
+import com.bugs.productmanager.model.ExpenseRow;
 import com.bugs.productmanager.service.BudgetService;
+import com.bugs.productmanager.service.ExpenseAggregator;
 import com.bugs.productmanager.service.ExpenseService;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
@@ -38,43 +39,36 @@ public class HomeController {
         String department = ("ROLE_ADMIN".equals(role) || "ROLE_COMPANY".equals(role)) ? null : getUserDepartment(auth);
         String team = "ROLE_TEAM".equals(role) ? getUserTeam(auth) : null;
 
+        List<String> teamValues = team != null && !team.isEmpty() ? List.of(team) : List.of();
+
         // 이번 달
-        List<Expense> currentExpenses = expenseService.findFilteredSingleTeam(List.of(currentYm), category, List.of(), null, null, department, team);
-        BigDecimal currentUsed = expenseService.calcTotalAmount(currentExpenses);
-        List<Budget> currentBudgets = budgetService.findFilteredSingleTeam(List.of(currentYm), category, List.of(), department, team);
+        ExpenseAggregator.Result current = expenseService.aggregate(List.of(currentYm), category, List.of(), null, null, department, teamValues);
+        BigDecimal currentUsed = current.totalAmount();
+        List<BudgetRow> currentBudgets = budgetService.findFilteredSingleTeam(List.of(currentYm), category, List.of(), department, team);
         BigDecimal currentBudgetTotal = budgetService.calcMonthlyAmount(currentBudgets).add(budgetService.calcPrevRemaining(currentBudgets));
         BigDecimal currentRemain = currentBudgetTotal.subtract(currentUsed);
         int currentUsage = currentBudgetTotal.compareTo(BigDecimal.ZERO) > 0
                 ? currentUsed.multiply(BigDecimal.valueOf(100)).divide(currentBudgetTotal, 0, RoundingMode.HALF_UP).intValue() : 0;
 
         // 전월
-        List<Expense> prevExpenses = expenseService.findFilteredSingleTeam(List.of(prevYm), category, List.of(), null, null, department, team);
-        BigDecimal prevUsed = expenseService.calcTotalAmount(prevExpenses);
+        BigDecimal prevUsed = expenseService.summarize(List.of(prevYm), category, List.of(), null, null, department, teamValues).totalAmount();
 
         // 전년 동월
         String prevYearYm = YearMonth.now().minusYears(1).format(DateTimeFormatter.ofPattern("yyyy-MM"));
-        List<Expense> prevYearExpenses = expenseService.findFilteredSingleTeam(List.of(prevYearYm), category, List.of(), null, null, department, team);
-        BigDecimal prevYearUsed = expenseService.calcTotalAmount(prevYearExpenses);
+        BigDecimal prevYearUsed = expenseService.summarize(List.of(prevYearYm), category, List.of(), null, null, department, teamValues).totalAmount();
 
         // 카테고리별 이번달 사용금액
-        Map<String, BigDecimal> catMap = new LinkedHashMap<>();
-        for (Expense e : currentExpenses) {
-            String cat = e.getCategory() != null ? e.getCategory() : "기타";
-            catMap.merge(cat, e.getAmount() != null ? e.getAmount() : BigDecimal.ZERO, BigDecimal::add);
-        }
+        Map<String, BigDecimal> catMap = current.amountByCategory();
 
         // 최근 5건 경비
-        List<Expense> recentExpenses = currentExpenses.stream()
-                .sorted((a, b) -> b.getExpenseDate().compareTo(a.getExpenseDate()))
-                .limit(5)
-                .toList();
+        List<ExpenseRow> recentExpenses = expenseService.findRecentRows(List.of(currentYm), category, List.of(), department, teamValues, 5);
 
         model.addAttribute("currentYm", currentYm);
         model.addAttribute("currentUsed", currentUsed);
         model.addAttribute("currentBudgetTotal", currentBudgetTotal);
         model.addAttribute("currentRemain", currentRemain);
         model.addAttribute("currentUsage", currentUsage);
-        model.addAttribute("currentCount", currentExpenses.size());
+        model.addAttribute("currentCount", current.count());
         model.addAttribute("prevUsed", prevUsed);
         model.addAttribute("prevYearUsed", prevYearUsed);
         model.addAttribute("catMap", catMap);
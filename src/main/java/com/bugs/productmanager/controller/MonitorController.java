@@ -1,8 +1,16 @@
 package com.bugs.productmanager.controller;
 
+import com.bugs.productmanager.config.CacheProperties;
+import com.bugs.productmanager.config.CacheWeigher;
+import com.bugs.productmanager.service.ExportFileCache;
+import com.bugs.productmanager.service.QueryStats;
+import com.bugs.productmanager.service.RequestMetrics;
 import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.zaxxer.hikari.HikariDataSource;
 import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.http.ResponseEntity;
@@ -20,18 +28,34 @@ import java.lang.management.RuntimeMXBean;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.time.Duration;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
 
 @Controller
 @RequestMapping("/monitor")
 public class MonitorController {
 
+    private static final int QUERY_TOP = 20;
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("MM-dd HH:mm:ss");
+
     private final CacheManager cacheManager;
     private final DataSource dataSource;
+    private final ExportFileCache exportFileCache;
+    private final CacheProperties cacheProperties;
+    private final RequestMetrics requestMetrics;
+    private final QueryStats queryStats;
+    private final EntityManagerFactory entityManagerFactory;
 
-    public MonitorController(CacheManager cacheManager, DataSource dataSource) {
+    public MonitorController(CacheManager cacheManager, DataSource dataSource, ExportFileCache exportFileCache,
+                             CacheProperties cacheProperties, RequestMetrics requestMetrics,
+                             QueryStats queryStats, EntityManagerFactory entityManagerFactory) {
         this.cacheManager = cacheManager;
         this.dataSource = dataSource;
+        this.exportFileCache = exportFileCache;
+        this.cacheProperties = cacheProperties;
+        this.requestMetrics = requestMetrics;
+        this.queryStats = queryStats;
+        this.entityManagerFactory = entityManagerFactory;
     }
 
     @GetMapping
@@ -42,24 +66,7 @@ public class MonitorController {
         if (!isAdmin) return "redirect:/";
 
         // 캐시 통계
-        List<Map<String, Object>> cacheList = new ArrayList<>();
-        for (String name : cacheManager.getCacheNames()) {
-            var cache = cacheManager.getCache(name);
-            if (cache instanceof CaffeineCache caffeineCache) {
-                var nativeCache = caffeineCache.getNativeCache();
-                CacheStats stats = nativeCache.stats();
-                Map<String, Object> info = new LinkedHashMap<>();
-                info.put("name", name);
-                info.put("size", nativeCache.estimatedSize());
-                info.put("hitCount", stats.hitCount());
-                info.put("missCount", stats.missCount());
-                info.put("hitRate", stats.requestCount() > 0
-                        ? String.format("%.1f%%", stats.hitRate() * 100) : "0.0%");
-                info.put("evictionCount", stats.evictionCount());
-                info.put("requestCount", stats.requestCount());
-                cacheList.add(info);
-            }
-        }
+        List<Map<String, Object>> cacheList = getCacheList();
         model.addAttribute("cacheList", cacheList);
 
         // 전체 캐시 합계
@@ -72,6 +79,8 @@ public class MonitorController {
         model.addAttribute("totalMisses", totalMisses);
         model.addAttribute("totalRequests", totalRequests);
         model.addAttribute("totalHitRate", totalHitRate);
+        model.addAttribute("totalCacheWeight", formatBytes(cacheList.stream().mapToLong(c -> (long) c.get("weightBytes")).sum()));
+        model.addAttribute("defaultCacheSpec", cacheProperties.getDefaults().describe());
 
         // JVM 메모리
         MemoryMXBean memBean = ManagementFactory.getMemoryMXBean();
@@ -98,6 +107,17 @@ public class MonitorController {
         model.addAttribute("javaVersion", System.getProperty("java.version"));
         model.addAttribute("osName", System.getProperty("os.name") + " " + System.getProperty("os.arch"));
 
+        // 엑셀 export 파일 캐시
+        model.addAllAttributes(getExportCacheInfo());
+
+        // 엔드포인트별 응답 시간 (최근 window)
+        model.addAttribute("endpointList", getEndpointList());
+        model.addAttribute("requestWindow", formatWindow());
+        model.addAttribute("phaseList", getPhaseList());
+
+        // Hibernate 쿼리 통계
+        model.addAllAttributes(getHibernateStats());
+
         // DB 정보
         model.addAllAttributes(getDbInfo());
 
@@ -114,24 +134,7 @@ public class MonitorController {
         Map<String, Object> data = new LinkedHashMap<>();
 
         // 캐시 통계
-        List<Map<String, Object>> cacheList = new ArrayList<>();
-        for (String name : cacheManager.getCacheNames()) {
-            var cache = cacheManager.getCache(name);
-            if (cache instanceof CaffeineCache caffeineCache) {
-                var nativeCache = caffeineCache.getNativeCache();
-                CacheStats stats = nativeCache.stats();
-                Map<String, Object> info = new LinkedHashMap<>();
-                info.put("name", name);
-                info.put("size", nativeCache.estimatedSize());
-                info.put("hitCount", stats.hitCount());
-                info.put("missCount", stats.missCount());
-                info.put("hitRate", stats.requestCount() > 0
-                        ? String.format("%.1f%%", stats.hitRate() * 100) : "0.0%");
-                info.put("evictionCount", stats.evictionCount());
-                info.put("requestCount", stats.requestCount());
-                cacheList.add(info);
-            }
-        }
+        List<Map<String, Object>> cacheList = getCacheList();
         data.put("cacheList", cacheList);
 
         long totalHits = cacheList.stream().mapToLong(c -> (long) c.get("hitCount")).sum();
@@ -142,6 +145,7 @@ public class MonitorController {
         data.put("totalRequests", totalRequests);
         data.put("totalHitRate", totalRequests > 0
                 ? String.format("%.1f%%", (double) totalHits / totalRequests * 100) : "0.0%");
+        data.put("totalCacheWeight", formatBytes(cacheList.stream().mapToLong(c -> (long) c.get("weightBytes")).sum()));
 
         MemoryMXBean memBean = ManagementFactory.getMemoryMXBean();
         long heapUsed = memBean.getHeapMemoryUsage().getUsed();
@@ -156,17 +160,166 @@ public class MonitorController {
                 uptime.toDays(), uptime.toHoursPart(), uptime.toMinutesPart()));
         data.put("threadCount", ManagementFactory.getThreadMXBean().getThreadCount());
 
+        data.putAll(getExportCacheInfo());
+        data.put("endpointList", getEndpointList());
+        data.put("requestWindow", formatWindow());
+        data.put("phaseList", getPhaseList());
+        data.putAll(getHibernateStats());
+
         // DB 정보
         data.putAll(getDbInfo());
 
         return ResponseEntity.ok(data);
     }
 
+    private List<Map<String, Object>> getCacheList() {
+        List<Map<String, Object>> cacheList = new ArrayList<>();
+        for (String name : cacheManager.getCacheNames()) {
+            var cache = cacheManager.getCache(name);
+            if (cache instanceof CaffeineCache caffeineCache) {
+                var nativeCache = caffeineCache.getNativeCache();
+                CacheStats stats = nativeCache.stats();
+                Map<String, Object> info = new LinkedHashMap<>();
+                info.put("name", name);
+                info.put("size", nativeCache.estimatedSize());
+                info.put("hitCount", stats.hitCount());
+                info.put("missCount", stats.missCount());
+                info.put("hitRate", stats.requestCount() > 0
+                        ? String.format("%.1f%%", stats.hitRate() * 100) : "0.0%");
+                info.put("evictionCount", stats.evictionCount());
+                info.put("requestCount", stats.requestCount());
+                // 추정 크기: 바이트 한도 캐시는 Caffeine 이 유지하는 가중치 합, 아니면 엔트리를 훑어 추정
+                var eviction = nativeCache.policy().eviction();
+                long weight = eviction.isPresent() && eviction.get().weightedSize().isPresent()
+                        ? eviction.get().weightedSize().getAsLong()
+                        : nativeCache.asMap().entrySet().stream()
+                                .mapToLong(e -> CacheWeigher.estimate(e.getKey()) + CacheWeigher.estimate(e.getValue()))
+                                .sum();
+                info.put("weightBytes", weight);
+                info.put("weight", formatBytes(weight));
+                info.put("spec", cacheProperties.specFor(name).describe());
+                cacheList.add(info);
+            }
+        }
+        return cacheList;
+    }
+
+    private List<Map<String, Object>> getEndpointList() {
+        List<Map<String, Object>> list = new ArrayList<>();
+        for (RequestMetrics.Row r : requestMetrics.snapshot()) {
+            Map<String, Object> info = new LinkedHashMap<>();
+            info.put("uri", r.uri());
+            info.put("handler", r.handler());
+            info.put("role", r.role());
+            info.put("outcome", r.outcome());
+            info.put("count", r.windowCount());
+            info.put("throughput", String.format("%.2f/s", r.throughputPerSec()));
+            info.put("p50", r.p50());
+            info.put("p95", r.p95());
+            info.put("p99", r.p99());
+            info.put("max", r.max());
+            info.put("totalCount", r.totalCount());
+            list.add(info);
+        }
+        return list;
+    }
+
+    /**
+     * 엔드포인트별 구간(Server-Timing) 평균 ms: db/agg/cache/render/other
+     */
+    private List<Map<String, Object>> getPhaseList() {
+        List<Map<String, Object>> list = new ArrayList<>();
+        for (RequestMetrics.PhaseRow r : requestMetrics.phaseSnapshot()) {
+            Map<String, Object> info = new LinkedHashMap<>();
+            info.put("uri", r.uri());
+            info.put("handler", r.handler());
+            info.put("count", r.count());
+            info.put("total", r.totalMs());
+            info.putAll(r.phases());
+            list.add(info);
+        }
+        return list;
+    }
+
+    private String formatWindow() {
+        Duration window = requestMetrics.getWindow();
+        return window.toSeconds() % 60 == 0 ? window.toMinutes() + "분" : window.toSeconds() + "초";
+    }
+
+    /**
+     * Hibernate 통계 (hibernate.generate_statistics) + QueryStats 의 SQL 별 통계/느린 쿼리 링 버퍼
+     * 쿼리 목록은 총 소요 시간 순 상위 QUERY_TOP 건
+     */
+    private Map<String, Object> getHibernateStats() {
+        Map<String, Object> info = new LinkedHashMap<>();
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        info.put("hbEnabled", stats.isStatisticsEnabled());
+        info.put("hbQueryCount", stats.getQueryExecutionCount());
+        info.put("hbQueryMaxTime", stats.getQueryExecutionMaxTime());
+        info.put("hbStatementCount", stats.getPrepareStatementCount());
+        info.put("hbEntityLoads", stats.getEntityLoadCount());
+        info.put("hbEntityFetches", stats.getEntityFetchCount());
+        info.put("hbEntityWrites", stats.getEntityInsertCount() + stats.getEntityUpdateCount() + stats.getEntityDeleteCount());
+        info.put("hbCollectionLoads", stats.getCollectionLoadCount());
+        info.put("hbCollectionFetches", stats.getCollectionFetchCount());
+        info.put("hbL2Hits", stats.getSecondLevelCacheHitCount());
+        info.put("hbL2Misses", stats.getSecondLevelCacheMissCount());
+        info.put("hbL2Puts", stats.getSecondLevelCachePutCount());
+        info.put("hbQueryCacheHits", stats.getQueryCacheHitCount());
+        info.put("hbQueryCacheMisses", stats.getQueryCacheMissCount());
+        info.put("hbPlanCacheHits", stats.getQueryPlanCacheHitCount());
+        info.put("hbPlanCacheMisses", stats.getQueryPlanCacheMissCount());
+
+        List<Map<String, Object>> queryList = new ArrayList<>();
+        for (QueryStats.QueryRow q : queryStats.getTopQueries(QUERY_TOP)) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("query", q.query());
+            row.put("count", q.count());
+            row.put("avg", q.avg());
+            row.put("max", q.max());
+            row.put("totalMs", q.totalMs());
+            queryList.add(row);
+        }
+        info.put("queryList", queryList);
+
+        List<Map<String, Object>> slowList = new ArrayList<>();
+        for (QueryStats.SlowQuery s : queryStats.getSlowQueries()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("executedAt", s.executedAt().format(TIME_FORMAT));
+            row.put("request", s.request());
+            row.put("query", s.query());
+            row.put("millis", s.millis());
+            slowList.add(row);
+        }
+        info.put("slowQueryList", slowList);
+        info.put("slowQueryMs", queryStats.getSlowMs());
+        info.put("slowQueryCount", queryStats.getSlowCount());
+        info.put("queryRequestLimit", queryStats.getRequestLimit());
+        info.put("queryLimitExceeded", queryStats.getLimitExceededCount());
+        return info;
+    }
+
+    private Map<String, Object> getExportCacheInfo() {
+        Map<String, Object> info = new LinkedHashMap<>();
+        long hits = exportFileCache.getHitCount();
+        long misses = exportFileCache.getMissCount();
+        info.put("exportHits", hits);
+        info.put("exportMisses", misses);
+        info.put("exportHitRate", hits + misses > 0
+                ? String.format("%.1f%%", (double) hits / (hits + misses) * 100) : "0.0%");
+        info.put("exportEvictions", exportFileCache.getEvictionCount());
+        info.put("exportFiles", exportFileCache.getFileCount());
+        info.put("exportBytes", formatBytes(exportFileCache.getTotalBytes()));
+        info.put("exportMaxBytes", formatBytes(exportFileCache.getMaxBytes()));
+        return info;
+    }
+
     private Map<String, Object> getDbInfo() {
         Map<String, Object> info = new LinkedHashMap<>();
         try {
             // HikariCP 커넥션 풀 정보
-            if (dataSource instanceof HikariDataSource hikari) {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
                 HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
                 if (pool != null) {
                     info.put("dbActiveConns", pool.getActiveConnections());
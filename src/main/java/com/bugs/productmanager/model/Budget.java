@@ -5,11 +5,15 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "budget", uniqueConstraints = @UniqueConstraint(columnNames = {"ym", "category", "division", "department", "team"}))
+@Table(name = "budget",
+        uniqueConstraints = @UniqueConstraint(name = "uk_budget_key", columnNames = {"ym", "category", "division", "department", "team"}),
+        indexes = @Index(name = "idx_budget_scope", columnList = "category, department, team, ym"))
 public class Budget {
 
+    // import 시 INSERT 를 batch 로 묶을 수 있도록 id 를 50개씩 미리 할당 (V4 마이그레이션)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "budget_seq")
+    @SequenceGenerator(name = "budget_seq", sequenceName = "budget_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "ym", nullable = false, length = 10)
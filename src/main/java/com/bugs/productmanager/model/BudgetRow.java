@@ -0,0 +1,50 @@
+package com.bugs.productmanager.model;
+
+import java.math.BigDecimal;
+
+/**
+ * 예산 목록/집계/엑셀 다운로드용 읽기 전용 행
+ * 조회 결과 캐시에 담기므로 엔티티 대신 값을 복사해 두고, 영속성 컨텍스트와 무관하게 바뀌지 않는다.
+ */
+public class BudgetRow {
+
+    private final Long id;
+    private final String ym;
+    private final String category;
+    private final String division;
+    private final String department;
+    private final String team;
+    private final BigDecimal monthlyAmount;
+    private final BigDecimal prevRemaining;
+
+    public BudgetRow(Long id, String ym, String category, String division, String department, String team,
+                     BigDecimal monthlyAmount, BigDecimal prevRemaining) {
+        this.id = id;
+        this.ym = ym;
+        this.category = category;
+        this.division = division;
+        this.department = department;
+        this.team = team;
+        this.monthlyAmount = monthlyAmount;
+        this.prevRemaining = prevRemaining;
+    }
+
+    public static BudgetRow of(Budget b) {
+        return new BudgetRow(b.getId(), b.getYm(), b.getCategory(), b.getDivision(), b.getDepartment(), b.getTeam(),
+                b.getMonthlyAmount(), b.getPrevRemaining());
+    }
+
+    public Long getId() { return id; }
+    public String getYm() { return ym; }
+    public String getCategory() { return category; }
+    public String getDivision() { return division; }
+    public String getDepartment() { return department; }
+    public String getTeam() { return team; }
+    public BigDecimal getMonthlyAmount() { return monthlyAmount; }
+    public BigDecimal getPrevRemaining() { return prevRemaining; }
+
+    public BigDecimal getTotalBudget() {
+        return (monthlyAmount != null ? monthlyAmount : BigDecimal.ZERO)
+                .add(prevRemaining != null ? prevRemaining : BigDecimal.ZERO);
+    }
+}
@@ -2,15 +2,27 @@ package com.bugs.productmanager.model;
 
 import jakarta.persistence.*;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
 
 @Entity
-@Table(name = "expenses")
+@Table(name = "expenses", indexes = {
+        @Index(name = "idx_expenses_ym_scope", columnList = "ym, category, division, department, team, amount"),
+        @Index(name = "idx_expenses_date", columnList = "expense_date"),
+        @Index(name = "idx_expenses_scope", columnList = "category, department, team, expense_date"),
+        @Index(name = "idx_expenses_fingerprint", columnList = "ym, category, division, fingerprint")
+})
 public class Expense {
 
+    // import 시 INSERT 를 batch 로 묶을 수 있도록 id 를 50개씩 미리 할당 (V4 마이그레이션)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expense_seq")
+    @SequenceGenerator(name = "expense_seq", sequenceName = "expenses_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "ym", nullable = false, length = 10)
@@ -43,6 +55,10 @@ public class Expense {
     @Column(precision = 12, scale = 0)
     private BigDecimal budget = BigDecimal.ZERO;
 
+    /** 내용 지문 (computeFingerprint), 저장 시 자동 갱신 */
+    @Column(length = 64, columnDefinition = "CHAR(64)")
+    private String fingerprint;
+
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
@@ -53,11 +69,36 @@ public class Expense {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        fingerprint = computeFingerprint();
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        fingerprint = computeFingerprint();
+    }
+
+    /**
+     * ym, category, division, department, team, 날짜, 내용, 상호, 금액을 0x1F 로 이어 붙인 SHA-256 (hex).
+     * V6 마이그레이션의 SQL 백필과 같은 규칙이어야 한다 (null → "", 날짜 yyyy-MM-dd, 금액은 소수점 없는 정수).
+     */
+    public String computeFingerprint() {
+        String joined = String.join("\u001F",
+                nullSafe(ym), nullSafe(category), nullSafe(division),
+                nullSafe(department), nullSafe(team),
+                expenseDate != null ? expenseDate.toString() : "",
+                nullSafe(purpose), nullSafe(storeName),
+                amount != null ? amount.setScale(0, RoundingMode.HALF_UP).toPlainString() : "");
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(joined.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String nullSafe(String s) {
+        return s != null ? s : "";
     }
 
     // Getters and Setters
@@ -94,6 +135,8 @@ public class Expense {
     public BigDecimal getBudget() { return budget; }
     public void setBudget(BigDecimal budget) { this.budget = budget; }
 
+    public String getFingerprint() { return fingerprint; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
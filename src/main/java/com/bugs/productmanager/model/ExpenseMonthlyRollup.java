@@ -0,0 +1,63 @@
+package com.bugs.productmanager.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+
+/**
+ * 월별 경비 집계 (ym + category + division + department + team 단위 합계/건수)
+ * 차트/전년 동월 비교용. Expense 저장/삭제 시 증감 반영된다.
+ * department/team이 없는 경비는 빈 문자열로 집계한다 (유니크 키에 NULL 방지).
+ */
+@Entity
+@Table(name = "expense_monthly_rollup",
+        uniqueConstraints = @UniqueConstraint(name = "uk_rollup_key", columnNames = {"ym", "category", "division", "department", "team"}))
+public class ExpenseMonthlyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "ym", nullable = false, length = 10)
+    private String ym;
+
+    @Column(nullable = false, length = 20)
+    private String category;
+
+    @Column(nullable = false, length = 20)
+    private String division;
+
+    @Column(nullable = false, length = 50)
+    private String department = "";
+
+    @Column(nullable = false, length = 50)
+    private String team = "";
+
+    @Column(name = "total_amount", nullable = false, precision = 15, scale = 0)
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+
+    @Column(name = "expense_count", nullable = false)
+    private long expenseCount;
+
+    public Long getId() { return id; }
+
+    public String getYm() { return ym; }
+    public void setYm(String ym) { this.ym = ym; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public String getDivision() { return division; }
+    public void setDivision(String division) { this.division = division; }
+
+    public String getDepartment() { return department; }
+    public void setDepartment(String department) { this.department = department; }
+
+    public String getTeam() { return team; }
+    public void setTeam(String team) { this.team = team; }
+
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+
+    public long getExpenseCount() { return expenseCount; }
+    public void setExpenseCount(long expenseCount) { this.expenseCount = expenseCount; }
+}
@@ -0,0 +1,47 @@
+package com.bugs.productmanager.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * 경비 목록/대시보드/엑셀 다운로드용 읽기 전용 행
+ * 화면에 표시하는 컬럼만 담으며 영속성 컨텍스트에 올라가지 않는다 (생성자 프로젝션).
+ */
+public class ExpenseRow {
+
+    private final Long id;
+    private final String ym;
+    private final String category;
+    private final String division;
+    private final String department;
+    private final String team;
+    private final LocalDate expenseDate;
+    private final String purpose;
+    private final String storeName;
+    private final BigDecimal amount;
+
+    public ExpenseRow(Long id, String ym, String category, String division, String department, String team,
+                      LocalDate expenseDate, String purpose, String storeName, BigDecimal amount) {
+        this.id = id;
+        this.ym = ym;
+        this.category = category;
+        this.division = division;
+        this.department = department;
+        this.team = team;
+        this.expenseDate = expenseDate;
+        this.purpose = purpose;
+        this.storeName = storeName;
+        this.amount = amount;
+    }
+
+    public Long getId() { return id; }
+    public String getYm() { return ym; }
+    public String getCategory() { return category; }
+    public String getDivision() { return division; }
+    public String getDepartment() { return department; }
+    public String getTeam() { return team; }
+    public LocalDate getExpenseDate() { return expenseDate; }
+    public String getPurpose() { return purpose; }
+    public String getStoreName() { return storeName; }
+    public BigDecimal getAmount() { return amount; }
+}
@@ -0,0 +1,59 @@
+package com.bugs.productmanager.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * 경비 purpose/storeName 검색용 2-gram 역색인
+ * (field, gram) → expense_id. LIKE '%keyword%' 후보 ID를 좁히는 용도로만 쓰고 최종 판정은 LIKE가 한다.
+ */
+@Entity
+@Table(name = "expense_search_gram", indexes = @Index(name = "idx_search_gram_expense", columnList = "expense_id"))
+public class ExpenseSearchGram {
+
+    public static final String FIELD_PURPOSE = "P";
+    public static final String FIELD_STORE_NAME = "S";
+
+    @EmbeddedId
+    private Key id;
+
+    public Key getId() { return id; }
+    public void setId(Key id) { this.id = id; }
+
+    @Embeddable
+    public static class Key implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        @Column(name = "field", nullable = false, length = 1)
+        private String field;
+
+        @Column(name = "gram", nullable = false, length = 2)
+        private String gram;
+
+        @Column(name = "expense_id", nullable = false)
+        private Long expenseId;
+
+        public String getField() { return field; }
+        public void setField(String field) { this.field = field; }
+
+        public String getGram() { return gram; }
+        public void setGram(String gram) { this.gram = gram; }
+
+        public Long getExpenseId() { return expenseId; }
+        public void setExpenseId(Long expenseId) { this.expenseId = expenseId; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key k)) return false;
+            return Objects.equals(field, k.field) && Objects.equals(gram, k.gram) && Objects.equals(expenseId, k.expenseId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(field, gram, expenseId);
+        }
+    }
+}
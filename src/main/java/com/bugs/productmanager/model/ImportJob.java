@@ -0,0 +1,159 @@
+package com.bugs.productmanager.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 엑셀 업로드 작업. 파일은 spool 디렉터리에 저장되고 작업 풀에서 순서대로 처리된다.
+ */
+@Entity
+@Table(name = "import_job", indexes = {
+        @Index(name = "idx_import_job_phase", columnList = "phase"),
+        @Index(name = "idx_import_job_owner", columnList = "owner_node, phase")
+})
+public class ImportJob {
+
+    public enum Phase { QUEUED, RUNNING, DONE, FAILED }
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(nullable = false, length = 50)
+    private String username;
+
+    /** 작업을 받은 노드 (spool 파일이 있는 곳, 실행/복구는 이 노드만) */
+    @Column(name = "owner_node", length = 100)
+    private String ownerNode;
+
+    @Column(name = "file_name", length = 255)
+    private String fileName;
+
+    @Column(name = "spool_path", length = 500)
+    private String spoolPath;
+
+    @Column(length = 10)
+    private String ym;
+
+    @Column(length = 50)
+    private String department;
+
+    @Column(length = 50)
+    private String team;
+
+    /** 재업로드 시 파일에 없는 기존 경비 삭제 여부 */
+    @Column(name = "replace_missing", nullable = false)
+    private boolean replaceMissing;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Phase phase = Phase.QUEUED;
+
+    @Column(name = "rows_parsed", nullable = false)
+    private int rowsParsed;
+
+    @Column(name = "rows_persisted", nullable = false)
+    private int rowsPersisted;
+
+    @Column(name = "budget_count", nullable = false)
+    private int budgetCount;
+
+    @Column(name = "expense_count", nullable = false)
+    private int expenseCount;
+
+    @Column(name = "inserted_count", nullable = false)
+    private int insertedCount;
+
+    @Column(name = "skipped_count", nullable = false)
+    private int skippedCount;
+
+    @Column(name = "removed_count", nullable = false)
+    private int removedCount;
+
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
+    public String getOwnerNode() { return ownerNode; }
+    public void setOwnerNode(String ownerNode) { this.ownerNode = ownerNode; }
+
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+
+    public String getSpoolPath() { return spoolPath; }
+    public void setSpoolPath(String spoolPath) { this.spoolPath = spoolPath; }
+
+    public String getYm() { return ym; }
+    public void setYm(String ym) { this.ym = ym; }
+
+    public String getDepartment() { return department; }
+    public void setDepartment(String department) { this.department = department; }
+
+    public String getTeam() { return team; }
+    public void setTeam(String team) { this.team = team; }
+
+    public boolean isReplaceMissing() { return replaceMissing; }
+    public void setReplaceMissing(boolean replaceMissing) { this.replaceMissing = replaceMissing; }
+
+    public Phase getPhase() { return phase; }
+    public void setPhase(Phase phase) { this.phase = phase; }
+
+    public int getRowsParsed() { return rowsParsed; }
+    public void setRowsParsed(int rowsParsed) { this.rowsParsed = rowsParsed; }
+
+    public int getRowsPersisted() { return rowsPersisted; }
+    public void setRowsPersisted(int rowsPersisted) { this.rowsPersisted = rowsPersisted; }
+
+    public int getBudgetCount() { return budgetCount; }
+    public void setBudgetCount(int budgetCount) { this.budgetCount = budgetCount; }
+
+    public int getExpenseCount() { return expenseCount; }
+    public void setExpenseCount(int expenseCount) { this.expenseCount = expenseCount; }
+
+    public int getInsertedCount() { return insertedCount; }
+    public void setInsertedCount(int insertedCount) { this.insertedCount = insertedCount; }
+
+    public int getSkippedCount() { return skippedCount; }
+    public void setSkippedCount(int skippedCount) { this.skippedCount = skippedCount; }
+
+    public int getRemovedCount() { return removedCount; }
+    public void setRemovedCount(int removedCount) { this.removedCount = removedCount; }
+
+    public String getErrorMessage() { return errorMessage; }
+    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+}
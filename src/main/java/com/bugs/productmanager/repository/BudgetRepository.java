@@ -1,9 +1,17 @@
 package com.bugs.productmanager.repository;
 
 import com.bugs.productmanager.model.Budget;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +24,22 @@ public interface BudgetRepository extends JpaRepository<Budget, Long>, JpaSpecif
 
     List<Budget> findByYm(String ym);
 
+    /**
+     * 필터 조건의 예산 목록 (경비 목록 병렬 조회 분기) - 목록용 쿼리 제한 시간
+     */
+    @Override
+    @QueryHints(@QueryHint(name = "jakarta.persistence.query.timeout",
+            value = "" + ExpenseRepositoryCustom.LIST_QUERY_TIMEOUT_MS))
+    List<Budget> findAll(Specification<Budget> spec);
+
+    /**
+     * 대상 년월의 예산을 잠금 조회 (SELECT ... FOR UPDATE).
+     * uk_budget_key(ym, ...) 범위에 next-key lock 이 걸려 커밋 전까지 다른 트랜잭션이 같은 키를 INSERT 하지 못한다.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Budget b WHERE b.ym IN :yms")
+    List<Budget> findByYmInForUpdate(@Param("yms") Collection<String> yms);
+
     List<Budget> findByYmAndCategory(String ym, String category);
 
     List<Budget> findByCategory(String category);
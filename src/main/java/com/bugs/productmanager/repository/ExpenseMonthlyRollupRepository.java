@@ -0,0 +1,61 @@
+package com.bugs.productmanager.repository;
+
+import com.bugs.productmanager.model.ExpenseMonthlyRollup;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface ExpenseMonthlyRollupRepository extends JpaRepository<ExpenseMonthlyRollup, Long>,
+        JpaSpecificationExecutor<ExpenseMonthlyRollup> {
+
+    /**
+     * 필터 조건의 월별 집계 행 (경비 목록 차트 분기) - 목록용 쿼리 제한 시간
+     */
+    @Override
+    @QueryHints(@QueryHint(name = "jakarta.persistence.query.timeout",
+            value = "" + ExpenseRepositoryCustom.LIST_QUERY_TIMEOUT_MS))
+    List<ExpenseMonthlyRollup> findAll(Specification<ExpenseMonthlyRollup> spec);
+
+    /**
+     * 집계 행 증감 (없으면 생성). 동시 저장에도 한 문장으로 원자적으로 반영된다.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO expense_monthly_rollup (ym, category, division, department, team, total_amount, expense_count) "
+            + "VALUES (:ym, :category, :division, :department, :team, :amount, :cnt) "
+            + "ON DUPLICATE KEY UPDATE total_amount = total_amount + VALUES(total_amount), "
+            + "expense_count = expense_count + VALUES(expense_count)", nativeQuery = true)
+    void addDelta(@Param("ym") String ym, @Param("category") String category, @Param("division") String division,
+                  @Param("department") String department, @Param("team") String team,
+                  @Param("amount") BigDecimal amount, @Param("cnt") long count);
+
+    /**
+     * 방금 차감한 집계 행이 0건이 되었으면 삭제.
+     * 유니크 키(uk_rollup_key)로 그 한 행만 잠근다 (전체 조건 삭제는 인덱스 없는 expense_count 로 테이블 전체를 next-key 잠금)
+     */
+    @Modifying
+    @Query(value = "DELETE FROM expense_monthly_rollup "
+            + "WHERE ym = :ym AND category = :category AND division = :division "
+            + "AND department = :department AND team = :team AND expense_count <= 0", nativeQuery = true)
+    int deleteIfEmpty(@Param("ym") String ym, @Param("category") String category, @Param("division") String division,
+                      @Param("department") String department, @Param("team") String team);
+
+    @Modifying
+    @Query(value = "DELETE FROM expense_monthly_rollup", nativeQuery = true)
+    void deleteAllRows();
+
+    /** expenses 테이블 기준으로 전체 재집계 (전체 스캔이라 기본 쿼리 제한 시간 대신 10분) */
+    @Modifying
+    @QueryHints(@QueryHint(name = "jakarta.persistence.query.timeout", value = "600000"))
+    @Query(value = "INSERT INTO expense_monthly_rollup (ym, category, division, department, team, total_amount, expense_count) "
+            + "SELECT ym, category, division, COALESCE(department, ''), COALESCE(team, ''), COALESCE(SUM(amount), 0), COUNT(*) "
+            + "FROM expenses GROUP BY ym, category, division, COALESCE(department, ''), COALESCE(team, '')", nativeQuery = true)
+    int rebuildFromExpenses();
+}
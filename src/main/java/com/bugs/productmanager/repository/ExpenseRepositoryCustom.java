@@ -0,0 +1,106 @@
+package com.bugs.productmanager.repository;
+
+import com.bugs.productmanager.model.Expense;
+import com.bugs.productmanager.model.ExpenseRow;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ExpenseRepositoryCustom {
+
+    /**
+     * 경비 목록 병렬 조회(QueryFanOut) 분기 쿼리의 제한 시간(ms), expense.list.parallel.timeout-ms 이하.
+     * 시간 초과로 버려진 분기의 쿼리도 끝나고 커넥션을 반납하게 한다. 업로드/색인 대조 쿼리에는 걸지 않는다.
+     */
+    int LIST_QUERY_TIMEOUT_MS = 10_000;
+
+    /**
+     * (expense_date, id) 기준 keyset 페이지 조회
+     * cursor 이후 행을 size + 1건까지 가져와 다음 페이지 존재 여부를 판단한다.
+     */
+    List<ExpenseRow> findPageAfter(Specification<Expense> spec, Cursor cursor, int limit);
+
+    /**
+     * 필터 조건의 표시용 행 조회 (엔티티 대신 ExpenseRow 프로젝션, 영속성 컨텍스트 미사용)
+     * newestFirst = true 이면 (expenseDate, id) 내림차순, limit &lt;= 0 이면 전체
+     */
+    List<ExpenseRow> findRows(Specification<Expense> spec, boolean newestFirst, int limit);
+
+    /**
+     * export 용 행 스트림. 섹션 키(category, division, department, team) → (expenseDate, id) 순으로 정렬되며
+     * DB 커서로 한 행씩 읽으므로 결과 전체를 메모리에 올리지 않는다. 트랜잭션 안에서 소비하고 닫아야 한다.
+     */
+    Stream<ExpenseRow> streamBySection(Specification<Expense> spec);
+
+    /**
+     * 필터 조건의 합계/건수 집계 (엔티티 로딩 없이 SUM/COUNT)
+     */
+    Summary summarize(Specification<Expense> spec);
+
+    /**
+     * 필터 조건 + GROUP BY 집계 (attributes 순서대로 그룹 키, 키 오름차순)
+     * 예) sumGroupedBy(spec, "ym") → 월별 합계
+     */
+    default List<GroupSum> sumGroupedBy(Specification<Expense> spec, String... attributes) {
+        return sumGroupedBy(spec, 0, attributes);
+    }
+
+    /**
+     * sumGroupedBy + 쿼리 제한 시간 (timeoutMs &lt;= 0 이면 제한 없음)
+     */
+    List<GroupSum> sumGroupedBy(Specification<Expense> spec, int timeoutMs, String... attributes);
+
+    /**
+     * 한 업로드 범위(ym, category, division, department, team)의 행 지문 목록 (재업로드 delta 계산용)
+     * department/team 은 null 과 빈 문자열을 같은 범위로 본다.
+     */
+    List<Fingerprint> findFingerprints(String ym, String category, String division, String department, String team);
+
+    /**
+     * 업로드 범위 잠금 (expense_import_lock 행, 현재 트랜잭션이 끝날 때까지 유지).
+     * 같은 범위를 잠그려는 다른 트랜잭션은 이 트랜잭션이 커밋/롤백할 때까지 기다린다.
+     */
+    void lockImportScope(String ym, String category, String division, String department, String team);
+
+    /**
+     * keyset 커서: 마지막으로 본 행의 (expenseDate, id)
+     * 문자열 형식 "yyyy-MM-dd_id", 날짜가 없는 행은 "_id"
+     */
+    record Cursor(LocalDate expenseDate, Long id) {
+
+        public static Cursor of(ExpenseRow e) {
+            return new Cursor(e.getExpenseDate(), e.getId());
+        }
+
+        public static Cursor parse(String value) {
+            if (value == null || value.isBlank()) return null;
+            int idx = value.lastIndexOf('_');
+            if (idx < 0) return null;
+            try {
+                String datePart = value.substring(0, idx);
+                LocalDate date = datePart.isEmpty() ? null : LocalDate.parse(datePart);
+                return new Cursor(date, Long.parseLong(value.substring(idx + 1)));
+            } catch (RuntimeException e) {
+                return null; // 잘못된 커서는 첫 페이지로 취급
+            }
+        }
+
+        public String encode() {
+            return (expenseDate != null ? expenseDate.toString() : "") + "_" + id;
+        }
+    }
+
+    record Summary(BigDecimal totalAmount, long count) {}
+
+    record Fingerprint(Long id, String fingerprint) {}
+
+    record GroupSum(List<String> keys, BigDecimal amount, long count) {
+
+        public String key(int index) {
+            return keys.get(index);
+        }
+    }
+}
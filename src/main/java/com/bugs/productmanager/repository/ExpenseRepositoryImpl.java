@@ -0,0 +1,186 @@
+package com.bugs.productmanager.repository;
+
+import com.bugs.productmanager.model.Expense;
+import com.bugs.productmanager.model.ExpenseRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Transactional(readOnly = true)
+public class ExpenseRepositoryImpl implements ExpenseRepositoryCustom {
+
+    /** MySQL Connector/J 는 fetch size 가 Integer.MIN_VALUE 일 때만 결과를 한 행씩 스트리밍한다 */
+    private static final int STREAM_FETCH_SIZE = Integer.MIN_VALUE;
+    /** 다운로드/백업 스트리밍 조회의 쿼리 제한 시간 */
+    private static final int STREAM_QUERY_TIMEOUT_MS = 10 * 60 * 1000;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<ExpenseRow> findPageAfter(Specification<Expense> spec, Cursor cursor, int limit) {
+        return findRows(spec, cursor, false, limit, LIST_QUERY_TIMEOUT_MS);
+    }
+
+    @Override
+    public List<ExpenseRow> findRows(Specification<Expense> spec, boolean newestFirst, int limit) {
+        return findRows(spec, null, newestFirst, limit, 0);
+    }
+
+    private List<ExpenseRow> findRows(Specification<Expense> spec, Cursor cursor, boolean newestFirst, int limit,
+                                      int timeoutMs) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<ExpenseRow> cq = cb.createQuery(ExpenseRow.class);
+        Root<Expense> root = cq.from(Expense.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate filter = spec != null ? spec.toPredicate(root, cq, cb) : null;
+        if (filter != null) predicates.add(filter);
+        if (cursor != null && cursor.id() != null) {
+            predicates.add(afterCursor(cb, root, cursor));
+        }
+
+        // MySQL은 ASC 정렬 시 NULL이 먼저 온다 → 커서 조건도 동일한 순서를 따른다
+        Path<LocalDate> date = root.get("expenseDate");
+        Path<Long> id = root.get("id");
+        cq.select(rowOf(cb, root))
+          .where(predicates.toArray(new Predicate[0]))
+          .orderBy(newestFirst
+                  ? List.of(cb.desc(date), cb.desc(id))
+                  : List.of(cb.asc(date), cb.asc(id)));
+
+        TypedQuery<ExpenseRow> query = em.createQuery(cq);
+        if (limit > 0) query.setMaxResults(limit);
+        if (timeoutMs > 0) query.setHint(AvailableHints.HINT_SPEC_QUERY_TIMEOUT, timeoutMs);
+        return query.getResultList();
+    }
+
+    @Override
+    public Stream<ExpenseRow> streamBySection(Specification<Expense> spec) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<ExpenseRow> cq = cb.createQuery(ExpenseRow.class);
+        Root<Expense> root = cq.from(Expense.class);
+
+        Predicate filter = spec != null ? spec.toPredicate(root, cq, cb) : null;
+        if (filter != null) cq.where(filter);
+        cq.select(rowOf(cb, root))
+          .orderBy(cb.asc(root.get("category")), cb.asc(root.get("division")),
+                  cb.asc(root.get("department")), cb.asc(root.get("team")),
+                  cb.asc(root.get("expenseDate")), cb.asc(root.get("id")));
+
+        return em.createQuery(cq)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .setHint(AvailableHints.HINT_SPEC_QUERY_TIMEOUT, STREAM_QUERY_TIMEOUT_MS)
+                .getResultStream();
+    }
+
+    private CompoundSelection<ExpenseRow> rowOf(CriteriaBuilder cb, Root<Expense> root) {
+        return cb.construct(ExpenseRow.class,
+                root.get("id"), root.get("ym"), root.get("category"), root.get("division"),
+                root.get("department"), root.get("team"), root.get("expenseDate"),
+                root.get("purpose"), root.get("storeName"), root.get("amount"));
+    }
+
+    @Override
+    public List<Fingerprint> findFingerprints(String ym, String category, String division, String department, String team) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Fingerprint> cq = cb.createQuery(Fingerprint.class);
+        Root<Expense> root = cq.from(Expense.class);
+        cq.select(cb.construct(Fingerprint.class, root.get("id"), root.get("fingerprint")))
+          .where(cb.equal(root.get("ym"), ym),
+                  cb.equal(root.get("category"), category),
+                  cb.equal(root.get("division"), division),
+                  cb.equal(cb.coalesce(root.<String>get("department"), ""), department != null ? department : ""),
+                  cb.equal(cb.coalesce(root.<String>get("team"), ""), team != null ? team : ""))
+          .orderBy(cb.asc(root.get("id")));
+        return em.createQuery(cq).getResultList();
+    }
+
+    @Override
+    public void lockImportScope(String ym, String category, String division, String department, String team) {
+        String scope = String.join("|", ym, category, division,
+                department != null ? department : "", team != null ? team : "");
+        em.createNativeQuery("INSERT INTO expense_import_lock (scope_hash, locked_at) VALUES (UNHEX(SHA2(?1, 256)), NOW(3)) "
+                        + "ON DUPLICATE KEY UPDATE locked_at = NOW(3)")
+          .setParameter(1, scope)
+          .executeUpdate();
+    }
+
+    @Override
+    public Summary summarize(Specification<Expense> spec) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+        Root<Expense> root = cq.from(Expense.class);
+
+        Predicate filter = spec != null ? spec.toPredicate(root, cq, cb) : null;
+        cq.multiselect(cb.sum(root.<BigDecimal>get("amount")), cb.count(root));
+        if (filter != null) cq.where(filter);
+
+        Object[] row = em.createQuery(cq).getSingleResult();
+        BigDecimal total = row[0] != null ? (BigDecimal) row[0] : BigDecimal.ZERO;
+        long count = row[1] != null ? ((Number) row[1]).longValue() : 0L;
+        return new Summary(total, count);
+    }
+
+    @Override
+    public List<GroupSum> sumGroupedBy(Specification<Expense> spec, int timeoutMs, String... attributes) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+        Root<Expense> root = cq.from(Expense.class);
+
+        List<Selection<?>> selections = new ArrayList<>();
+        List<Expression<?>> groups = new ArrayList<>();
+        List<Order> orders = new ArrayList<>();
+        for (String attribute : attributes) {
+            Path<String> path = root.get(attribute);
+            selections.add(path);
+            groups.add(path);
+            orders.add(cb.asc(path));
+        }
+        selections.add(cb.sum(root.<BigDecimal>get("amount")));
+        selections.add(cb.count(root));
+
+        Predicate filter = spec != null ? spec.toPredicate(root, cq, cb) : null;
+        cq.multiselect(selections).groupBy(groups).orderBy(orders);
+        if (filter != null) cq.where(filter);
+
+        TypedQuery<Object[]> query = em.createQuery(cq);
+        if (timeoutMs > 0) query.setHint(AvailableHints.HINT_SPEC_QUERY_TIMEOUT, timeoutMs);
+        List<GroupSum> result = new ArrayList<>();
+        for (Object[] row : query.getResultList()) {
+            List<String> keys = new ArrayList<>(attributes.length);
+            for (int i = 0; i < attributes.length; i++) {
+                keys.add((String) row[i]);
+            }
+            BigDecimal amount = row[attributes.length] != null ? (BigDecimal) row[attributes.length] : BigDecimal.ZERO;
+            long count = ((Number) row[attributes.length + 1]).longValue();
+            result.add(new GroupSum(keys, amount, count));
+        }
+        return result;
+    }
+
+    private Predicate afterCursor(CriteriaBuilder cb, Root<Expense> root, Cursor cursor) {
+        Path<LocalDate> date = root.get("expenseDate");
+        Path<Long> id = root.get("id");
+        if (cursor.expenseDate() == null) {
+            // NULL 날짜 구간 안에서 id 이후 + 날짜가 있는 모든 행
+            return cb.or(
+                    cb.and(cb.isNull(date), cb.greaterThan(id, cursor.id())),
+                    cb.isNotNull(date));
+        }
+        return cb.or(
+                cb.greaterThan(date, cursor.expenseDate()),
+                cb.and(cb.equal(date, cursor.expenseDate()), cb.greaterThan(id, cursor.id())));
+    }
+}
@@ -0,0 +1,40 @@
+package com.bugs.productmanager.repository;
+
+import com.bugs.productmanager.model.ImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ImportJobRepository extends JpaRepository<ImportJob, String> {
+
+    /** 이 노드가 받은 미완료 작업 + 받은 노드가 기록되지 않은 이전 작업 */
+    @Query("SELECT j FROM ImportJob j WHERE j.phase IN :phases AND (j.ownerNode = :node OR j.ownerNode IS NULL) "
+            + "ORDER BY j.createdAt")
+    List<ImportJob> findRecoverable(@Param("phases") Collection<ImportJob.Phase> phases, @Param("node") String node);
+
+    /**
+     * 대기 중인 작업을 실행 중으로 바꾼다. 0 이면 이미 다른 워커/노드가 가져갔거나 끝난 작업.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE import_job SET phase = 'RUNNING', updated_at = NOW(6) "
+            + "WHERE id = :id AND phase = 'QUEUED' AND owner_node = :node", nativeQuery = true)
+    int claim(@Param("id") String id, @Param("node") String node);
+
+    /**
+     * 재시작 복구: 이 노드의(또는 받은 노드가 없는) 미완료 작업을 이 노드의 대기 작업으로 되돌린다.
+     * 0 이면 다른 노드가 먼저 가져갔거나 그 사이 끝난 작업.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE import_job SET phase = 'QUEUED', owner_node = :node, rows_parsed = 0, rows_persisted = 0, "
+            + "updated_at = NOW(6) "
+            + "WHERE id = :id AND phase IN ('QUEUED', 'RUNNING') AND (owner_node = :node OR owner_node IS NULL)",
+            nativeQuery = true)
+    int requeue(@Param("id") String id, @Param("node") String node);
+}
@@ -1,8 +1,9 @@
 package com.bugs.productmanager.scheduler;
 
 import com.bugs.productmanager.model.Budget;
-import com.bugs.productmanager.model.Expense;
 import com.bugs.productmanager.repository.BudgetRepository;
+import com.bugs.productmanager.service.BudgetService;
+import com.bugs.productmanager.service.ExpenseAggregator;
 import com.bugs.productmanager.service.ExpenseService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,8 +14,8 @@ import org.springframework.stereotype.Component;
 import java.math.BigDecimal;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 @Component
 public class BudgetScheduler {
@@ -23,10 +24,12 @@ public class BudgetScheduler {
     private static final DateTimeFormatter FMT = DateTimeFormatter.ofPattern("yyyy-MM");
 
     private final BudgetRepository budgetRepository;
+    private final BudgetService budgetService;
     private final ExpenseService expenseService;
 
-    public BudgetScheduler(BudgetRepository budgetRepository, ExpenseService expenseService) {
+    public BudgetScheduler(BudgetRepository budgetRepository, BudgetService budgetService, ExpenseService expenseService) {
         this.budgetRepository = budgetRepository;
+        this.budgetService = budgetService;
         this.expenseService = expenseService;
     }
 
@@ -68,10 +71,9 @@ public class BudgetScheduler {
         }
 
         // 전월 사용금액 계산 (category+division+department+team별)
-        List<Expense> prevExpenses = expenseService.findFiltered(prevYm, null, null);
-        Map<String, BigDecimal> usedMap = expenseService.calcUsedAmountByBudgetKey(prevExpenses);
+        ExpenseAggregator.Result prevUsage = expenseService.aggregate(List.of(prevYm), null, List.of(), null, null, null, List.of());
 
-        int created = 0;
+        List<Budget> newBudgets = new ArrayList<>();
         for (Budget prev : prevBudgets) {
             Budget newBudget = new Budget();
             newBudget.setYm(currentYm);
@@ -85,21 +87,20 @@ public class BudgetScheduler {
 
             // 전월잔여: 전월 예산합계 - 전월 사용금액
             BigDecimal prevTotal = prev.getTotalBudget();
-            String dept = prev.getDepartment() != null ? prev.getDepartment() : "";
-            String tm = prev.getTeam() != null ? prev.getTeam() : "";
-            String key = prevYm + "_" + prev.getCategory() + "_" + prev.getDivision() + "_" + dept + "_" + tm;
-            BigDecimal prevUsed = usedMap.getOrDefault(key, BigDecimal.ZERO);
+            BigDecimal prevUsed = prevUsage.usedAmount(ExpenseAggregator.BudgetKey.of(prev));
             BigDecimal prevRemain = prevTotal.subtract(prevUsed);
             newBudget.setPrevRemaining(prevRemain);
 
-            budgetRepository.save(newBudget);
-            created++;
+            newBudgets.add(newBudget);
 
             log.info("  생성: {} / {} / {} / {} / {} → 금월예산={}, 전월잔여={}",
                     currentYm, prev.getCategory(), prev.getDivision(), prev.getDepartment(), prev.getTeam(),
                     newBudget.getMonthlyAmount(), newBudget.getPrevRemaining());
         }
 
-        log.info("========== 월 예산 자동 생성 완료: {}건 ==========", created);
+        // 한 트랜잭션에서 batch INSERT
+        budgetService.saveAll(newBudgets);
+
+        log.info("========== 월 예산 자동 생성 완료: {}건 ==========", newBudgets.size());
     }
 }
@@ -1,39 +1,61 @@
 package com.bugs.productmanager.service;
 
 import com.bugs.productmanager.model.Budget;
+import com.bugs.productmanager.model.BudgetRow;
 import com.bugs.productmanager.repository.BudgetRepository;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class BudgetService {
 
     private final BudgetRepository budgetRepository;
+    private final QueryResultCache queryCache;
 
-    public BudgetService(BudgetRepository budgetRepository) {
+    public BudgetService(BudgetRepository budgetRepository, QueryResultCache queryCache) {
         this.budgetRepository = budgetRepository;
+        this.queryCache = queryCache;
     }
 
-    public List<Budget> findFiltered(String ym, String category, String division) {
+    public List<BudgetRow> findFiltered(String ym, String category, String division) {
         List<String> divList = (division != null && !division.isEmpty()) ? List.of(division) : List.of();
         List<String> emptyTeam = List.of();
         return findFiltered(ym != null && !ym.isEmpty() ? List.of(ym) : List.of(), category, divList, null, emptyTeam);
     }
 
-    public List<Budget> findFilteredSingleTeam(List<String> ymValues, String category, List<String> divValues,
+    public List<BudgetRow> findFilteredSingleTeam(List<String> ymValues, String category, List<String> divValues,
                                       String department, String team) {
         List<String> teamValues = (team != null && !team.isEmpty()) ? List.of(team) : List.of();
         return findFiltered(ymValues, category, divValues, department, teamValues);
     }
 
-    public List<Budget> findFiltered(List<String> ymValues, String category, List<String> divValues,
+    /**
+     * 조회 결과 캐시에는 엔티티 대신 값을 복사한 BudgetRow 를 담는다 (호출자가 바꿔도 캐시가 오염되지 않도록)
+     */
+    public List<BudgetRow> findFiltered(List<String> ymValues, String category, List<String> divValues,
                                       String department, List<String> teamValues) {
+        QueryResultCache.Key key = QueryResultCache.Key.of("findFiltered", ymValues, category, divValues,
+                null, null, department, teamValues);
+        return queryCache.get(QueryResultCache.BUDGET, key,
+                () -> budgetRepository.findAll(buildSpec(ymValues, category, divValues, department, teamValues))
+                        .stream().map(BudgetRow::of).toList());
+    }
+
+    private Specification<Budget> buildSpec(List<String> ymValues, String category, List<String> divValues,
+                                            String department, List<String> teamValues) {
         Specification<Budget> spec = Specification.where(null);
 
         if (ymValues != null && !ymValues.isEmpty()) {
@@ -67,21 +89,20 @@ public class BudgetService {
                 spec = spec.and((r, q, cb) -> r.get("team").in(realTeams));
             }
         }
-
-        return budgetRepository.findAll(spec);
+        return spec;
     }
 
-    public BigDecimal calcMonthlyAmount(List<Budget> budgets) {
+    public BigDecimal calcMonthlyAmount(List<BudgetRow> budgets) {
         BigDecimal total = BigDecimal.ZERO;
-        for (Budget b : budgets) {
+        for (BudgetRow b : budgets) {
             total = total.add(b.getMonthlyAmount() != null ? b.getMonthlyAmount() : BigDecimal.ZERO);
         }
         return total;
     }
 
-    public BigDecimal calcPrevRemaining(List<Budget> budgets) {
+    public BigDecimal calcPrevRemaining(List<BudgetRow> budgets) {
         BigDecimal total = BigDecimal.ZERO;
-        for (Budget b : budgets) {
+        for (BudgetRow b : budgets) {
             total = total.add(b.getPrevRemaining() != null ? b.getPrevRemaining() : BigDecimal.ZERO);
         }
         return total;
@@ -97,7 +118,58 @@ public class BudgetService {
     }
 
     public Budget save(Budget budget) {
-        return budgetRepository.save(budget);
+        Budget saved = budgetRepository.save(budget);
+        queryCache.bump(QueryResultCache.BUDGET, saved.getYm(), saved.getCategory());
+        return saved;
+    }
+
+    /**
+     * 여러 건을 한 트랜잭션에서 batch INSERT 로 저장 (월 예산 이월 등)
+     */
+    @Transactional
+    public List<Budget> saveAll(List<Budget> budgets) {
+        List<Budget> saved = budgetRepository.saveAll(budgets);
+        saved.stream()
+                .map(b -> Arrays.asList(b.getYm(), b.getCategory()))
+                .distinct()
+                .forEach(p -> queryCache.bump(QueryResultCache.BUDGET, p.get(0), p.get(1)));
+        return saved;
+    }
+
+    /**
+     * 예산 여러 건 upsert (엑셀 import). 대상 년월의 기존 예산을 한 번의 잠금 조회로 가져와
+     * 같은 키가 있으면 금액만 갱신하고 없으면 새로 만들어 한 batch 로 저장한다.
+     * 같은 키가 여러 번 들어오면 마지막 값이 남는다.
+     */
+    @Transactional
+    public List<Budget> upsertAll(Collection<Budget> budgets) {
+        if (budgets.isEmpty()) return List.of();
+
+        Map<ExpenseAggregator.BudgetKey, Budget> incoming = new LinkedHashMap<>();
+        for (Budget b : budgets) {
+            incoming.put(ExpenseAggregator.BudgetKey.of(b), b);
+        }
+        Set<String> yms = incoming.keySet().stream()
+                .map(ExpenseAggregator.BudgetKey::ym)
+                .collect(Collectors.toSet());
+
+        Map<ExpenseAggregator.BudgetKey, Budget> existing = new HashMap<>();
+        for (Budget b : budgetRepository.findByYmInForUpdate(yms)) {
+            existing.putIfAbsent(ExpenseAggregator.BudgetKey.of(b), b);
+        }
+
+        List<Budget> toSave = new ArrayList<>(incoming.size());
+        incoming.forEach((key, b) -> {
+            Budget current = existing.get(key);
+            if (current != null) {
+                current.setMonthlyAmount(b.getMonthlyAmount());
+                current.setPrevRemaining(b.getPrevRemaining());
+                toSave.add(current);
+            } else {
+                toSave.add(b);
+            }
+        });
+        return saveAll(toSave);
     }
 
     /**
@@ -112,18 +184,22 @@ public class BudgetService {
                 Budget b = existing.get();
                 b.setMonthlyAmount(budget.getMonthlyAmount());
                 b.setPrevRemaining(budget.getPrevRemaining());
-                return budgetRepository.save(b);
+                return save(b);
             }
+        } else {
+            // 수정으로 ym/category가 바뀌는 경우 이전 파티션도 무효화
+            budgetRepository.findById(budget.getId())
+                    .ifPresent(old -> queryCache.bump(QueryResultCache.BUDGET, old.getYm(), old.getCategory()));
         }
-        return budgetRepository.save(budget);
+        return save(budget);
     }
 
     /**
      * 월별 예산 합계 맵 (차트용): monthlyAmount + prevRemaining
      */
-    public Map<String, BigDecimal> calcBudgetTotalByYm(List<Budget> budgets) {
+    public Map<String, BigDecimal> calcBudgetTotalByYm(List<BudgetRow> budgets) {
         Map<String, BigDecimal> map = new LinkedHashMap<>();
-        for (Budget b : budgets) {
+        for (BudgetRow b : budgets) {
             BigDecimal total = (b.getMonthlyAmount() != null ? b.getMonthlyAmount() : BigDecimal.ZERO)
                     .add(b.getPrevRemaining() != null ? b.getPrevRemaining() : BigDecimal.ZERO);
             map.merge(b.getYm(), total, BigDecimal::add);
@@ -132,6 +208,9 @@ public class BudgetService {
     }
 
     public void deleteById(Long id) {
-        budgetRepository.deleteById(id);
+        budgetRepository.findById(id).ifPresent(b -> {
+            budgetRepository.delete(b);
+            queryCache.bump(QueryResultCache.BUDGET, b.getYm(), b.getCategory());
+        });
     }
 }
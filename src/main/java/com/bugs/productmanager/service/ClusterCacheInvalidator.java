@@ -0,0 +1,171 @@
+package com.bugs.productmanager.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 다중 인스턴스 캐시 무효화 (공유 MySQL 의 cache_invalidation 로그, 외부 브로커 없음)
+ * - 이 노드에서 커밋된 변경 파티션(테이블, ym, category)을 로그에 남긴다
+ * - 다른 노드가 남긴 행을 poll-ms 주기로 읽어 해당 파티션 버전만 올린다
+ *   → 조회 결과 캐시/export 파일 캐시는 그 파티션만 무효, 경비 변경이 있으면 필터 값 목록을 재동기화
+ * 로그는 커밋 직후 별도 트랜잭션으로 넣으므로 id 가 커밋 순서와 거의 같다.
+ * 그래도 id 순서와 커밋 순서가 어긋날 수 있어 settle-ms 보다 오래된 행까지만 읽은 위치로 확정하고,
+ * 그 이후 행은 id 로 중복을 걸러 다시 읽는다.
+ */
+@Component
+public class ClusterCacheInvalidator {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterCacheInvalidator.class);
+    private static final int POLL_LIMIT = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate requiresNew;
+    private final QueryResultCache queryCache;
+    private final ExpenseDimensionIndex dimensionIndex;
+    private final boolean enabled;
+    private final long settleMs;
+    private final long retentionMs;
+    private final long reconcileIntervalMs;
+
+    /** 이 인스턴스 식별자 (자기가 남긴 행은 건너뜀) */
+    private final String nodeId = UUID.randomUUID().toString();
+    /** 이 id 이하의 행은 모두 처리됨 */
+    private long watermark = -1;
+    /** watermark 이후로 이미 처리한 행 id */
+    private final Set<Long> seen = new HashSet<>();
+    /** 다른 노드의 경비 변경으로 필터 값 목록 재동기화가 필요함 */
+    private boolean reconcilePending;
+    private long lastReconcileAt;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong received = new AtomicLong();
+
+    public ClusterCacheInvalidator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                   QueryResultCache queryCache, ExpenseDimensionIndex dimensionIndex,
+                                   @Value("${cluster.invalidation.enabled:true}") boolean enabled,
+                                   @Value("${cluster.invalidation.settle-ms:10000}") long settleMs,
+                                   @Value("${cluster.invalidation.retention-ms:3600000}") long retentionMs,
+                                   @Value("${cluster.invalidation.reconcile-interval-ms:5000}") long reconcileIntervalMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.queryCache = queryCache;
+        this.dimensionIndex = dimensionIndex;
+        this.enabled = enabled;
+        this.settleMs = settleMs;
+        this.retentionMs = retentionMs;
+        this.reconcileIntervalMs = reconcileIntervalMs;
+    }
+
+    /**
+     * 시작 시점 이전 로그는 볼 필요가 없다 (로컬 캐시가 비어 있음)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled) return;
+        Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM cache_invalidation", Long.class);
+        watermark = max != null ? max : 0;
+        log.info("캐시 무효화 채널 시작: node={}, from id={}", nodeId, watermark);
+    }
+
+    /**
+     * 커밋 후 호출된다. 원래 트랜잭션은 이미 끝났으므로 새 트랜잭션으로 기록한다.
+     */
+    @EventListener
+    public void onPartitionsChanged(QueryResultCache.PartitionsChangedEvent event) {
+        if (!enabled || event.partitions().isEmpty()) return;
+        List<Object[]> rows = event.partitions().stream()
+                .map(p -> new Object[]{nodeId, p.table(), p.ym(), p.category()})
+                .toList();
+        try {
+            requiresNew.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                    "INSERT INTO cache_invalidation (node_id, table_name, ym, category) VALUES (?, ?, ?, ?)", rows));
+            published.addAndGet(rows.size());
+        } catch (RuntimeException e) {
+            // 다른 노드는 TTL/재동기화 주기 안에 따라잡는다
+            log.warn("캐시 무효화 로그 기록 실패: {}", event.partitions(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cluster.invalidation.poll-ms:1000}")
+    public synchronized void poll() {
+        if (!enabled || watermark < 0) return;
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT id, node_id, table_name, ym, category, "
+                        + "created_at < NOW(3) - INTERVAL ? MICROSECOND AS settled "
+                        + "FROM cache_invalidation WHERE id > ? ORDER BY id LIMIT " + POLL_LIMIT,
+                settleMs * 1000, watermark);
+
+        List<QueryResultCache.Partition> remote = new ArrayList<>();
+        boolean expenseChanged = false;
+        boolean prefixSettled = true;
+        long nextWatermark = watermark;
+        for (Map<String, Object> row : rows) {
+            long id = ((Number) row.get("id")).longValue();
+            if (seen.add(id) && !nodeId.equals(row.get("node_id"))) {
+                String table = (String) row.get("table_name");
+                remote.add(new QueryResultCache.Partition(table, (String) row.get("ym"), (String) row.get("category")));
+                if (QueryResultCache.EXPENSE.equals(table)) expenseChanged = true;
+            }
+            // 앞에서부터 연속으로 settle 된 행까지만 확정 (그 뒤는 아직 늦게 커밋될 행이 끼어들 수 있음)
+            prefixSettled = prefixSettled && isTrue(row.get("settled"));
+            if (prefixSettled) nextWatermark = id;
+        }
+        long confirmed = nextWatermark;
+        seen.removeIf(id -> id <= confirmed);
+        watermark = confirmed;
+
+        if (!remote.isEmpty()) {
+            received.addAndGet(remote.size());
+            queryCache.applyRemote(remote);
+        }
+        // 필터 값 목록은 증감을 알 수 없으므로 DB 와 재동기화 (다른 노드가 연속으로 쓰는 동안은 reconcile-interval-ms 에 한 번)
+        reconcilePending |= expenseChanged;
+        long now = System.currentTimeMillis();
+        if (reconcilePending && now - lastReconcileAt >= reconcileIntervalMs) {
+            lastReconcileAt = now;
+            dimensionIndex.reconcile();
+            reconcilePending = false;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cluster.invalidation.cleanup-ms:600000}")
+    public void cleanup() {
+        if (!enabled) return;
+        jdbcTemplate.update("DELETE FROM cache_invalidation WHERE created_at < NOW(3) - INTERVAL ? MICROSECOND",
+                retentionMs * 1000);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public long getPublishedCount() {
+        return published.get();
+    }
+
+    public long getReceivedCount() {
+        return received.get();
+    }
+
+    /** 이 id 까지의 로그는 모두 처리됨 (-1 = 시작 전) */
+    public synchronized long getWatermark() {
+        return watermark;
+    }
+
+    private static boolean isTrue(Object value) {
+        return value instanceof Boolean b ? b : value instanceof Number n && n.intValue() != 0;
+    }
+}
@@ -0,0 +1,444 @@
+package com.bugs.productmanager.service;
+
+import org.apache.poi.EncryptedDocumentException;
+import org.apache.poi.poifs.filesystem.FileMagic;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTWorkbook;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.WorkbookDocument;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * 업로드된 엑셀 파일을 시트/행 단위로 흘려 읽는다.
+ * xlsx 는 XSSFReader + SAX 로 한 행씩 읽어 워크북 DOM 을 만들지 않고,
+ * 행마다 import 에 쓰는 A~D 열만 남기므로 파일 크기와 무관하게 힙 사용량이 일정하다.
+ * 구형 xls 는 포맷 자체가 65,536행으로 제한되므로 HSSF 로 읽어 같은 형태로 넘긴다.
+ */
+@Component
+public class ExcelRowReader {
+
+    /** import 에 쓰는 열 수 (A: 날짜, B: 내용, C: 상호, D: 금액) */
+    static final int COLUMNS = 4;
+
+    /** 엑셀 셀 하나에 들어갈 수 있는 최대 글자 수 */
+    private static final int MAX_CELL_CHARS = 32_767;
+
+    public interface RowHandler {
+        void startSheet(String sheetName);
+
+        void row(SheetRow row);
+
+        void endSheet();
+    }
+
+    /**
+     * A~D 열 셀 하나. POI Cell 과 같은 기준으로 값을 담는다.
+     * FORMULA 는 캐시된 결과가 숫자면 number, 문자열이면 text, 그 외(불리언/오류)면 text="" 이다.
+     * date 는 날짜 서식이 적용된 NUMERIC 셀에만 채워진다.
+     */
+    public record SheetCell(CellType type, double number, String text, Date date) {
+        static SheetCell numeric(double value, Date date) {
+            return new SheetCell(CellType.NUMERIC, value, null, date);
+        }
+
+        static SheetCell string(String value) {
+            return new SheetCell(CellType.STRING, 0, value, null);
+        }
+
+        static SheetCell bool(boolean value) {
+            return new SheetCell(CellType.BOOLEAN, 0, String.valueOf(value), null);
+        }
+
+        static SheetCell formula(double value, String text) {
+            return new SheetCell(CellType.FORMULA, value, text, null);
+        }
+
+        static SheetCell of(CellType type) {
+            return new SheetCell(type, 0, null, null);
+        }
+    }
+
+    /** rowNum 은 0부터 시작하는 시트 행 번호 */
+    public record SheetRow(int rowNum, SheetCell[] cells) {
+        public SheetCell cell(int column) {
+            return column < cells.length ? cells[column] : null;
+        }
+    }
+
+    private final int maxSheets;
+    private final int maxRowsPerSheet;
+
+    public ExcelRowReader(@Value("${excel.import.max-sheets:100}") int maxSheets,
+                          @Value("${excel.import.max-rows-per-sheet:100000}") int maxRowsPerSheet) {
+        this.maxSheets = maxSheets;
+        this.maxRowsPerSheet = maxRowsPerSheet;
+    }
+
+    public void read(File file, RowHandler handler) throws IOException {
+        FileMagic magic = FileMagic.valueOf(file);
+        if (magic == FileMagic.OOXML) {
+            readXlsx(file, handler);
+        } else if (magic == FileMagic.OLE2) {
+            readXls(file, handler);
+        } else {
+            throw new IllegalArgumentException("엑셀 파일(xlsx, xls)만 업로드할 수 있습니다.");
+        }
+    }
+
+    /**
+     * 시트마다 handlers.apply(시트 순번) 로 만든 handler 에 행을 넘기되, xlsx 의 시트들은 executor 에서 병렬로 읽는다.
+     * 다 읽은 시트는 시트 순서대로 호출 스레드에서 onSheet 에 넘기므로 순차 읽기와 같은 순서/결과가 된다.
+     * 읽는 중이거나 다 읽고 앞 시트를 기다리는 시트는 최대 window 개 → handler 가 모아 두는 결과도 그만큼만 힙에 남는다.
+     * 시트 하나가 실패하면 이미 시작한 시트가 끝나길 기다린 뒤 시트 순서상 첫 번째 오류를 던진다. xls 는 순차로 읽는다.
+     */
+    public <H extends RowHandler> void readPerSheet(File file, IntFunction<H> handlers, Executor executor, int window,
+                                                    Consumer<H> onSheet) throws IOException {
+        if (FileMagic.valueOf(file) != FileMagic.OOXML) {
+            read(file, new RowHandler() {
+                private int index;
+                private H current;
+
+                @Override
+                public void startSheet(String sheetName) {
+                    current = handlers.apply(index++);
+                    current.startSheet(sheetName);
+                }
+
+                @Override
+                public void row(SheetRow row) {
+                    current.row(row);
+                }
+
+                @Override
+                public void endSheet() {
+                    current.endSheet();
+                    onSheet.accept(current);
+                    current = null;
+                }
+            });
+            return;
+        }
+
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            XlsxContext ctx = XlsxContext.of(pkg);
+
+            List<String> names = new ArrayList<>();
+            List<PackagePart> parts = new ArrayList<>();
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) ctx.reader().getSheetsData();
+            while (sheets.hasNext()) {
+                sheets.next().close();
+                if (names.size() >= maxSheets) {
+                    throw new IllegalArgumentException("시트가 너무 많습니다. (최대 " + maxSheets + "개)");
+                }
+                names.add(sheets.getSheetName());
+                parts.add(sheets.getSheetPart());
+            }
+
+            Deque<CompletableFuture<H>> running = new ArrayDeque<>();
+            int next = 0;
+            try {
+                while (next < parts.size() || !running.isEmpty()) {
+                    while (next < parts.size() && running.size() < Math.max(1, window)) {
+                        running.add(parseAsync(parts.get(next), names.get(next), ctx, handlers.apply(next), executor));
+                        next++;
+                    }
+                    onSheet.accept(join(running.poll()));
+                }
+            } finally {
+                // 실패해도 패키지를 닫기 전에 이미 시작한 시트 작업이 끝나길 기다린다
+                for (CompletableFuture<H> f : running) {
+                    f.handle((h, e) -> null).join();
+                }
+            }
+        } catch (InvalidFormatException | EncryptedDocumentException e) {
+            throw new IllegalArgumentException("엑셀 파일을 열 수 없습니다: " + e.getMessage(), e);
+        } catch (OpenXML4JException e) {
+            throw new IOException("엑셀 파일을 읽는 중 오류가 발생했습니다: " + e.getMessage(), e);
+        }
+    }
+
+    private <H extends RowHandler> CompletableFuture<H> parseAsync(PackagePart part, String name, XlsxContext ctx,
+                                                                   H handler, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try (InputStream sheetData = part.getInputStream()) {
+                parseSheet(sheetData, name, ctx, handler);
+                return handler;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+    }
+
+    /** 시트 수 (xlsx 는 workbook.xml 만 읽는다, xls 는 1로 본다) */
+    public int countSheets(File file) throws IOException {
+        if (FileMagic.valueOf(file) != FileMagic.OOXML) return 1;
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ);
+             InputStream workbookData = new XSSFReader(pkg).getWorkbookData()) {
+            return WorkbookDocument.Factory.parse(workbookData).getWorkbook().getSheets().sizeOfSheetArray();
+        } catch (InvalidFormatException | EncryptedDocumentException e) {
+            throw new IllegalArgumentException("엑셀 파일을 열 수 없습니다: " + e.getMessage(), e);
+        } catch (OpenXML4JException | org.apache.xmlbeans.XmlException e) {
+            throw new IOException("엑셀 파일을 읽는 중 오류가 발생했습니다: " + e.getMessage(), e);
+        }
+    }
+
+    private static <H> H join(CompletableFuture<H> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException io) throw io.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw e;
+        }
+    }
+
+    // ==================== xlsx (SAX) ====================
+
+    /** 시트 간에 공유하는 읽기 전용 상태 (shared strings, 스타일, 1904 날짜 여부) */
+    private record XlsxContext(XSSFReader reader, ReadOnlySharedStringsTable strings,
+                               StylesTable styles, boolean date1904) {
+
+        static XlsxContext of(OPCPackage pkg) throws IOException, OpenXML4JException {
+            XSSFReader reader = new XSSFReader(pkg);
+            try {
+                return new XlsxContext(reader, new ReadOnlySharedStringsTable(pkg, false),
+                        reader.getStylesTable(), isDate1904(reader));
+            } catch (SAXException e) {
+                throw new IOException("엑셀 파일을 읽는 중 오류가 발생했습니다: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private void readXlsx(File file, RowHandler handler) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            XlsxContext ctx = XlsxContext.of(pkg);
+            Iterator<InputStream> sheets = ctx.reader().getSheetsData();
+            int sheetCount = 0;
+            while (sheets.hasNext()) {
+                try (InputStream sheetData = sheets.next()) {
+                    if (++sheetCount > maxSheets) {
+                        throw new IllegalArgumentException("시트가 너무 많습니다. (최대 " + maxSheets + "개)");
+                    }
+                    parseSheet(sheetData, ((XSSFReader.SheetIterator) sheets).getSheetName(), ctx, handler);
+                }
+            }
+        } catch (InvalidFormatException | EncryptedDocumentException e) {
+            throw new IllegalArgumentException("엑셀 파일을 열 수 없습니다: " + e.getMessage(), e);
+        } catch (OpenXML4JException e) {
+            throw new IOException("엑셀 파일을 읽는 중 오류가 발생했습니다: " + e.getMessage(), e);
+        }
+    }
+
+    /** 시트 하나를 SAX 로 읽는다. XMLReader 는 스레드 안전하지 않으므로 호출마다 새로 만든다. */
+    private void parseSheet(InputStream sheetData, String sheetName, XlsxContext ctx, RowHandler handler) throws IOException {
+        try {
+            XMLReader parser = XMLHelper.newXMLReader();
+            handler.startSheet(sheetName);
+            parser.setContentHandler(new SheetHandler(ctx.strings(), ctx.styles(), ctx.date1904(), handler));
+            parser.parse(new InputSource(sheetData));
+            handler.endSheet();
+        } catch (SAXException | ParserConfigurationException e) {
+            throw new IOException("엑셀 파일을 읽는 중 오류가 발생했습니다: " + e.getMessage(), e);
+        }
+    }
+
+    private static boolean isDate1904(XSSFReader reader) throws IOException, OpenXML4JException {
+        try (InputStream workbookData = reader.getWorkbookData()) {
+            CTWorkbook workbook = WorkbookDocument.Factory.parse(workbookData).getWorkbook();
+            return workbook.isSetWorkbookPr() && workbook.getWorkbookPr().getDate1904();
+        } catch (org.apache.xmlbeans.XmlException e) {
+            throw new IOException("workbook.xml 을 읽을 수 없습니다.", e);
+        }
+    }
+
+    /** sheetN.xml 의 row/c/v 요소를 받아 A~D 열만 SheetCell 로 만든다. */
+    private final class SheetHandler extends DefaultHandler {
+
+        private final ReadOnlySharedStringsTable strings;
+        private final StylesTable styles;
+        private final boolean date1904;
+        private final RowHandler handler;
+
+        private final StringBuilder value = new StringBuilder();
+        private SheetCell[] cells;
+        private int rowNum = -1;
+        private int rowCount;
+        private int column;
+        private int nextColumn;
+        private String cellType;
+        private String cellStyle;
+        private boolean formula;
+        private boolean capturing;
+
+        SheetHandler(ReadOnlySharedStringsTable strings, StylesTable styles, boolean date1904, RowHandler handler) {
+            this.strings = strings;
+            this.styles = styles;
+            this.date1904 = date1904;
+            this.handler = handler;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attrs) {
+            switch (localName) {
+                case "row" -> {
+                    if (++rowCount > maxRowsPerSheet) {
+                        throw new IllegalArgumentException("시트당 행이 너무 많습니다. (최대 " + maxRowsPerSheet + "행)");
+                    }
+                    String r = attrs.getValue("r");
+                    rowNum = r != null ? Integer.parseInt(r) - 1 : rowNum + 1;
+                    cells = new SheetCell[COLUMNS];
+                    nextColumn = 0;
+                }
+                case "c" -> {
+                    String ref = attrs.getValue("r");
+                    column = ref != null ? new CellReference(ref).getCol() : nextColumn;
+                    cellType = attrs.getValue("t");
+                    cellStyle = attrs.getValue("s");
+                    formula = false;
+                    value.setLength(0);
+                }
+                case "f" -> formula = true;
+                case "v", "t" -> capturing = column < COLUMNS;
+                default -> { }
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (capturing && value.length() < MAX_CELL_CHARS) {
+                value.append(ch, start, Math.min(length, MAX_CELL_CHARS - value.length()));
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            switch (localName) {
+                case "v", "t" -> capturing = false;
+                case "c" -> {
+                    if (column < COLUMNS) cells[column] = toCell();
+                    nextColumn = column + 1;
+                }
+                case "row" -> handler.row(new SheetRow(rowNum, cells));
+                default -> { }
+            }
+        }
+
+        private SheetCell toCell() {
+            String raw = value.toString();
+            if (formula) {
+                if ("str".equals(cellType)) return SheetCell.formula(0, raw);
+                if ("b".equals(cellType) || "e".equals(cellType)) return SheetCell.formula(0, "");
+                return SheetCell.formula(parseDouble(raw), null);
+            }
+            if (cellType == null || "n".equals(cellType)) {
+                if (raw.isEmpty()) return SheetCell.of(CellType.BLANK);
+                double number = parseDouble(raw);
+                return SheetCell.numeric(number, isDateFormatted(number) ? DateUtil.getJavaDate(number, date1904) : null);
+            }
+            return switch (cellType) {
+                case "s" -> raw.isEmpty() ? SheetCell.of(CellType.BLANK)
+                        : SheetCell.string(strings.getItemAt(Integer.parseInt(raw)).getString());
+                case "inlineStr", "str" -> SheetCell.string(raw);
+                case "b" -> SheetCell.bool("1".equals(raw));
+                default -> SheetCell.of(CellType.ERROR);
+            };
+        }
+
+        private boolean isDateFormatted(double number) {
+            if (cellStyle == null || styles == null || !DateUtil.isValidExcelDate(number)) return false;
+            XSSFCellStyle style = styles.getStyleAt(Integer.parseInt(cellStyle));
+            return style != null && DateUtil.isADateFormat(style.getDataFormat(), style.getDataFormatString());
+        }
+
+        private double parseDouble(String raw) {
+            try {
+                return raw.isEmpty() ? 0 : Double.parseDouble(raw);
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+    }
+
+    // ==================== xls (HSSF) ====================
+
+    private void readXls(File file, RowHandler handler) throws IOException {
+        try (Workbook workbook = WorkbookFactory.create(file, null, true)) {
+            if (workbook.getNumberOfSheets() > maxSheets) {
+                throw new IllegalArgumentException("시트가 너무 많습니다. (최대 " + maxSheets + "개)");
+            }
+            for (Sheet sheet : workbook) {
+                if (sheet.getPhysicalNumberOfRows() > maxRowsPerSheet) {
+                    throw new IllegalArgumentException("시트당 행이 너무 많습니다. (최대 " + maxRowsPerSheet + "행)");
+                }
+                handler.startSheet(sheet.getSheetName());
+                for (Row row : sheet) {
+                    SheetCell[] cells = new SheetCell[COLUMNS];
+                    for (int c = 0; c < COLUMNS; c++) {
+                        cells[c] = toCell(row.getCell(c));
+                    }
+                    handler.row(new SheetRow(row.getRowNum(), cells));
+                }
+                handler.endSheet();
+            }
+        } catch (EncryptedDocumentException e) {
+            throw new IllegalArgumentException("엑셀 파일을 열 수 없습니다: " + e.getMessage(), e);
+        }
+    }
+
+    private SheetCell toCell(Cell cell) {
+        if (cell == null) return null;
+        return switch (cell.getCellType()) {
+            case NUMERIC -> SheetCell.numeric(cell.getNumericCellValue(),
+                    DateUtil.isCellDateFormatted(cell) ? cell.getDateCellValue() : null);
+            case STRING -> SheetCell.string(cell.getStringCellValue());
+            case BOOLEAN -> SheetCell.bool(cell.getBooleanCellValue());
+            case FORMULA -> switch (cell.getCachedFormulaResultType()) {
+                case NUMERIC -> SheetCell.formula(cell.getNumericCellValue(), null);
+                case STRING -> SheetCell.formula(0, cell.getStringCellValue());
+                default -> SheetCell.formula(0, "");
+            };
+            default -> SheetCell.of(cell.getCellType());
+        };
+    }
+}
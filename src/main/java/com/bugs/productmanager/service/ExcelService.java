@@ -1,113 +1,326 @@
 package com.bugs.productmanager.service;
 
 import com.bugs.productmanager.model.Budget;
+import com.bugs.productmanager.model.BudgetRow;
 import com.bugs.productmanager.model.Expense;
+import com.bugs.productmanager.model.ExpenseRow;
+import com.bugs.productmanager.repository.ExpenseRepositoryCustom;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
 
+import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.Collator;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.ZoneId;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 @Service
 public class ExcelService {
 
     private final ExpenseService expenseService;
     private final BudgetService budgetService;
-
-    public ExcelService(ExpenseService expenseService, BudgetService budgetService) {
+    private final ExcelRowReader rowReader;
+    private final Executor parseExecutor;
+    private final long maxFileBytes;
+    private final boolean parallelEnabled;
+    private final int maxBufferedSheets;
+
+    public ExcelService(ExpenseService expenseService, BudgetService budgetService, ExcelRowReader rowReader,
+                        @Qualifier("importParseExecutor") Executor parseExecutor,
+                        @Value("${excel.import.max-file-size:20MB}") DataSize maxFileSize,
+                        @Value("${excel.import.parallel.enabled:true}") boolean parallelEnabled,
+                        @Value("${excel.import.parallel.max-buffered-sheets:4}") int maxBufferedSheets) {
         this.expenseService = expenseService;
         this.budgetService = budgetService;
+        this.rowReader = rowReader;
+        this.parseExecutor = parseExecutor;
+        this.maxFileBytes = maxFileSize.toBytes();
+        this.parallelEnabled = parallelEnabled;
+        this.maxBufferedSheets = maxBufferedSheets;
     }
 
     // ==================== Upload ====================
 
-    public record UploadResult(int budgetCount, int expenseCount) {}
-
-    public UploadResult importExcel(MultipartFile file, String ym, String department, String team) throws IOException {
-        try (InputStream is = file.getInputStream();
-             Workbook workbook = WorkbookFactory.create(is)) {
-
-            int totalSheets = workbook.getNumberOfSheets();
-            boolean hasYm = ym != null && !ym.trim().isEmpty();
-
-            int budgetCount = 0;
-            int expenseCount = 0;
-
-            for (int s = 0; s < totalSheets; s++) {
-                Sheet sheet = workbook.getSheetAt(s);
-                List<Map<String, Object>> sections = parseSections(sheet);
-                if (sections.isEmpty()) continue;
-
-                // 시트 이름에서 년월 추출 시도 (예: "2026-01", "202601")
-                String sheetYm = hasYm ? ym.trim() : extractYmFromSheetName(sheet.getSheetName());
-
-                for (int i = 0; i < sections.size(); i++) {
-                    Map<String, Object> sec = sections.get(i);
-                    String cat = (String) sec.get("cat");
-                    String div = (String) sec.get("div");
-                    double monthly = (double) sec.get("monthly");
-                    double prevRem = (double) sec.get("prev");
-                    int startRow = (int) sec.get("startRow");
-
-                    // Parse expense rows
-                    int dataStartRow = startRow + 2;
-                    int endRow = (i + 1 < sections.size())
-                            ? (int) sections.get(i + 1).get("startRow") - 1
-                            : sheet.getLastRowNum();
-
-                    // 년월이 없으면 첫 번째 데이터행의 날짜에서 추출
-                    String sectionYm = sheetYm;
-                    if (sectionYm == null) {
-                        sectionYm = extractYmFromRows(sheet, dataStartRow, endRow);
-                    }
-                    if (sectionYm == null) {
-                        continue; // 년월을 알 수 없으면 스킵
-                    }
-
-                    YearMonth yearMonth = YearMonth.parse(sectionYm);
-                    LocalDate defaultDate = yearMonth.atEndOfMonth();
-
-                    // Save/update budget
-                    Budget budget = new Budget();
-                    budget.setYm(sectionYm);
-                    budget.setCategory(cat);
-                    budget.setDivision(div);
-                    budget.setDepartment(department);
-                    budget.setTeam(team);
-                    budget.setMonthlyAmount(BigDecimal.valueOf((long) monthly));
-                    budget.setPrevRemaining(BigDecimal.valueOf((long) prevRem));
-                    budgetService.saveOrUpdate(budget);
-                    budgetCount++;
-
-                    for (int r = dataStartRow; r <= endRow; r++) {
-                        Row dataRow = sheet.getRow(r);
-                        if (dataRow == null) continue;
-
-                        Expense expense = parseExpenseRow(dataRow, sectionYm, cat, div, defaultDate);
-                        if (expense != null) {
-                            expense.setDepartment(department);
-                            expense.setTeam(team);
-                            expenseService.save(expense);
-                            expenseCount++;
-                        }
-                    }
+    /** 경비 INSERT 를 모아 보내는 단위 (hibernate.jdbc.batch_size 와 맞춘다) */
+    private static final int IMPORT_BATCH_SIZE = 500;
+
+    /**
+     * expenseCount = 엑셀에서 읽은 경비 행 수 (= insertedCount + skippedCount)
+     * skippedCount = 같은 내용의 행이 이미 있어 건너뜀, removedCount = 재업로드에서 사라져 삭제됨
+     */
+    public record UploadResult(int budgetCount, int expenseCount, int insertedCount, int skippedCount, int removedCount) {}
+
+    /** import 진행 상황 통지 (업로드 작업 상태 조회용) */
+    public interface ImportListener {
+        ImportListener NONE = new ImportListener() {};
+
+        /** 경비 행 하나를 파싱함 */
+        default void rowParsed() {}
+
+        /** 경비 count 건을 DB 로 보냄 (커밋 전) */
+        default void rowsPersisted(int count) {}
+    }
+
+    public void checkFileSize(long bytes) {
+        if (bytes > maxFileBytes) {
+            throw new IllegalArgumentException("파일이 너무 큽니다. (최대 " + (maxFileBytes / 1024 / 1024) + "MB)");
+        }
+    }
+
+    /**
+     * 디스크에 저장된 업로드 파일 한 건을 하나의 트랜잭션으로 저장한다. 실패하면 전체가 롤백된다.
+     * zip 엔트리를 필요할 때만 풀어 읽으므로 파일 경로를 받는다.
+     * 섹션 범위(ym, category, division, department, team)에 같은 지문의 행이 이미 있으면 건너뛰고 새 행만 넣는다.
+     * replaceMissing 이면 업로드에 포함된 범위에서 이번 파일에 없는 기존 행을 삭제한다.
+     * 범위마다 지문을 읽기 전에 범위 잠금을 잡아, 같은 범위의 동시 업로드는 앞선 업로드가 커밋된 뒤에 지문을 읽는다.
+     * (READ_COMMITTED: 잠금을 기다린 뒤의 지문 조회가 트랜잭션 시작 시점 스냅샷이 아니라 커밋된 최신 행을 보도록)
+     */
+    @Transactional(rollbackFor = Exception.class, isolation = Isolation.READ_COMMITTED)
+    public UploadResult importExcel(Path file, String ym, String department, String team,
+                                    boolean replaceMissing, ImportListener listener) throws IOException {
+        checkFileSize(Files.size(file));
+
+        PersistingSink sink = new PersistingSink(replaceMissing, listener);
+        File workbook = file.toFile();
+        if (parallelEnabled && rowReader.countSheets(workbook) > 1) {
+            // 시트별로 병렬 파싱하고, 끝난 시트부터 시트 순서대로 저장 → 순차 경로와 같은 순서/결과
+            // 메모리에 모아 두는 시트는 max-buffered-sheets 개까지
+            rowReader.readPerSheet(workbook,
+                    i -> new SectionImporter<>(ym, department, team, listener, new CollectingSink()),
+                    parseExecutor, maxBufferedSheets, sheet -> sheet.sink.replayTo(sink));
+        } else {
+            rowReader.read(workbook, new SectionImporter<>(ym, department, team, listener, sink));
+        }
+        UploadResult result = sink.finish();
+
+        if (result.budgetCount() == 0 && result.expenseCount() == 0) {
+            throw new IllegalArgumentException("엑셀에서 섹션을 찾을 수 없습니다. 형식을 확인해주세요.");
+        }
+
+        return result;
+    }
+
+    /** 파싱된 예산/경비를 받는 곳 */
+    private interface ImportSink {
+        void budget(Budget budget);
+
+        void expense(Expense expense);
+    }
+
+    /**
+     * 경비는 IMPORT_BATCH_SIZE 건씩 바로 DB 로 보내고, 예산은 섹션 수만큼만 쌓이므로 끝까지 모았다가 한 번에 upsert.
+     * 범위별 기존 행 지문은 처음 만날 때 한 번 읽어 두고, 같은 지문의 새 행이 올 때마다 하나씩 소진한다
+     * (같은 날 같은 내용의 결제가 여러 건인 경우도 건수대로 맞춘다).
+     */
+    private class PersistingSink implements ImportSink {
+
+        private final boolean replaceMissing;
+        private final ImportListener listener;
+        private final List<Expense> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+        private final List<Budget> budgets = new ArrayList<>();
+        /** 범위 → (지문 → 아직 매칭되지 않은 기존 행 id) */
+        private final Map<ExpenseAggregator.BudgetKey, Map<String, Deque<Long>>> existing = new HashMap<>();
+        private int budgetCount;
+        private int expenseCount;
+        private int insertedCount;
+        private int skippedCount;
+
+        PersistingSink(boolean replaceMissing, ImportListener listener) {
+            this.replaceMissing = replaceMissing;
+            this.listener = listener;
+        }
+
+        @Override
+        public void budget(Budget budget) {
+            budgets.add(budget);
+            budgetCount++;
+            // 경비 행이 모두 사라진 섹션도 삭제 대상에 들도록 범위를 미리 읽는다
+            existingIn(ExpenseAggregator.BudgetKey.of(budget));
+        }
+
+        @Override
+        public void expense(Expense expense) {
+            expenseCount++;
+            ExpenseAggregator.BudgetKey scope = new ExpenseAggregator.BudgetKey(expense.getYm(),
+                    expense.getCategory(), expense.getDivision(), expense.getDepartment(), expense.getTeam());
+            Deque<Long> matches = existingIn(scope).get(expense.computeFingerprint());
+            if (matches != null && matches.poll() != null) {
+                skippedCount++;
+                return;
+            }
+            batch.add(expense);
+            insertedCount++;
+            if (batch.size() >= IMPORT_BATCH_SIZE) flush();
+        }
+
+        private Map<String, Deque<Long>> existingIn(ExpenseAggregator.BudgetKey scope) {
+            return existing.computeIfAbsent(scope, key -> {
+                expenseService.lockImportScope(key);
+                Map<String, Deque<Long>> byFingerprint = new HashMap<>();
+                for (ExpenseRepositoryCustom.Fingerprint f : expenseService.findFingerprints(key)) {
+                    if (f.fingerprint() == null) continue;
+                    byFingerprint.computeIfAbsent(f.fingerprint(), k -> new ArrayDeque<>()).add(f.id());
                 }
+                return byFingerprint;
+            });
+        }
+
+        private void flush() {
+            expenseService.saveAllNew(batch);
+            listener.rowsPersisted(batch.size());
+            batch.clear();
+        }
+
+        UploadResult finish() {
+            flush();
+            int removedCount = 0;
+            if (replaceMissing) {
+                List<Long> missing = new ArrayList<>();
+                existing.values().forEach(byFingerprint -> byFingerprint.values().forEach(missing::addAll));
+                for (int i = 0; i < missing.size(); i += IMPORT_BATCH_SIZE) {
+                    removedCount += expenseService.deleteAllById(
+                            missing.subList(i, Math.min(i + IMPORT_BATCH_SIZE, missing.size())));
+                }
+            }
+            budgetService.upsertAll(budgets);
+            return new UploadResult(budgetCount, expenseCount, insertedCount, skippedCount, removedCount);
+        }
+    }
+
+    /** 병렬 파싱용: 시트 하나의 결과를 메모리에 모아 두었다가 파싱 순서 그대로 다른 sink 에 넘긴다 (넘긴 뒤에는 버려진다) */
+    private static class CollectingSink implements ImportSink {
+
+        private final List<Budget> budgets = new ArrayList<>();
+        private final List<Expense> expenses = new ArrayList<>();
+
+        @Override
+        public void budget(Budget budget) {
+            budgets.add(budget);
+        }
+
+        @Override
+        public void expense(Expense expense) {
+            expenses.add(expense);
+        }
+
+        void replayTo(ImportSink target) {
+            budgets.forEach(target::budget);
+            expenses.forEach(target::expense);
+        }
+    }
+
+    /** 섹션 헤더 행(A: "LINK - 경비" 등, C: 월 예산, D: 전월 잔액) */
+    private record Section(String category, String division, double monthly, double prevRemaining, int startRow) {}
+
+    /**
+     * 행을 한 줄씩 받아 섹션 단위로 예산/경비를 저장한다.
+     * 섹션 헤더 다음 행은 컬럼 헤더, 그 다음부터 다음 섹션 헤더 전까지가 경비 행이다.
+     * 년월을 시트 이름에서 알 수 없으면 섹션의 첫 날짜 행이 나올 때까지만 행을 보관했다가 저장한다.
+     */
+    private class SectionImporter<S extends ImportSink> implements ExcelRowReader.RowHandler {
+
+        private final String ym;
+        private final String department;
+        private final String team;
+        private final ImportListener listener;
+        final S sink;
+
+        private final List<ExcelRowReader.SheetRow> pending = new ArrayList<>();
+        private String sheetYm;
+        private Section section;
+        private String sectionYm;
+        private LocalDate defaultDate;
+
+        SectionImporter(String ym, String department, String team, ImportListener listener, S sink) {
+            this.ym = ym != null && !ym.trim().isEmpty() ? ym.trim() : null;
+            this.department = department;
+            this.team = team;
+            this.listener = listener;
+            this.sink = sink;
+        }
+
+        @Override
+        public void startSheet(String sheetName) {
+            // 시트 이름에서 년월 추출 시도 (예: "2026-01", "202601")
+            sheetYm = ym != null ? ym : extractYmFromSheetName(sheetName);
+            section = null;
+        }
+
+        @Override
+        public void row(ExcelRowReader.SheetRow row) {
+            Section header = parseSection(row);
+            if (header != null) {
+                startSection(header);
+                return;
+            }
+            if (section == null || row.rowNum() < section.startRow() + 2) return;
+
+            if (sectionYm != null) {
+                saveExpense(row);
+                return;
             }
 
-            if (budgetCount == 0 && expenseCount == 0) {
-                throw new IllegalArgumentException("엑셀에서 섹션을 찾을 수 없습니다. 형식을 확인해주세요.");
+            // 년월이 없으면 첫 번째 데이터행의 날짜에서 추출
+            pending.add(row);
+            String rowYm = extractYm(row.cell(0));
+            if (rowYm != null) {
+                resolveYm(rowYm);
+                pending.forEach(this::saveExpense);
+                pending.clear();
             }
+        }
+
+        @Override
+        public void endSheet() {
+            section = null;
+            pending.clear();
+        }
 
-            return new UploadResult(budgetCount, expenseCount);
+        private void startSection(Section header) {
+            section = header;
+            sectionYm = null;
+            pending.clear(); // 년월을 알 수 없었던 이전 섹션은 스킵
+            if (sheetYm != null) resolveYm(sheetYm);
+        }
+
+        private void resolveYm(String resolved) {
+            sectionYm = resolved;
+            defaultDate = YearMonth.parse(resolved).atEndOfMonth();
+
+            // Save/update budget
+            Budget budget = new Budget();
+            budget.setYm(resolved);
+            budget.setCategory(section.category());
+            budget.setDivision(section.division());
+            budget.setDepartment(department);
+            budget.setTeam(team);
+            budget.setMonthlyAmount(BigDecimal.valueOf((long) section.monthly()));
+            budget.setPrevRemaining(BigDecimal.valueOf((long) section.prevRemaining()));
+            sink.budget(budget);
+        }
+
+        private void saveExpense(ExcelRowReader.SheetRow row) {
+            Expense expense = parseExpenseRow(row, sectionYm, section.category(), section.division(), defaultDate);
+            if (expense != null) {
+                expense.setDepartment(department);
+                expense.setTeam(team);
+                listener.rowParsed();
+                sink.expense(expense);
+            }
         }
     }
 
@@ -126,71 +339,51 @@ public class ExcelService {
         return null;
     }
 
-    private String extractYmFromRows(Sheet sheet, int startRow, int endRow) {
-        for (int r = startRow; r <= endRow; r++) {
-            Row row = sheet.getRow(r);
-            if (row == null) continue;
-            Cell dateCell = row.getCell(0);
-            if (dateCell != null && dateCell.getCellType() == CellType.NUMERIC && DateUtil.isCellDateFormatted(dateCell)) {
-                java.util.Date d = dateCell.getDateCellValue();
-                LocalDate ld = d.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
-                return ld.getYear() + "-" + String.format("%02d", ld.getMonthValue());
-            }
-        }
-        return null;
+    private String extractYm(ExcelRowReader.SheetCell dateCell) {
+        if (dateCell == null || dateCell.date() == null) return null;
+        LocalDate ld = dateCell.date().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        return ld.getYear() + "-" + String.format("%02d", ld.getMonthValue());
     }
 
-    private List<Map<String, Object>> parseSections(Sheet sheet) {
-        List<Map<String, Object>> sections = new ArrayList<>();
-
-        for (Row row : sheet) {
-            Cell aCell = row.getCell(0);
-            if (aCell == null) continue;
-            String aVal = getCellStringValue(aCell).trim();
-            if (aVal.isEmpty()) continue;
-
-            String cat = null;
-            String div = null;
-
-            if (aVal.contains("LINK") && (aVal.contains("- 경비") || aVal.contains("-경비"))) {
-                cat = "LINK"; div = "경비";
-            } else if (aVal.contains("LINK") && (aVal.contains("- 플젝") || aVal.contains("-플젝"))) {
-                cat = "LINK"; div = "플젝";
-            } else if (aVal.contains("LINK") && (aVal.contains("- 대외") || aVal.contains("-대외"))) {
-                cat = "LINK"; div = "대외";
-            } else if (aVal.contains("LINK") && aVal.contains("출장")) {
-                cat = "LINK"; div = "출장";
-            } else if (aVal.contains("BUGS") && (aVal.contains("- 경비") || aVal.contains("-경비"))) {
-                cat = "BUGS"; div = "경비";
-            } else if (aVal.contains("BUGS") && (aVal.contains("- 대외") || aVal.contains("-대외"))) {
-                cat = "BUGS"; div = "대외";
-            } else if (aVal.contains("BUGS") && (aVal.contains("- 임원") || aVal.contains("-임원"))) {
-                cat = "BUGS"; div = "임원";
-            } else if (aVal.contains("임원") && aVal.contains("LINK") && !aVal.contains("BUGS")
-                    && !aVal.contains("날짜") && !aVal.toUpperCase().contains("SUM")) {
-                cat = "LINK"; div = "임원";
-            }
-
-            if (cat != null) {
-                double monthly = getNumericValue(row.getCell(2));
-                double prevRem = getNumericValue(row.getCell(3));
-                Map<String, Object> sec = new LinkedHashMap<>();
-                sec.put("cat", cat);
-                sec.put("div", div);
-                sec.put("monthly", monthly);
-                sec.put("prev", prevRem);
-                sec.put("startRow", row.getRowNum());
-                sections.add(sec);
-            }
+    private Section parseSection(ExcelRowReader.SheetRow row) {
+        ExcelRowReader.SheetCell aCell = row.cell(0);
+        if (aCell == null) return null;
+        String aVal = getCellStringValue(aCell).trim();
+        if (aVal.isEmpty()) return null;
+
+        String cat = null;
+        String div = null;
+
+        if (aVal.contains("LINK") && (aVal.contains("- 경비") || aVal.contains("-경비"))) {
+            cat = "LINK"; div = "경비";
+        } else if (aVal.contains("LINK") && (aVal.contains("- 플젝") || aVal.contains("-플젝"))) {
+            cat = "LINK"; div = "플젝";
+        } else if (aVal.contains("LINK") && (aVal.contains("- 대외") || aVal.contains("-대외"))) {
+            cat = "LINK"; div = "대외";
+        } else if (aVal.contains("LINK") && aVal.contains("출장")) {
+            cat = "LINK"; div = "출장";
+        } else if (aVal.contains("BUGS") && (aVal.contains("- 경비") || aVal.contains("-경비"))) {
+            cat = "BUGS"; div = "경비";
+        } else if (aVal.contains("BUGS") && (aVal.contains("- 대외") || aVal.contains("-대외"))) {
+            cat = "BUGS"; div = "대외";
+        } else if (aVal.contains("BUGS") && (aVal.contains("- 임원") || aVal.contains("-임원"))) {
+            cat = "BUGS"; div = "임원";
+        } else if (aVal.contains("임원") && aVal.contains("LINK") && !aVal.contains("BUGS")
+                && !aVal.contains("날짜") && !aVal.toUpperCase().contains("SUM")) {
+            cat = "LINK"; div = "임원";
         }
-        return sections;
+
+        if (cat == null) return null;
+        double monthly = getNumericValue(row.cell(2));
+        double prevRem = getNumericValue(row.cell(3));
+        return new Section(cat, div, monthly, prevRem, row.rowNum());
     }
 
-    private Expense parseExpenseRow(Row dataRow, String ym, String cat, String div, LocalDate defaultDate) {
-        Cell dateCell = dataRow.getCell(0);
-        Cell purposeCell = dataRow.getCell(1);
-        Cell storeCell = dataRow.getCell(2);
-        Cell amountCell = dataRow.getCell(3);
+    private Expense parseExpenseRow(ExcelRowReader.SheetRow dataRow, String ym, String cat, String div, LocalDate defaultDate) {
+        ExcelRowReader.SheetCell dateCell = dataRow.cell(0);
+        ExcelRowReader.SheetCell purposeCell = dataRow.cell(1);
+        ExcelRowReader.SheetCell storeCell = dataRow.cell(2);
+        ExcelRowReader.SheetCell amountCell = dataRow.cell(3);
 
         double amount = getNumericValue(amountCell);
         if (amount == 0) return null;
@@ -199,8 +392,7 @@ public class ExcelService {
         String purposeStr = getCellStringValue(purposeCell).trim();
         if (dateStr.equalsIgnoreCase("SUM") || purposeStr.equalsIgnoreCase("SUM")) return null;
 
-        boolean hasDate = dateCell != null && (dateCell.getCellType() == CellType.NUMERIC
-                && DateUtil.isCellDateFormatted(dateCell) || !dateStr.isEmpty());
+        boolean hasDate = dateCell != null && (dateCell.date() != null || !dateStr.isEmpty());
         boolean hasPurpose = !purposeStr.isEmpty();
         String storeStr = getCellStringValue(storeCell).trim();
         boolean hasStore = !storeStr.isEmpty();
@@ -208,9 +400,8 @@ public class ExcelService {
         if (!hasDate && !hasPurpose && !hasStore) return null;
 
         LocalDate expDate = defaultDate;
-        if (dateCell != null && dateCell.getCellType() == CellType.NUMERIC && DateUtil.isCellDateFormatted(dateCell)) {
-            java.util.Date d = dateCell.getDateCellValue();
-            expDate = d.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        if (dateCell != null && dateCell.date() != null) {
+            expDate = dateCell.date().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
         }
 
         Expense expense = new Expense();
@@ -226,165 +417,204 @@ public class ExcelService {
 
     // ==================== Download ====================
 
-    public void exportExcel(List<Expense> expenses, List<Budget> budgets, OutputStream out) throws IOException {
-        try (Workbook workbook = new XSSFWorkbook()) {
+    /** SXSSF 가 메모리에 유지하는 행 수. 이보다 앞선 행은 임시 파일로 내려간다. */
+    private static final int EXPORT_WINDOW_SIZE = 200;
+
+    /** export 할 경비 행 공급자. 섹션 키(category, division, department, team) 순으로 정렬해 넘겨야 한다. */
+    @FunctionalInterface
+    public interface RowSource {
+        void forEach(Consumer<ExpenseRow> action);
+    }
+
+    /**
+     * 경비를 섹션별로 스트리밍 출력한다. 행은 source 에서 한 줄씩 받아 SXSSF 윈도우만큼만 메모리에 두고
+     * 섹션이 바뀔 때 SUM 행을 닫으므로, 건수와 무관하게 힙 사용량이 일정하다.
+     * 경비가 없는 예산 섹션은 마지막에 붙인다.
+     */
+    public void exportExcel(RowSource expenses, List<BudgetRow> budgets, OutputStream out) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(EXPORT_WINDOW_SIZE);
+        workbook.setCompressTempFiles(true);
+        try {
             Sheet sheet = workbook.createSheet("경비예산");
 
-            // Styles
-            CellStyle sectionStyle = createSectionStyle(workbook);
-            CellStyle headerStyle = createHeaderStyle(workbook);
-            CellStyle amountStyle = createAmountStyle(workbook);
-            CellStyle sumStyle = createSumStyle(workbook);
-            CellStyle dateStyle = createDateStyle(workbook);
-
-            // Group expenses by category + division + department + team
-            Map<String, List<Expense>> grouped = expenses.stream()
-                    .collect(Collectors.groupingBy(
-                            e -> e.getCategory() + " - " + e.getDivision()
-                                    + (e.getDepartment() != null && !e.getDepartment().isEmpty() ? " [" + e.getDepartment() + (e.getTeam() != null && !e.getTeam().isEmpty() ? "/" + e.getTeam() : "") + "]" : ""),
-                            LinkedHashMap::new,
-                            Collectors.toList()));
-
-            // Budget lookup map
-            Map<String, Budget> budgetMap = new LinkedHashMap<>();
-            for (Budget b : budgets) {
-                String key = b.getCategory() + " - " + b.getDivision()
-                        + (b.getDepartment() != null && !b.getDepartment().isEmpty() ? " [" + b.getDepartment() + (b.getTeam() != null && !b.getTeam().isEmpty() ? "/" + b.getTeam() : "") + "]" : "");
-                budgetMap.put(key, b);
+            // 행은 MySQL collation(대소문자/악센트 무시) 순으로 오므로 섹션 비교/예산 조회도 같은 기준으로 한다
+            Collator collator = sectionCollator();
+            Map<String, BudgetRow> budgetMap = new TreeMap<>(collator);
+            for (BudgetRow b : budgets) {
+                budgetMap.put(sectionKey(b.getCategory(), b.getDivision(), b.getDepartment(), b.getTeam()), b);
             }
 
+            SectionWriter writer = new SectionWriter(workbook, sheet, budgetMap, collator);
+            expenses.forEach(writer::write);
+            writer.endSection();
+
             // Add budget-only sections
-            for (Budget b : budgets) {
-                String key = b.getCategory() + " - " + b.getDivision()
-                        + (b.getDepartment() != null && !b.getDepartment().isEmpty() ? " [" + b.getDepartment() + (b.getTeam() != null && !b.getTeam().isEmpty() ? "/" + b.getTeam() : "") + "]" : "");
-                if (!grouped.containsKey(key)) {
-                    grouped.put(key, new ArrayList<>());
+            for (String key : budgetMap.keySet()) {
+                if (writer.written.add(key)) {
+                    writer.startSection(key);
+                    writer.endSection();
                 }
             }
 
-            int rowNum = 0;
-
-            for (Map.Entry<String, List<Expense>> entry : grouped.entrySet()) {
-                String sectionName = entry.getKey();
-                List<Expense> sectionExpenses = entry.getValue();
-                Budget budget = budgetMap.get(sectionName);
-
-                // Section header
-                Row sectionRow = sheet.createRow(rowNum++);
-                Cell nameCell = sectionRow.createCell(0);
-                nameCell.setCellValue(sectionName);
-                nameCell.setCellStyle(sectionStyle);
-                sectionRow.createCell(1).setCellStyle(sectionStyle);
-
-                Cell monthlyCell = sectionRow.createCell(2);
-                monthlyCell.setCellValue(budget != null && budget.getMonthlyAmount() != null
-                        ? budget.getMonthlyAmount().doubleValue() : 0);
-                monthlyCell.setCellStyle(amountStyle);
-
-                Cell prevCell = sectionRow.createCell(3);
-                prevCell.setCellValue(budget != null && budget.getPrevRemaining() != null
-                        ? budget.getPrevRemaining().doubleValue() : 0);
-                prevCell.setCellStyle(amountStyle);
-
-                // Column headers
-                Row headerRow = sheet.createRow(rowNum++);
-                String[] headers = {"날짜", "내용", "상호", "금액"};
-                for (int i = 0; i < headers.length; i++) {
-                    Cell cell = headerRow.createCell(i);
-                    cell.setCellValue(headers[i]);
-                    cell.setCellStyle(headerStyle);
-                }
+            // Column widths
+            for (int i = 0; i < 4; i++) {
+                sheet.setColumnWidth(i, i == 0 ? 14 * 256 : i == 3 ? 15 * 256 : 20 * 256);
+            }
 
-                // Data rows
-                BigDecimal sectionTotal = BigDecimal.ZERO;
-                for (Expense exp : sectionExpenses) {
-                    Row dataRow = sheet.createRow(rowNum++);
+            workbook.write(out);
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
 
-                    Cell dc = dataRow.createCell(0);
-                    if (exp.getExpenseDate() != null) {
-                        dc.setCellValue(java.sql.Date.valueOf(exp.getExpenseDate()));
-                        dc.setCellStyle(dateStyle);
-                    }
+    /** utf8mb4_0900_ai_ci 처럼 대소문자/악센트 차이를 같은 값으로 본다 */
+    private static Collator sectionCollator() {
+        Collator collator = Collator.getInstance(Locale.ROOT);
+        collator.setStrength(Collator.PRIMARY);
+        return collator;
+    }
 
-                    dataRow.createCell(1).setCellValue(exp.getPurpose() != null ? exp.getPurpose() : "");
-                    dataRow.createCell(2).setCellValue(exp.getStoreName() != null ? exp.getStoreName() : "");
+    private static String sectionKey(String category, String division, String department, String team) {
+        return category + " - " + division
+                + (department != null && !department.isEmpty() ? " [" + department + (team != null && !team.isEmpty() ? "/" + team : "") + "]" : "");
+    }
 
-                    Cell ac = dataRow.createCell(3);
-                    ac.setCellValue(exp.getAmount() != null ? exp.getAmount().doubleValue() : 0);
-                    ac.setCellStyle(amountStyle);
+    /** 섹션 헤더 → 컬럼 헤더 → 데이터 행 → SUM 행 → 빈 줄 순으로 한 행씩 쓴다. */
+    private class SectionWriter {
+
+        private final Sheet sheet;
+        private final Map<String, BudgetRow> budgetMap;
+        private final Collator collator;
+        private final CellStyle sectionStyle;
+        private final CellStyle headerStyle;
+        private final CellStyle amountStyle;
+        private final CellStyle sumStyle;
+        private final CellStyle dateStyle;
+
+        final Set<String> written;
+        private String currentKey;
+        private BigDecimal sectionTotal = BigDecimal.ZERO;
+        private int rowNum = 0;
+
+        SectionWriter(Workbook workbook, Sheet sheet, Map<String, BudgetRow> budgetMap, Collator collator) {
+            this.sheet = sheet;
+            this.budgetMap = budgetMap;
+            this.collator = collator;
+            this.written = new TreeSet<>(collator);
+            this.sectionStyle = createSectionStyle(workbook);
+            this.headerStyle = createHeaderStyle(workbook);
+            this.amountStyle = createAmountStyle(workbook);
+            this.sumStyle = createSumStyle(workbook);
+            this.dateStyle = createDateStyle(workbook);
+        }
 
-                    sectionTotal = sectionTotal.add(exp.getAmount() != null ? exp.getAmount() : BigDecimal.ZERO);
-                }
+        void write(ExpenseRow exp) {
+            String key = sectionKey(exp.getCategory(), exp.getDivision(), exp.getDepartment(), exp.getTeam());
+            if (currentKey == null || !collator.equals(key, currentKey)) {
+                endSection();
+                written.add(key);
+                startSection(key);
+            }
 
-                // SUM row
-                Row sumRow = sheet.createRow(rowNum++);
-                sumRow.createCell(0).setCellValue("SUM");
-                Cell sumCell = sumRow.createCell(3);
-                sumCell.setCellValue(sectionTotal.doubleValue());
-                sumCell.setCellStyle(sumStyle);
+            Row dataRow = sheet.createRow(rowNum++);
 
-                rowNum++; // separator
+            Cell dc = dataRow.createCell(0);
+            if (exp.getExpenseDate() != null) {
+                dc.setCellValue(java.sql.Date.valueOf(exp.getExpenseDate()));
+                dc.setCellStyle(dateStyle);
             }
 
-            // Column widths
-            for (int i = 0; i < 4; i++) {
-                sheet.setColumnWidth(i, i == 0 ? 14 * 256 : i == 3 ? 15 * 256 : 20 * 256);
+            dataRow.createCell(1).setCellValue(exp.getPurpose() != null ? exp.getPurpose() : "");
+            dataRow.createCell(2).setCellValue(exp.getStoreName() != null ? exp.getStoreName() : "");
+
+            Cell ac = dataRow.createCell(3);
+            ac.setCellValue(exp.getAmount() != null ? exp.getAmount().doubleValue() : 0);
+            ac.setCellStyle(amountStyle);
+
+            sectionTotal = sectionTotal.add(exp.getAmount() != null ? exp.getAmount() : BigDecimal.ZERO);
+        }
+
+        void startSection(String sectionName) {
+            currentKey = sectionName;
+            sectionTotal = BigDecimal.ZERO;
+            BudgetRow budget = budgetMap.get(sectionName);
+
+            // Section header
+            Row sectionRow = sheet.createRow(rowNum++);
+            Cell nameCell = sectionRow.createCell(0);
+            nameCell.setCellValue(sectionName);
+            nameCell.setCellStyle(sectionStyle);
+            sectionRow.createCell(1).setCellStyle(sectionStyle);
+
+            Cell monthlyCell = sectionRow.createCell(2);
+            monthlyCell.setCellValue(budget != null && budget.getMonthlyAmount() != null
+                    ? budget.getMonthlyAmount().doubleValue() : 0);
+            monthlyCell.setCellStyle(amountStyle);
+
+            Cell prevCell = sectionRow.createCell(3);
+            prevCell.setCellValue(budget != null && budget.getPrevRemaining() != null
+                    ? budget.getPrevRemaining().doubleValue() : 0);
+            prevCell.setCellStyle(amountStyle);
+
+            // Column headers
+            Row headerRow = sheet.createRow(rowNum++);
+            String[] headers = {"날짜", "내용", "상호", "금액"};
+            for (int i = 0; i < headers.length; i++) {
+                Cell cell = headerRow.createCell(i);
+                cell.setCellValue(headers[i]);
+                cell.setCellStyle(headerStyle);
             }
+        }
 
-            workbook.write(out);
+        void endSection() {
+            if (currentKey == null) return;
+
+            // SUM row
+            Row sumRow = sheet.createRow(rowNum++);
+            sumRow.createCell(0).setCellValue("SUM");
+            Cell sumCell = sumRow.createCell(3);
+            sumCell.setCellValue(sectionTotal.doubleValue());
+            sumCell.setCellStyle(sumStyle);
+
+            rowNum++; // separator
+            currentKey = null;
         }
     }
 
     // ==================== Cell Helpers ====================
 
-    private String getCellStringValue(Cell cell) {
+    private String getCellStringValue(ExcelRowReader.SheetCell cell) {
         if (cell == null) return "";
-        return switch (cell.getCellType()) {
-            case STRING -> cell.getStringCellValue();
+        return switch (cell.type()) {
+            case STRING, BOOLEAN -> cell.text();
             case NUMERIC -> {
-                if (DateUtil.isCellDateFormatted(cell)) {
-                    yield cell.getDateCellValue().toString();
+                if (cell.date() != null) {
+                    yield cell.date().toString();
                 }
-                double val = cell.getNumericCellValue();
+                double val = cell.number();
                 if (val == Math.floor(val) && !Double.isInfinite(val)) {
                     yield String.valueOf((long) val);
                 }
                 yield String.valueOf(val);
             }
-            case BOOLEAN -> String.valueOf(cell.getBooleanCellValue());
-            case FORMULA -> {
-                try {
-                    yield String.valueOf(cell.getNumericCellValue());
-                } catch (Exception ex) {
-                    try {
-                        yield cell.getStringCellValue();
-                    } catch (Exception ex2) {
-                        yield "";
-                    }
-                }
-            }
+            case FORMULA -> cell.text() != null ? cell.text() : String.valueOf(cell.number());
             default -> "";
         };
     }
 
-    private double getNumericValue(Cell cell) {
+    private double getNumericValue(ExcelRowReader.SheetCell cell) {
         if (cell == null) return 0;
-        return switch (cell.getCellType()) {
-            case NUMERIC -> cell.getNumericCellValue();
+        return switch (cell.type()) {
+            case NUMERIC -> cell.number();
             case STRING -> {
                 try {
-                    yield Double.parseDouble(cell.getStringCellValue().replace(",", "").trim());
+                    yield Double.parseDouble(cell.text().replace(",", "").trim());
                 } catch (NumberFormatException e) {
                     yield 0;
                 }
             }
-            case FORMULA -> {
-                try {
-                    yield cell.getNumericCellValue();
-                } catch (Exception e) {
-                    yield 0;
-                }
-            }
+            case FORMULA -> cell.text() != null ? 0 : cell.number();
             default -> 0;
         };
     }
@@ -0,0 +1,139 @@
+package com.bugs.productmanager.service;
+
+import com.bugs.productmanager.config.CacheWeigher;
+import com.bugs.productmanager.model.Budget;
+import com.bugs.productmanager.model.BudgetRow;
+import com.bugs.productmanager.model.Expense;
+import com.bugs.productmanager.repository.ExpenseRepositoryCustom;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * 경비 합계 단일 패스 집계기
+ * 한 번 순회로 전체 합계/건수, 월별, 카테고리별, 구분별, 예산키별 합계를 동시에 만든다.
+ * 금액 컬럼이 scale = 0 이므로 누적은 long으로 하고 결과를 낼 때만 BigDecimal로 바꾼다.
+ * 입력은 경비 엔티티 또는 예산키 단위 GROUP BY 결과(GroupSum) 모두 가능.
+ */
+public final class ExpenseAggregator {
+
+    private static final String UNKNOWN = "기타";
+
+    /**
+     * 예산 단위 키 (ym + category + division + department + team), department/team은 null → ""
+     */
+    public record BudgetKey(String ym, String category, String division, String department, String team)
+            implements CacheWeigher.Sized {
+
+        public BudgetKey {
+            department = department != null ? department : "";
+            team = team != null ? team : "";
+        }
+
+        public static BudgetKey of(Budget b) {
+            return new BudgetKey(b.getYm(), b.getCategory(), b.getDivision(), b.getDepartment(), b.getTeam());
+        }
+
+        public static BudgetKey of(BudgetRow b) {
+            return new BudgetKey(b.getYm(), b.getCategory(), b.getDivision(), b.getDepartment(), b.getTeam());
+        }
+
+        /** 화면(usedAmountMap)에서 쓰는 문자열 키 형식 */
+        public String asString() {
+            return ym + "_" + category + "_" + division + "_" + department + "_" + team;
+        }
+
+        @Override
+        public long estimatedBytes() {
+            return CacheWeigher.OBJECT_HEADER + 5L * CacheWeigher.REFERENCE + CacheWeigher.estimate(ym)
+                    + CacheWeigher.estimate(category) + CacheWeigher.estimate(division)
+                    + CacheWeigher.estimate(department) + CacheWeigher.estimate(team);
+        }
+    }
+
+    /**
+     * 집계 결과 (불변)
+     */
+    public record Result(BigDecimal totalAmount, long count,
+                         Map<String, BigDecimal> amountByYm,
+                         Map<String, BigDecimal> amountByCategory,
+                         Map<String, BigDecimal> amountByDivision,
+                         Map<BudgetKey, BigDecimal> amountByBudgetKey) implements CacheWeigher.Sized {
+
+        @Override
+        public long estimatedBytes() {
+            return CacheWeigher.OBJECT_HEADER + 5L * CacheWeigher.REFERENCE + 8 + 40
+                    + CacheWeigher.estimate(amountByYm) + CacheWeigher.estimate(amountByCategory)
+                    + CacheWeigher.estimate(amountByDivision) + CacheWeigher.estimate(amountByBudgetKey);
+        }
+
+        public BigDecimal usedAmount(BudgetKey key) {
+            return amountByBudgetKey.getOrDefault(key, BigDecimal.ZERO);
+        }
+
+        /** 예산키 문자열 → 사용금액 (템플릿용) */
+        public Map<String, BigDecimal> usedAmountByKeyString() {
+            Map<String, BigDecimal> map = new HashMap<>(amountByBudgetKey.size() * 2);
+            amountByBudgetKey.forEach((k, v) -> map.put(k.asString(), v));
+            return map;
+        }
+    }
+
+    private long total;
+    private long count;
+    private final Map<String, long[]> byYm = new TreeMap<>();
+    private final Map<String, long[]> byCategory = new TreeMap<>();
+    private final Map<String, long[]> byDivision = new TreeMap<>();
+    private final Map<BudgetKey, long[]> byBudgetKey = new HashMap<>();
+
+    public static Result of(Iterable<Expense> expenses) {
+        return RequestTiming.time(RequestTiming.Phase.AGGREGATION, () -> {
+            ExpenseAggregator agg = new ExpenseAggregator();
+            for (Expense e : expenses) agg.add(e);
+            return agg.result();
+        });
+    }
+
+    /**
+     * GROUP BY ym, category, division, department, team 결과를 접는다
+     */
+    public static Result ofGroups(List<ExpenseRepositoryCustom.GroupSum> groups) {
+        return RequestTiming.time(RequestTiming.Phase.AGGREGATION, () -> {
+            ExpenseAggregator agg = new ExpenseAggregator();
+            for (ExpenseRepositoryCustom.GroupSum g : groups) {
+                agg.add(g.key(0), g.key(1), g.key(2), g.key(3), g.key(4), g.amount().longValue(), g.count());
+            }
+            return agg.result();
+        });
+    }
+
+    public void add(Expense e) {
+        long amount = e.getAmount() != null ? e.getAmount().longValue() : 0L;
+        add(e.getYm(), e.getCategory(), e.getDivision(), e.getDepartment(), e.getTeam(), amount, 1);
+    }
+
+    public void add(String ym, String category, String division, String department, String team,
+                    long amount, long rows) {
+        total += amount;
+        count += rows;
+        cell(byYm, ym != null ? ym : UNKNOWN)[0] += amount;
+        cell(byCategory, category != null ? category : UNKNOWN)[0] += amount;
+        cell(byDivision, division != null ? division : UNKNOWN)[0] += amount;
+        cell(byBudgetKey, new BudgetKey(ym, category, division, department, team))[0] += amount;
+    }
+
+    public Result result() {
+        return new Result(BigDecimal.valueOf(total), count,
+                toDecimal(byYm, new LinkedHashMap<>()), toDecimal(byCategory, new LinkedHashMap<>()),
+                toDecimal(byDivision, new LinkedHashMap<>()), toDecimal(byBudgetKey, new HashMap<>()));
+    }
+
+    private static <K> long[] cell(Map<K, long[]> map, K key) {
+        return map.computeIfAbsent(key, k -> new long[1]);
+    }
+
+    private static <K> Map<K, BigDecimal> toDecimal(Map<K, long[]> source, Map<K, BigDecimal> target) {
+        source.forEach((k, v) -> target.put(k, BigDecimal.valueOf(v[0])));
+        return Collections.unmodifiableMap(target);
+    }
+}
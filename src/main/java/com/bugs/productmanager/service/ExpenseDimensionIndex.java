@@ -0,0 +1,312 @@
+package com.bugs.productmanager.service;
+
+import com.bugs.productmanager.model.Expense;
+import com.bugs.productmanager.repository.ExpenseRepository;
+import com.bugs.productmanager.repository.ExpenseRepositoryCustom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * 경비 필터 드롭다운용 차원 값 목록 (ym, category, division, purpose, storeName, department, team)
+ * - 값별 행 수를 세어 두고 저장/수정/삭제/업로드 시 커밋 후에 증감만 반영한다 → 변경마다 SELECT DISTINCT 를 다시 돌리지 않음
+ * - 행 수가 0 이 된 값만 목록에서 빠진다
+ * - 주기적으로 DB 의 GROUP BY 결과로 전체를 다시 맞춘다 (다른 경로로 바뀐 데이터, 누락된 증감 보정)
+ * 빈 문자열/null 값은 목록에 넣지 않는다. ym 은 최신순, 나머지는 오름차순.
+ * 같은 방식으로 (회사, 실, 팀, ym) 조합별 행 수도 세어 권한 범위별 캐스케이딩 필터 옵션(options)을 만든다.
+ * 옵션은 범위별로 캐시하고, 조합이 생기거나 사라질 때 그 조합을 볼 수 있는 범위만 비운다.
+ */
+@Component
+public class ExpenseDimensionIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpenseDimensionIndex.class);
+
+    public enum Dimension {
+        YM("ym", Expense::getYm, true),
+        CATEGORY("category", Expense::getCategory, false),
+        DIVISION("division", Expense::getDivision, false),
+        PURPOSE("purpose", Expense::getPurpose, false),
+        STORE_NAME("storeName", Expense::getStoreName, false),
+        DEPARTMENT("department", Expense::getDepartment, false),
+        TEAM("team", Expense::getTeam, false);
+
+        private final String attribute;
+        private final Function<Expense, String> getter;
+        private final boolean descending;
+
+        Dimension(String attribute, Function<Expense, String> getter, boolean descending) {
+            this.attribute = attribute;
+            this.getter = getter;
+            this.descending = descending;
+        }
+    }
+
+    /**
+     * 사용자 권한 범위. null 이면 해당 단계는 제한 없음
+     * (ADMIN = 전부 null, COMPANY = category, DEPARTMENT = category + department, TEAM = 셋 다)
+     */
+    public record Scope(String category, String department, String team) {
+
+        boolean covers(ScopeRow row) {
+            return (category == null || category.equals(row.category()))
+                    && (department == null || department.equals(row.department()))
+                    && (team == null || team.equals(row.team()));
+        }
+    }
+
+    /** 범위에서 보이는 필터 옵션 트리: 회사 → 실 → 팀, 단계마다 해당 범위의 ym (최신순) */
+    public record FilterOptions(List<String> ym, List<CategoryNode> categories) {}
+
+    public record CategoryNode(String name, List<String> ym, List<DepartmentNode> departments) {}
+
+    public record DepartmentNode(String name, List<String> ym, List<TeamNode> teams) {}
+
+    public record TeamNode(String name, List<String> ym) {}
+
+    /** (회사, 실, 팀, ym) 조합. 실/팀 null 은 빈 문자열로 정규화 */
+    private record ScopeRow(String category, String department, String team, String ym) {
+
+        static ScopeRow of(String category, String department, String team, String ym) {
+            if (category == null || category.isEmpty() || ym == null || ym.isEmpty()) return null;
+            return new ScopeRow(category, department != null ? department : "", team != null ? team : "", ym);
+        }
+    }
+
+    /** 경비 한 건의 차원 값 (merge 전 이전 값을 보존하기 위해 호출 시점에 뜬다) */
+    private record Values(String[] values, ScopeRow scopeRow) {
+
+        static Values of(Expense e) {
+            String[] values = new String[Dimension.values().length];
+            for (Dimension d : Dimension.values()) {
+                values[d.ordinal()] = d.getter.apply(e);
+            }
+            return new Values(values, ScopeRow.of(e.getCategory(), e.getDepartment(), e.getTeam(), e.getYm()));
+        }
+    }
+
+    private final ExpenseRepository expenseRepository;
+
+    /** 차원별 값 → 행 수. 모든 접근은 this 로 동기화 */
+    private final EnumMap<Dimension, TreeMap<String, Long>> counts = new EnumMap<>(Dimension.class);
+    /** 차원별 정렬된 값 목록 스냅샷. 변경되면 null 로 두고 다음 조회 때 다시 만든다 */
+    private final EnumMap<Dimension, List<String>> views = new EnumMap<>(Dimension.class);
+    /** (회사, 실, 팀, ym) 조합 → 행 수 */
+    private Map<ScopeRow, Long> scopeRows = new HashMap<>();
+    /** 범위별 필터 옵션 캐시 */
+    private final Map<Scope, FilterOptions> options = new HashMap<>();
+    private boolean loaded;
+    /** 재동기화는 한 번에 하나만 (첫 조회가 동시에 몰려도 DB 집계는 한 번) */
+    private final Object reconcileLock = new Object();
+    /** 전체 재동기화 중 커밋된 추가분 (DB 스냅샷에 빠졌을 수 있어 새 집계 위에 다시 더한다) */
+    private List<Values> pendingAdds;
+
+    public ExpenseDimensionIndex(ExpenseRepository expenseRepository) {
+        this.expenseRepository = expenseRepository;
+        for (Dimension d : Dimension.values()) {
+            counts.put(d, new TreeMap<>());
+        }
+    }
+
+    public List<String> values(Dimension dimension) {
+        synchronized (this) {
+            List<String> view = loaded ? views.get(dimension) : null;
+            if (view != null) return view;
+        }
+        ensureLoaded();
+        synchronized (this) {
+            return views.computeIfAbsent(dimension, d -> {
+                List<String> list = new ArrayList<>(counts.get(d).keySet());
+                if (d.descending) Collections.reverse(list);
+                return List.copyOf(list);
+            });
+        }
+    }
+
+    /**
+     * 범위에서 보이는 회사 → 실 → 팀 옵션과 단계별 ym
+     */
+    public FilterOptions options(Scope scope) {
+        synchronized (this) {
+            FilterOptions cached = loaded ? options.get(scope) : null;
+            if (cached != null) return cached;
+        }
+        ensureLoaded();
+        synchronized (this) {
+            return options.computeIfAbsent(scope, this::buildOptions);
+        }
+    }
+
+    private FilterOptions buildOptions(Scope scope) {
+        // 회사 → 실 → 팀 → ym. 실/팀이 빈 문자열인 행은 상위 단계 ym 에만 포함된다
+        TreeSet<String> allYm = new TreeSet<>(Comparator.reverseOrder());
+        TreeMap<String, TreeSet<String>> catYm = new TreeMap<>();
+        TreeMap<String, TreeMap<String, TreeSet<String>>> deptYm = new TreeMap<>();
+        TreeMap<String, TreeMap<String, TreeMap<String, TreeSet<String>>>> teamYm = new TreeMap<>();
+        for (ScopeRow row : scopeRows.keySet()) {
+            if (!scope.covers(row)) continue;
+            allYm.add(row.ym());
+            catYm.computeIfAbsent(row.category(), k -> new TreeSet<>(Comparator.reverseOrder())).add(row.ym());
+            if (row.department().isEmpty()) continue;
+            deptYm.computeIfAbsent(row.category(), k -> new TreeMap<>())
+                    .computeIfAbsent(row.department(), k -> new TreeSet<>(Comparator.reverseOrder())).add(row.ym());
+            if (row.team().isEmpty()) continue;
+            teamYm.computeIfAbsent(row.category(), k -> new TreeMap<>())
+                    .computeIfAbsent(row.department(), k -> new TreeMap<>())
+                    .computeIfAbsent(row.team(), k -> new TreeSet<>(Comparator.reverseOrder())).add(row.ym());
+        }
+
+        List<CategoryNode> categories = new ArrayList<>();
+        catYm.forEach((cat, cYm) -> {
+            List<DepartmentNode> departments = new ArrayList<>();
+            deptYm.getOrDefault(cat, new TreeMap<>()).forEach((dept, dYm) -> {
+                List<TeamNode> teams = new ArrayList<>();
+                teamYm.getOrDefault(cat, new TreeMap<>()).getOrDefault(dept, new TreeMap<>())
+                        .forEach((team, tYm) -> teams.add(new TeamNode(team, List.copyOf(tYm))));
+                departments.add(new DepartmentNode(dept, List.copyOf(dYm), List.copyOf(teams)));
+            });
+            categories.add(new CategoryNode(cat, List.copyOf(cYm), List.copyOf(departments)));
+        });
+        return new FilterOptions(List.copyOf(allYm), List.copyOf(categories));
+    }
+
+    /** 새로 저장된 경비 반영 (트랜잭션 안이면 커밋 후) */
+    public void added(Expense expense) {
+        Values v = Values.of(expense);
+        afterCommit(() -> apply(List.of(v), 1));
+    }
+
+    public void addedAll(Collection<Expense> expenses) {
+        List<Values> vs = expenses.stream().map(Values::of).toList();
+        afterCommit(() -> apply(vs, 1));
+    }
+
+    /** 삭제되었거나 수정 전 값으로 사라지는 경비 반영 (트랜잭션 안이면 커밋 후) */
+    public void removed(Expense expense) {
+        Values v = Values.of(expense);
+        afterCommit(() -> apply(List.of(v), -1));
+    }
+
+    public void removedAll(Collection<Expense> expenses) {
+        List<Values> vs = expenses.stream().map(Values::of).toList();
+        afterCommit(() -> apply(vs, -1));
+    }
+
+    /**
+     * DB 기준 전체 재동기화 (처음 조회 시 + 주기적으로)
+     */
+    @Scheduled(initialDelayString = "${expense.dimension.reconcile-ms:600000}",
+            fixedDelayString = "${expense.dimension.reconcile-ms:600000}")
+    public void reconcile() {
+        synchronized (reconcileLock) {
+            doReconcile();
+        }
+    }
+
+    private void doReconcile() {
+        synchronized (this) {
+            pendingAdds = new ArrayList<>();
+        }
+        EnumMap<Dimension, TreeMap<String, Long>> fresh = new EnumMap<>(Dimension.class);
+        Map<ScopeRow, Long> freshRows = new HashMap<>();
+        try {
+            for (Dimension d : Dimension.values()) {
+                TreeMap<String, Long> map = new TreeMap<>();
+                for (ExpenseRepositoryCustom.GroupSum g : expenseRepository.sumGroupedBy(null, d.attribute)) {
+                    String value = g.key(0);
+                    if (value != null && !value.isEmpty()) map.put(value, g.count());
+                }
+                fresh.put(d, map);
+            }
+            for (ExpenseRepositoryCustom.GroupSum g : expenseRepository.sumGroupedBy(null,
+                    "category", "department", "team", "ym")) {
+                ScopeRow row = ScopeRow.of(g.key(0), g.key(1), g.key(2), g.key(3));
+                if (row != null) freshRows.merge(row, g.count(), Long::sum);
+            }
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendingAdds = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            // 재동기화 중 삭제분은 DB 스냅샷에 이미 반영됐을 수 있어 버린다 (값이 다음 재동기화까지 남을 뿐 사라지지는 않음)
+            List<Values> adds = pendingAdds;
+            pendingAdds = null;
+            int changed = 0;
+            for (Dimension d : Dimension.values()) {
+                if (!fresh.get(d).keySet().equals(counts.get(d).keySet())) changed++;
+                counts.put(d, fresh.get(d));
+            }
+            if (!freshRows.keySet().equals(scopeRows.keySet())) changed++;
+            scopeRows = freshRows;
+            loaded = true;
+            applyLocked(adds, 1);
+            views.clear();
+            options.clear();
+            if (changed > 0) log.info("경비 필터 값 목록 재동기화: {}개 차원 변경", changed);
+        }
+    }
+
+    private void ensureLoaded() {
+        if (isLoaded()) return;
+        synchronized (reconcileLock) {
+            if (!isLoaded()) doReconcile();
+        }
+    }
+
+    private synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    private synchronized void apply(List<Values> vs, int sign) {
+        if (pendingAdds != null && sign > 0) pendingAdds.addAll(vs);
+        // 아직 적재 전이면 첫 조회 때 DB 에서 읽으므로 증감은 버린다
+        if (!loaded) return;
+        applyLocked(vs, sign);
+    }
+
+    private void applyLocked(List<Values> vs, int sign) {
+        for (Values v : vs) {
+            for (Dimension d : Dimension.values()) {
+                String value = v.values()[d.ordinal()];
+                if (value == null || value.isEmpty()) continue;
+                TreeMap<String, Long> map = counts.get(d);
+                Long next = map.getOrDefault(value, 0L) + sign;
+                boolean membershipChanged;
+                if (next > 0) {
+                    membershipChanged = map.put(value, next) == null;
+                } else {
+                    membershipChanged = map.remove(value) != null;
+                }
+                if (membershipChanged) views.remove(d);
+            }
+            ScopeRow row = v.scopeRow();
+            if (row == null) continue;
+            long next = scopeRows.getOrDefault(row, 0L) + sign;
+            boolean membershipChanged = next > 0
+                    ? scopeRows.put(row, next) == null
+                    : scopeRows.remove(row) != null;
+            // 이 조합을 볼 수 있는 범위의 옵션만 비운다
+            if (membershipChanged) options.keySet().removeIf(scope -> scope.covers(row));
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.bugs.productmanager.service;
+
+import com.bugs.productmanager.model.Expense;
+import com.bugs.productmanager.model.ExpenseMonthlyRollup;
+import com.bugs.productmanager.repository.ExpenseMonthlyRollupRepository;
+import com.bugs.productmanager.repository.ExpenseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * expense_monthly_rollup 유지/조회
+ * - Expense 저장/삭제 시 이전 값 차감 + 새 값 가산
+ * - 차트(최근 13개월)와 전년 동월 시리즈는 엔티티 대신 집계 행을 읽는다
+ */
+@Service
+public class ExpenseRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpenseRollupService.class);
+    private static final String BACKFILL_LOCK = "expense_rollup_backfill";
+
+    private final ExpenseMonthlyRollupRepository rollupRepository;
+    private final ExpenseRepository expenseRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public ExpenseRollupService(ExpenseMonthlyRollupRepository rollupRepository,
+                                ExpenseRepository expenseRepository,
+                                JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager) {
+        this.rollupRepository = rollupRepository;
+        this.expenseRepository = expenseRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 집계 반영용 경비 값 스냅샷 (merge 전에 이전 값을 보존하기 위함)
+     */
+    public record Snapshot(String ym, String category, String division,
+                           String department, String team, BigDecimal amount) {
+
+        public static Snapshot of(Expense e) {
+            return new Snapshot(e.getYm(), e.getCategory(), e.getDivision(),
+                    e.getDepartment(), e.getTeam(), e.getAmount());
+        }
+    }
+
+    @Transactional
+    public void add(Snapshot s) {
+        apply(s, 1);
+    }
+
+    @Transactional
+    public void subtract(Snapshot s) {
+        apply(s, -1);
+    }
+
+    /**
+     * 여러 건을 집계 키별로 합쳐 키당 한 번만 반영 (엑셀 import 등 대량 저장/삭제용)
+     */
+    @Transactional
+    public void addAll(Collection<Snapshot> snapshots) {
+        applyAll(snapshots, 1);
+    }
+
+    @Transactional
+    public void subtractAll(Collection<Snapshot> snapshots) {
+        applyAll(snapshots, -1);
+    }
+
+    private void applyAll(Collection<Snapshot> snapshots, int sign) {
+        // 금액을 뺀 스냅샷을 집계 키로 쓴다
+        Map<Snapshot, BigDecimal> amounts = new LinkedHashMap<>();
+        Map<Snapshot, Long> counts = new LinkedHashMap<>();
+        for (Snapshot s : snapshots) {
+            if (s == null || s.ym() == null || s.category() == null || s.division() == null) continue;
+            Snapshot key = new Snapshot(s.ym(), s.category(), s.division(),
+                    nullSafe(s.department()), nullSafe(s.team()), null);
+            amounts.merge(key, s.amount() != null ? s.amount() : BigDecimal.ZERO, BigDecimal::add);
+            counts.merge(key, 1L, Long::sum);
+        }
+        amounts.forEach((k, amount) -> {
+            rollupRepository.addDelta(k.ym(), k.category(), k.division(),
+                    k.department(), k.team(), sign > 0 ? amount : amount.negate(), sign * counts.get(k));
+            // 차감한 키만 0건 정리
+            if (sign < 0) rollupRepository.deleteIfEmpty(k.ym(), k.category(), k.division(), k.department(), k.team());
+        });
+    }
+
+    private void apply(Snapshot s, int sign) {
+        if (s == null || s.ym() == null || s.category() == null || s.division() == null) return;
+        BigDecimal amount = s.amount() != null ? s.amount() : BigDecimal.ZERO;
+        String department = nullSafe(s.department());
+        String team = nullSafe(s.team());
+        rollupRepository.addDelta(s.ym(), s.category(), s.division(), department, team,
+                sign > 0 ? amount : amount.negate(), sign);
+        if (sign < 0) rollupRepository.deleteIfEmpty(s.ym(), s.category(), s.division(), department, team);
+    }
+
+    /**
+     * 월별 사용금액 합계 (차트용) - 검색어(purpose/storeName) 조건이 없는 경우에만 사용 가능
+     */
+    @Transactional(readOnly = true)
+    public Map<String, BigDecimal> sumAmountByYm(List<String> ymValues, String category, List<String> divValues,
+                                                 String department, List<String> teamValues) {
+        Map<String, BigDecimal> map = new LinkedHashMap<>();
+        for (ExpenseMonthlyRollup r : rollupRepository.findAll(buildSpec(ymValues, category, divValues, department, teamValues))) {
+            map.merge(r.getYm(), r.getTotalAmount(), BigDecimal::add);
+        }
+        return map;
+    }
+
+    /**
+     * expenses 테이블 기준 전체 재집계
+     */
+    @Transactional
+    public int rebuild() {
+        rollupRepository.deleteAllRows();
+        int rows = rollupRepository.rebuildFromExpenses();
+        log.info("월별 경비 집계 재생성 완료: {}건", rows);
+        return rows;
+    }
+
+    /**
+     * 서버 시작 시 집계 테이블이 비어 있고 경비가 있으면 초기 적재
+     * 여러 노드가 동시에 시작하면 MySQL 이름 잠금을 잡은 노드 하나만 적재하고 나머지는 건너뛴다.
+     * 잠금은 적재 트랜잭션이 커밋된 뒤 풀어 다음 노드가 빈 테이블을 보고 다시 적재하지 않게 한다.
+     * 실패해도 시작은 계속한다 (다음 시작 때 다시 시도).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+                if (!tryLock(con)) {
+                    log.info("다른 노드가 월별 경비 집계를 적재 중입니다.");
+                    return null;
+                }
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        if (rollupRepository.count() == 0 && expenseRepository.count() > 0) {
+                            log.info("월별 경비 집계가 비어 있어 초기 적재합니다.");
+                            rebuild();
+                        }
+                    });
+                } finally {
+                    unlock(con);
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.warn("월별 경비 집계 초기 적재 실패 (차트 금액이 비어 보일 수 있습니다)", e);
+        }
+    }
+
+    private static boolean tryLock(Connection con) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+            ps.setString(1, BACKFILL_LOCK);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private static void unlock(Connection con) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            ps.setString(1, BACKFILL_LOCK);
+            ps.execute();
+        }
+    }
+
+    private Specification<ExpenseMonthlyRollup> buildSpec(List<String> ymValues, String category, List<String> divValues,
+                                                          String department, List<String> teamValues) {
+        Specification<ExpenseMonthlyRollup> spec = Specification.where(null);
+
+        if (ymValues != null && !ymValues.isEmpty()) {
+            spec = spec.and((r, q, cb) -> r.get("ym").in(ymValues));
+        }
+        if (category != null && !category.isEmpty()) {
+            spec = spec.and((r, q, cb) -> cb.equal(r.get("category"), category));
+        }
+        if (divValues != null && !divValues.isEmpty()) {
+            spec = spec.and((r, q, cb) -> r.get("division").in(divValues));
+        }
+        if (department != null && !department.isEmpty()) {
+            spec = spec.and((r, q, cb) -> cb.equal(r.get("department"), department));
+        }
+        // 팀 다중선택: __DEPT_ONLY__ = 실(자체, 집계상 빈 문자열), 팀명 = 해당 팀만
+        if (teamValues != null && !teamValues.isEmpty()) {
+            boolean hasDeptOnly = teamValues.contains("__DEPT_ONLY__");
+            List<String> realTeams = teamValues.stream()
+                    .filter(t -> !"__DEPT_ONLY__".equals(t) && t != null && !t.isEmpty()).toList();
+            if (hasDeptOnly && !realTeams.isEmpty()) {
+                spec = spec.and((r, q, cb) -> cb.or(cb.equal(r.get("team"), ""), r.get("team").in(realTeams)));
+            } else if (hasDeptOnly) {
+                spec = spec.and((r, q, cb) -> cb.equal(r.get("team"), ""));
+            } else if (!realTeams.isEmpty()) {
+                spec = spec.and((r, q, cb) -> r.get("team").in(realTeams));
+            }
+        }
+        return spec;
+    }
+
+    private String nullSafe(String s) {
+        return s != null ? s : "";
+    }
+}
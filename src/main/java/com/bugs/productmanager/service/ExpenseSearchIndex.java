@@ -0,0 +1,252 @@
+package com.bugs.productmanager.service;
+
+import com.bugs.productmanager.model.Expense;
+import com.bugs.productmanager.model.ExpenseSearchGram;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * purpose/storeName 부분 문자열 검색용 2-gram 역색인 (expense_search_gram)
+ * - 저장/삭제 시 해당 경비의 gram을 다시 기록
+ * - 검색 시 키워드의 gram(최대 4개)을 모두 가진 경비 ID만 후보로 남긴 뒤 기존 LIKE로 최종 판정 → 결과는 LIKE와 동일
+ * - 1글자 키워드나 LIKE 와일드카드(%, _)가 들어간 키워드는 색인 없이 LIKE만 사용
+ * - 색인이 완성됐다는 표시(expense_search_index_state.ready)가 있기 전에는 gram 후보 없이 LIKE만 사용
+ * 한글은 2글자 단어가 많아 3-gram 대신 2-gram을 쓴다.
+ */
+@Service
+public class ExpenseSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpenseSearchIndex.class);
+    private static final int GRAM = 2;
+    private static final int MAX_QUERY_GRAMS = 4;
+    private static final int BACKFILL_BATCH = 1000;
+    private static final String REBUILD_LOCK = "expense_search_rebuild";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** 색인이 모든 경비를 담고 있는지 (false 면 gram 후보 없이 LIKE 만 쓴다) */
+    private volatile boolean ready;
+
+    public ExpenseSearchIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * LIKE '%keyword%' 과 같은 결과를 내는 조건 (가능하면 gram 후보 서브쿼리를 먼저 건다)
+     */
+    public Specification<Expense> contains(String attribute, String keyword) {
+        String field = fieldOf(attribute);
+        List<String> grams = ready && useIndex(keyword) ? grams(keyword).stream().limit(MAX_QUERY_GRAMS).toList() : List.of();
+        return (r, q, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            // gram마다 별도 서브쿼리로 교집합 → collation상 같은 gram이 섞여도 후보가 빠지지 않는다
+            for (String gram : grams) {
+                Subquery<Long> sq = q.subquery(Long.class);
+                Root<ExpenseSearchGram> g = sq.from(ExpenseSearchGram.class);
+                sq.select(g.get("id").get("expenseId"))
+                  .where(cb.equal(g.get("id").get("field"), field), cb.equal(g.get("id").get("gram"), gram));
+                predicates.add(r.get("id").in(sq));
+            }
+            predicates.add(cb.like(r.get(attribute), "%" + keyword + "%"));
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    @Transactional
+    public void index(Expense expense) {
+        if (expense.getId() == null) return;
+        remove(expense.getId());
+        insertGrams(expense.getId(), expense.getPurpose(), expense.getStoreName());
+    }
+
+    /**
+     * 새로 저장된 경비 여러 건을 한 번의 batch INSERT 로 색인 (기존 색인이 없으므로 삭제 생략)
+     */
+    @Transactional
+    public void indexNew(Collection<Expense> expenses) {
+        List<Object[]> args = new ArrayList<>();
+        for (Expense e : expenses) {
+            if (e.getId() != null) addGramArgs(args, e.getId(), e.getPurpose(), e.getStoreName());
+        }
+        insertGrams(args);
+    }
+
+    @Transactional
+    public void remove(Long expenseId) {
+        jdbcTemplate.update("DELETE FROM expense_search_gram WHERE expense_id = ?", expenseId);
+    }
+
+    @Transactional
+    public void removeAll(Collection<Long> expenseIds) {
+        if (expenseIds.isEmpty()) return;
+        jdbcTemplate.batchUpdate("DELETE FROM expense_search_gram WHERE expense_id = ?",
+                expenseIds.stream().map(id -> new Object[]{id}).toList());
+    }
+
+    /**
+     * 서버 시작 시 색인 완성 표시가 없으면(첫 적재 전, 재생성 중 중단) 다시 만든다.
+     * 여러 노드가 동시에 시작하면 MySQL 이름 잠금을 잡은 노드 하나만 만들고, 나머지는 refreshReady 로 완성을 기다린다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfIncomplete() {
+        ready = readReady();
+        if (ready) return;
+        // 이름 잠금은 세션 단위라 재생성이 끝날 때까지 잠금을 잡은 연결을 쥐고 있는다
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            if (!tryLock(con)) {
+                log.info("다른 노드가 검색 색인을 재생성 중입니다. 완료될 때까지 LIKE 로 검색합니다.");
+                return null;
+            }
+            try {
+                if (readReady()) {
+                    ready = true;
+                } else {
+                    log.info("검색 색인이 완성되지 않아 다시 만듭니다.");
+                    rebuild();
+                }
+            } finally {
+                unlock(con);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 다른 노드의 재생성이 끝났는지 주기적으로 확인 (완성된 뒤에는 조회하지 않음)
+     */
+    @Scheduled(fixedDelayString = "${expense.search.ready-check-ms:60000}")
+    public void refreshReady() {
+        if (!ready) ready = readReady();
+    }
+
+    /**
+     * expenses 전체를 id 순으로 나눠 읽으며 색인 재생성.
+     * 한 트랜잭션으로 묶지 않는 대신 시작할 때 완성 표시를 내리고 끝까지 채운 뒤에만 올린다
+     * → 도중에 검색은 LIKE 만 쓰고, 중단되면 다음 시작 때 다시 만든다.
+     * 재생성 중 저장/삭제는 평소처럼 index/remove 가 반영한다 (이미 읽은 페이지의 옛 gram 이 남아도 후보만 늘 뿐 LIKE 가 거른다).
+     */
+    public void rebuild() {
+        ready = false;
+        markReady(false);
+        jdbcTemplate.update("DELETE FROM expense_search_gram");
+        long lastId = 0;
+        int total = 0;
+        while (true) {
+            List<Object[]> rows = jdbcTemplate.query(
+                    "SELECT id, purpose, store_name FROM expenses WHERE id > ? ORDER BY id LIMIT ?",
+                    (rs, i) -> new Object[]{rs.getLong(1), rs.getString(2), rs.getString(3)},
+                    lastId, BACKFILL_BATCH);
+            if (rows.isEmpty()) break;
+            // 페이지 단위로 한 번의 batch INSERT
+            List<Object[]> args = new ArrayList<>();
+            for (Object[] row : rows) {
+                addGramArgs(args, (Long) row[0], (String) row[1], (String) row[2]);
+                lastId = (Long) row[0];
+            }
+            insertGrams(args);
+            total += rows.size();
+        }
+        markReady(true);
+        ready = true;
+        log.info("검색 색인 재생성 완료: 경비 {}건", total);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private boolean readReady() {
+        List<Boolean> rows = jdbcTemplate.queryForList(
+                "SELECT ready FROM expense_search_index_state WHERE id = 1", Boolean.class);
+        return !rows.isEmpty() && Boolean.TRUE.equals(rows.get(0));
+    }
+
+    private void markReady(boolean value) {
+        jdbcTemplate.update("INSERT INTO expense_search_index_state (id, ready, completed_at) VALUES (1, ?, ?) "
+                        + "ON DUPLICATE KEY UPDATE ready = VALUES(ready), completed_at = VALUES(completed_at)",
+                value, value ? LocalDateTime.now() : null);
+    }
+
+    private static boolean tryLock(Connection con) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+            ps.setString(1, REBUILD_LOCK);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private static void unlock(Connection con) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            ps.setString(1, REBUILD_LOCK);
+            ps.execute();
+        }
+    }
+
+    private void insertGrams(Long expenseId, String purpose, String storeName) {
+        List<Object[]> args = new ArrayList<>();
+        addGramArgs(args, expenseId, purpose, storeName);
+        insertGrams(args);
+    }
+
+    private void addGramArgs(List<Object[]> args, Long expenseId, String purpose, String storeName) {
+        for (String gram : grams(purpose)) args.add(new Object[]{ExpenseSearchGram.FIELD_PURPOSE, gram, expenseId});
+        for (String gram : grams(storeName)) args.add(new Object[]{ExpenseSearchGram.FIELD_STORE_NAME, gram, expenseId});
+    }
+
+    private void insertGrams(List<Object[]> args) {
+        if (args.isEmpty()) return;
+        // collation상 같은 gram(대소문자/악센트 차이)은 한 번만 들어가면 된다
+        jdbcTemplate.batchUpdate("INSERT IGNORE INTO expense_search_gram (field, gram, expense_id) VALUES (?, ?, ?)", args);
+    }
+
+    /**
+     * 문자열의 2-gram 집합 (소문자 정규화, 코드포인트 단위)
+     */
+    static Set<String> grams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        if (text == null) return grams;
+        int[] cps = text.toLowerCase(Locale.ROOT).codePoints().toArray();
+        for (int i = 0; i + GRAM <= cps.length; i++) {
+            grams.add(new String(cps, i, GRAM));
+        }
+        return grams;
+    }
+
+    private boolean useIndex(String keyword) {
+        return keyword != null
+                && keyword.codePointCount(0, keyword.length()) >= GRAM
+                && keyword.indexOf('%') < 0 && keyword.indexOf('_') < 0 && keyword.indexOf('\\') < 0;
+    }
+
+    private String fieldOf(String attribute) {
+        return switch (attribute) {
+            case "purpose" -> ExpenseSearchGram.FIELD_PURPOSE;
+            case "storeName" -> ExpenseSearchGram.FIELD_STORE_NAME;
+            default -> throw new IllegalArgumentException("검색 색인이 없는 속성: " + attribute);
+        };
+    }
+}
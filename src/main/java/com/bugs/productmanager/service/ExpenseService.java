@@ -1,37 +1,118 @@
 package com.bugs.productmanager.service;
 
+import com.bugs.productmanager.config.CacheWeigher;
 import com.bugs.productmanager.model.Expense;
+import com.bugs.productmanager.model.ExpenseRow;
 import com.bugs.productmanager.repository.ExpenseRepository;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
-import org.springframework.data.domain.Sort;
+import com.bugs.productmanager.repository.ExpenseRepositoryCustom;
+import jakarta.persistence.EntityManager;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class ExpenseService {
 
     private final ExpenseRepository expenseRepository;
+    private final ExpenseRollupService rollupService;
+    private final ExpenseSearchIndex searchIndex;
+    private final QueryResultCache queryCache;
+    private final ExpenseDimensionIndex dimensionIndex;
+    private final EntityManager entityManager;
 
-    public ExpenseService(ExpenseRepository expenseRepository) {
+    public ExpenseService(ExpenseRepository expenseRepository, ExpenseRollupService rollupService,
+                          ExpenseSearchIndex searchIndex, QueryResultCache queryCache,
+                          ExpenseDimensionIndex dimensionIndex, EntityManager entityManager) {
         this.expenseRepository = expenseRepository;
+        this.rollupService = rollupService;
+        this.searchIndex = searchIndex;
+        this.queryCache = queryCache;
+        this.dimensionIndex = dimensionIndex;
+        this.entityManager = entityManager;
     }
 
-    public List<Expense> findFiltered(String ym, String category, String division) {
-        List<String> divList = (division != null && !division.isEmpty()) ? List.of(division) : List.of();
-        List<String> emptyTeam = List.of();
-        return findFiltered(ym != null && !ym.isEmpty() ? List.of(ym) : List.of(), category, divList, null, null, null, emptyTeam);
+    /**
+     * keyset 페이지 조회: (expenseDate, id) 오름차순으로 cursor 이후 size건
+     */
+    public ExpensePage findPage(List<String> ymValues, String category, List<String> divValues,
+                                String purpose, String storeName,
+                                String department, List<String> teamValues,
+                                String cursor, int size) {
+        QueryResultCache.Key key = QueryResultCache.Key.of("findPage", ymValues, category, divValues,
+                purpose, storeName, department, teamValues, cursor, size);
+        return queryCache.get(QueryResultCache.EXPENSE, key, () -> {
+            Specification<Expense> spec = buildSpec(ymValues, category, divValues, purpose, storeName, department, teamValues);
+            List<ExpenseRow> rows = expenseRepository.findPageAfter(spec, ExpenseRepositoryCustom.Cursor.parse(cursor), size + 1);
+            boolean hasNext = rows.size() > size;
+            List<ExpenseRow> content = List.copyOf(hasNext ? rows.subList(0, size) : rows);
+            String nextCursor = hasNext ? ExpenseRepositoryCustom.Cursor.of(content.get(size - 1)).encode() : null;
+            return new ExpensePage(content, nextCursor, hasNext);
+        });
+    }
+
+    /**
+     * 필터 조건 전체의 합계/건수 (목록 페이지 크기와 무관)
+     */
+    public ExpenseRepositoryCustom.Summary summarize(List<String> ymValues, String category, List<String> divValues,
+                                                     String purpose, String storeName,
+                                                     String department, List<String> teamValues) {
+        QueryResultCache.Key key = QueryResultCache.Key.of("summarize", ymValues, category, divValues,
+                purpose, storeName, department, teamValues);
+        return queryCache.get(QueryResultCache.EXPENSE, key, () -> expenseRepository.summarize(
+                buildSpec(ymValues, category, divValues, purpose, storeName, department, teamValues)));
+    }
+
+    public record ExpensePage(List<ExpenseRow> content, String nextCursor, boolean hasNext) implements CacheWeigher.Sized {
+
+        /** ExpenseRow 한 건: 필드 10개 + Long/LocalDate/BigDecimal + 짧은 문자열 6개(ym, 회사, 구분, 실, 팀, 상호)와 내용 */
+        static final int ROW_BYTES = 640;
+
+        @Override
+        public long estimatedBytes() {
+            return CacheWeigher.OBJECT_HEADER + 3L * CacheWeigher.REFERENCE
+                    + CacheWeigher.listBytes(content.size(), ROW_BYTES) + CacheWeigher.estimate(nextCursor);
+        }
+    }
+
+    /**
+     * 필터 조건 전체를 섹션 키(category, division, department, team) → 날짜 순으로 DB 커서에서 흘려 action 에 넘긴다.
+     * 결과를 List 로 모으지 않으므로 백업/다운로드처럼 건수 제한이 없는 export 에 쓴다.
+     */
+    @Transactional(readOnly = true)
+    public void forEachRowBySection(List<String> ymValues, String category, List<String> divValues,
+                                    String purpose, String storeName,
+                                    String department, List<String> teamValues,
+                                    Consumer<ExpenseRow> action) {
+        try (Stream<ExpenseRow> rows = expenseRepository.streamBySection(
+                buildSpec(ymValues, category, divValues, purpose, storeName, department, teamValues))) {
+            rows.forEach(action);
+        }
+    }
+
+    /**
+     * 최근 경비 limit건 (날짜 내림차순)
+     */
+    public List<ExpenseRow> findRecentRows(List<String> ymValues, String category, List<String> divValues,
+                                           String department, List<String> teamValues, int limit) {
+        return expenseRepository.findRows(
+                buildSpec(ymValues, category, divValues, null, null, department, teamValues), true, limit);
     }
 
-    public List<Expense> findFiltered(List<String> ymValues, String category, List<String> divValues,
-                                       String purpose, String storeName,
-                                       String department, List<String> teamValues) {
+    private Specification<Expense> buildSpec(List<String> ymValues, String category, List<String> divValues,
+                                             String purpose, String storeName,
+                                             String department, List<String> teamValues) {
         Specification<Expense> spec = Specification.where(null);
 
         if (ymValues != null && !ymValues.isEmpty()) {
@@ -41,8 +122,9 @@ public class ExpenseService {
         if (divValues != null && !divValues.isEmpty()) {
             spec = spec.and((r, q, cb) -> r.get("division").in(divValues));
         }
-        if (hasValue(purpose))   spec = spec.and((r, q, cb) -> cb.like(r.get("purpose"), "%" + purpose + "%"));
-        if (hasValue(storeName)) spec = spec.and((r, q, cb) -> cb.like(r.get("storeName"), "%" + storeName + "%"));
+        // 검색어: 2-gram 색인으로 후보 ID를 먼저 좁히고 LIKE로 최종 판정
+        if (hasValue(purpose))   spec = spec.and(searchIndex.contains("purpose", purpose));
+        if (hasValue(storeName)) spec = spec.and(searchIndex.contains("storeName", storeName));
         if (hasValue(department)) spec = spec.and((r, q, cb) -> cb.equal(r.get("department"), department));
         // 팀 다중선택: __DEPT_ONLY__ = 실(자체), 팀명 = 해당 팀만
         if (teamValues != null && !teamValues.isEmpty()) {
@@ -66,109 +148,191 @@ public class ExpenseService {
                 spec = spec.and((r, q, cb) -> r.get("team").in(realTeams));
             }
         }
-
-        return expenseRepository.findAll(spec, Sort.by("expenseDate").ascending());
-    }
-
-    /** 하위호환: 단일 team 문자열 → List 변환 */
-    public List<Expense> findFilteredSingleTeam(List<String> ymValues, String category, List<String> divValues,
-                                       String purpose, String storeName,
-                                       String department, String team) {
-        List<String> teamValues = hasValue(team) ? List.of(team) : List.of();
-        return findFiltered(ymValues, category, divValues, purpose, storeName, department, teamValues);
+        return spec;
     }
 
     private boolean hasValue(String s) {
         return s != null && !s.isEmpty();
     }
 
-    public BigDecimal calcTotalAmount(List<Expense> expenses) {
-        return expenses.stream()
-                .map(Expense::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-    }
-
     public Expense findById(Long id) {
         return expenseRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Invalid expense Id: " + id));
     }
 
-    @CacheEvict(value = {"distinctYm", "distinctCategory", "distinctDivision", "distinctPurpose", "distinctStoreName", "distinctDepartment", "distinctTeam"}, allEntries = true)
+    @Transactional
     public Expense save(Expense expense) {
-        return expenseRepository.save(expense);
+        // 수정인 경우 merge 전에 이전 값을 떠서 집계에서 차감
+        if (expense.getId() != null) {
+            expenseRepository.findById(expense.getId())
+                    .ifPresent(old -> {
+                        rollupService.subtract(ExpenseRollupService.Snapshot.of(old));
+                        dimensionIndex.removed(old);
+                        queryCache.bump(QueryResultCache.EXPENSE, old.getYm(), old.getCategory());
+                    });
+        }
+        Expense saved = expenseRepository.save(expense);
+        rollupService.add(ExpenseRollupService.Snapshot.of(saved));
+        searchIndex.index(saved);
+        dimensionIndex.added(saved);
+        queryCache.bump(QueryResultCache.EXPENSE, saved.getYm(), saved.getCategory());
+        return saved;
     }
 
-    @CacheEvict(value = {"distinctYm", "distinctCategory", "distinctDivision", "distinctPurpose", "distinctStoreName", "distinctDepartment", "distinctTeam"}, allEntries = true)
+    /**
+     * 신규 경비 대량 저장 (엑셀 import). INSERT 는 JDBC batch 로 나가고 집계/검색 색인/필터 값 목록도 묶어서 반영한다.
+     * 호출자 트랜잭션이 길어도 영속성 컨텍스트가 커지지 않도록 flush 후 비운다.
+     */
+    @Transactional
+    public void saveAllNew(List<Expense> expenses) {
+        if (expenses.isEmpty()) return;
+        expenseRepository.saveAll(expenses);
+        entityManager.flush();
+        rollupService.addAll(expenses.stream().map(ExpenseRollupService.Snapshot::of).toList());
+        searchIndex.indexNew(expenses);
+        dimensionIndex.addedAll(expenses);
+        expenses.stream()
+                .map(e -> Arrays.asList(e.getYm(), e.getCategory()))
+                .distinct()
+                .forEach(p -> queryCache.bump(QueryResultCache.EXPENSE, p.get(0), p.get(1)));
+        entityManager.clear();
+    }
+
+    /**
+     * 경비 여러 건 삭제 (재업로드 시 사라진 행 정리). 집계/색인/필터 값 목록도 묶어서 반영한다.
+     */
+    @Transactional
+    public int deleteAllById(Collection<Long> ids) {
+        if (ids.isEmpty()) return 0;
+        List<Expense> rows = expenseRepository.findAllById(ids);
+        rollupService.subtractAll(rows.stream().map(ExpenseRollupService.Snapshot::of).toList());
+        searchIndex.removeAll(rows.stream().map(Expense::getId).toList());
+        dimensionIndex.removedAll(rows);
+        expenseRepository.deleteAllInBatch(rows);
+        rows.stream()
+                .map(e -> Arrays.asList(e.getYm(), e.getCategory()))
+                .distinct()
+                .forEach(p -> queryCache.bump(QueryResultCache.EXPENSE, p.get(0), p.get(1)));
+        return rows.size();
+    }
+
+    /**
+     * 업로드 범위 잠금: 같은 범위를 올리는 다른 import 는 이 트랜잭션이 끝날 때까지 기다린다 (지문을 읽기 전에 호출)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lockImportScope(ExpenseAggregator.BudgetKey scope) {
+        expenseRepository.lockImportScope(scope.ym(), scope.category(), scope.division(),
+                scope.department(), scope.team());
+    }
+
+    /**
+     * 업로드 범위의 기존 행 지문 (재업로드 delta 계산용)
+     */
+    public List<ExpenseRepositoryCustom.Fingerprint> findFingerprints(ExpenseAggregator.BudgetKey scope) {
+        return expenseRepository.findFingerprints(scope.ym(), scope.category(), scope.division(),
+                scope.department(), scope.team());
+    }
+
+    @Transactional
     public void deleteById(Long id) {
-        expenseRepository.deleteById(id);
+        expenseRepository.findById(id).ifPresent(e -> {
+            rollupService.subtract(ExpenseRollupService.Snapshot.of(e));
+            searchIndex.remove(e.getId());
+            dimensionIndex.removed(e);
+            expenseRepository.delete(e);
+            queryCache.bump(QueryResultCache.EXPENSE, e.getYm(), e.getCategory());
+        });
     }
 
     public Expense findByIdOrNull(Long id) {
         return expenseRepository.findById(id).orElse(null);
     }
 
-    @Cacheable("distinctYm")
+    /**
+     * 권한 범위에서 보이는 회사 → 실 → 팀 필터 옵션 (범위별 캐시, ExpenseDimensionIndex 가 유지)
+     */
+    public ExpenseDimensionIndex.FilterOptions findFilterOptions(ExpenseDimensionIndex.Scope scope) {
+        return dimensionIndex.options(scope);
+    }
+
+    /** 필터 드롭다운 값 목록은 ExpenseDimensionIndex 가 증감으로 유지한다 */
     public List<String> findDistinctYm() {
-        return expenseRepository.findDistinctYm();
+        return dimensionIndex.values(ExpenseDimensionIndex.Dimension.YM);
     }
 
-    @Cacheable("distinctCategory")
     public List<String> findDistinctCategory() {
-        return expenseRepository.findDistinctCategory();
+        return dimensionIndex.values(ExpenseDimensionIndex.Dimension.CATEGORY);
     }
 
-    @Cacheable("distinctDivision")
     public List<String> findDistinctDivision() {
-        return expenseRepository.findDistinctDivision();
+        return dimensionIndex.values(ExpenseDimensionIndex.Dimension.DIVISION);
     }
 
-    @Cacheable("distinctPurpose")
     public List<String> findDistinctPurpose() {
-        return expenseRepository.findDistinctPurpose();
+        return dimensionIndex.values(ExpenseDimensionIndex.Dimension.PURPOSE);
     }
 
-    @Cacheable("distinctStoreName")
     public List<String> findDistinctStoreName() {
-        return expenseRepository.findDistinctStoreName();
+        return dimensionIndex.values(ExpenseDimensionIndex.Dimension.STORE_NAME);
     }
 
-    @Cacheable("distinctDepartment")
     public List<String> findDistinctDepartment() {
-        return expenseRepository.findDistinctDepartment();
+        return dimensionIndex.values(ExpenseDimensionIndex.Dimension.DEPARTMENT);
     }
 
-    @Cacheable("distinctTeam")
     public List<String> findDistinctTeam() {
-        return expenseRepository.findDistinctTeam();
+        return dimensionIndex.values(ExpenseDimensionIndex.Dimension.TEAM);
     }
 
     /**
-     * 월별 사용금액 합계 맵 (차트용)
+     * 월별 사용금액 합계 (차트/전년 동월용)
+     * 검색어 조건이 없으면 월별 집계 테이블에서, 있으면 경비 목록에서 계산
      */
-    public Map<String, BigDecimal> calcAmountByYm(List<Expense> expenses) {
-        Map<String, BigDecimal> map = new java.util.LinkedHashMap<>();
-        for (Expense e : expenses) {
-            String ym = e.getYm();
-            map.merge(ym, e.getAmount() != null ? e.getAmount() : BigDecimal.ZERO, BigDecimal::add);
+    public Map<String, BigDecimal> sumAmountByYm(List<String> ymValues, String category, List<String> divValues,
+                                                 String purpose, String storeName,
+                                                 String department, List<String> teamValues) {
+        if (!hasValue(purpose) && !hasValue(storeName)) {
+            QueryResultCache.Key key = QueryResultCache.Key.of("sumAmountByYm", ymValues, category, divValues,
+                    null, null, department, teamValues);
+            return queryCache.get(QueryResultCache.EXPENSE, key, () -> Collections.unmodifiableMap(
+                    rollupService.sumAmountByYm(ymValues, category, divValues, department, teamValues)));
         }
-        return map;
+        return sumAmountGroupedBy("ym", ymValues, category, divValues, purpose, storeName, department, teamValues);
     }
 
     /**
-     * 예산별(ym+category+division+department+team) 사용금액 합계 맵
+     * 카테고리/구분 등 단일 속성별 사용금액 합계 (SQL GROUP BY, 키 오름차순)
      */
-    public Map<String, BigDecimal> calcUsedAmountByBudgetKey(List<Expense> expenses) {
-        Map<String, BigDecimal> map = new HashMap<>();
-        for (Expense e : expenses) {
-            String key = e.getYm() + "_" + e.getCategory() + "_" + e.getDivision()
-                       + "_" + nullSafe(e.getDepartment()) + "_" + nullSafe(e.getTeam());
-            map.merge(key, e.getAmount() != null ? e.getAmount() : BigDecimal.ZERO, BigDecimal::add);
-        }
-        return map;
+    public Map<String, BigDecimal> sumAmountGroupedBy(String attribute,
+                                                      List<String> ymValues, String category, List<String> divValues,
+                                                      String purpose, String storeName,
+                                                      String department, List<String> teamValues) {
+        QueryResultCache.Key key = QueryResultCache.Key.of("sumGroupedBy", ymValues, category, divValues,
+                purpose, storeName, department, teamValues, attribute);
+        return queryCache.get(QueryResultCache.EXPENSE, key, () -> {
+            Specification<Expense> spec = buildSpec(ymValues, category, divValues, purpose, storeName, department, teamValues);
+            Map<String, BigDecimal> map = new LinkedHashMap<>();
+            for (ExpenseRepositoryCustom.GroupSum g : expenseRepository.sumGroupedBy(spec, ExpenseRepositoryCustom.LIST_QUERY_TIMEOUT_MS, attribute)) {
+                map.merge(g.key(0) != null ? g.key(0) : "기타", g.amount(), BigDecimal::add);
+            }
+            return Collections.unmodifiableMap(map);
+        });
     }
 
-    private String nullSafe(String s) {
-        return s != null ? s : "";
+    /**
+     * 필터 조건의 합계/건수/월별/카테고리별/구분별/예산키별 사용금액을 한 번에 집계
+     * 예산키 단위 GROUP BY 한 번 + ExpenseAggregator 단일 패스
+     */
+    public ExpenseAggregator.Result aggregate(List<String> ymValues, String category, List<String> divValues,
+                                              String purpose, String storeName,
+                                              String department, List<String> teamValues) {
+        QueryResultCache.Key key = QueryResultCache.Key.of("aggregate", ymValues, category, divValues,
+                purpose, storeName, department, teamValues);
+        return queryCache.get(QueryResultCache.EXPENSE, key, () -> ExpenseAggregator.ofGroups(
+                expenseRepository.sumGroupedBy(
+                        buildSpec(ymValues, category, divValues, purpose, storeName, department, teamValues),
+                        ExpenseRepositoryCustom.LIST_QUERY_TIMEOUT_MS,
+                        "ym", "category", "division", "department", "team")));
     }
 
     /**
@@ -0,0 +1,364 @@
+package com.bugs.productmanager.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * 생성된 엑셀 export 파일 디스크 캐시
+ * - 키: 정규화된 필터(QueryResultCache.Key) + 경비/예산 데이터 버전 스탬프
+ *   → 관련 파티션에 저장/삭제/업로드가 있으면 스탬프가 바뀌어 이전 파일은 다시 쓰이지 않는다
+ * - 총 파일 크기 한도를 넘으면 가장 오래 쓰이지 않은 파일부터 삭제 (LRU)
+ * - 적중 시 FileChannel.transferTo 로 응답 스트림에 바로 보낸다
+ * - 미스 시 생성 결과를 응답과 임시 파일에 같이 써서 첫 바이트가 늦어지지 않는다
+ * 데이터 버전은 메모리 카운터라 재시작 후에는 이어지지 않으므로, 시작 시 캐시 디렉터리를 비운다.
+ */
+@Component
+public class ExportFileCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportFileCache.class);
+
+    /** export 파일 생성 (캐시 미스 시에만 호출) */
+    @FunctionalInterface
+    public interface Generator {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    private record Entry(String name, Path path, long size) {}
+
+    private final boolean enabled;
+    private final Path dir;
+    private final long maxBytes;
+
+    /** 필터 키 → 파일 (접근 순서, 가장 오래된 것이 앞) */
+    private final LinkedHashMap<QueryResultCache.Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+    /**
+     * 생성 중인 파일 (파일 이름 = 키 + 데이터 버전): 같은 파일을 여러 요청이 동시에 놓치면 첫 요청만 생성하고
+     * 나머지는 그 결과를 기다린다. 다른 키의 생성은 서로 막지 않는다.
+     */
+    private final ConcurrentHashMap<String, CompletableFuture<Entry>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    public ExportFileCache(@Value("${excel.export.cache.enabled:true}") boolean enabled,
+                           @Value("${excel.export.cache.dir:${java.io.tmpdir}/expense-export-cache}") String dir,
+                           @Value("${excel.export.cache.max-size:512MB}") DataSize maxSize) {
+        this.enabled = enabled;
+        this.dir = Path.of(dir);
+        this.maxBytes = maxSize.toBytes();
+        if (enabled) clearDirectory();
+    }
+
+    /**
+     * 캐시된 파일이 있으면 그대로 보내고, 없으면 생성하면서 응답과 임시 파일에 같이 쓴다.
+     * 생성 결과가 maxBytes 를 넘으면 그 시점에 파일 쓰기만 멈추고 응답은 계속 보낸다.
+     */
+    public void serve(QueryResultCache.Key key, List<Long> stamp, Generator generator, OutputStream out) throws IOException {
+        if (!enabled) {
+            generator.writeTo(out);
+            return;
+        }
+        String name = fileName(key, stamp);
+        Entry entry = lookup(key, name);
+        if (entry != null) {
+            hitCount.incrementAndGet();
+            sendOrGenerate(entry, generator, out);
+            return;
+        }
+
+        CompletableFuture<Entry> flight = new CompletableFuture<>();
+        CompletableFuture<Entry> running = inFlight.putIfAbsent(name, flight);
+        if (running != null) {
+            // 다른 요청이 같은 파일을 만드는 중: 캐시할 수 있는 파일이 나올 때만 기다린다
+            entry = await(running);
+            if (entry != null) {
+                hitCount.incrementAndGet();
+                sendOrGenerate(entry, generator, out);
+            } else {
+                missCount.incrementAndGet();
+                generator.writeTo(out);
+            }
+            return;
+        }
+        try {
+            // 앞선 생성이 막 끝나 inFlight 에서 빠진 직후일 수 있다
+            entry = lookup(key, name);
+            if (entry != null) {
+                flight.complete(entry);
+                hitCount.incrementAndGet();
+                sendOrGenerate(entry, generator, out);
+            } else {
+                missCount.incrementAndGet();
+                generate(key, name, generator, out, flight);
+            }
+        } catch (IOException | RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(name, flight);
+        }
+    }
+
+    /**
+     * @return 캐시된 파일, 생성하던 요청이 파일을 남기지 못하면(한도 초과/실패) null
+     */
+    private static Entry await(CompletableFuture<Entry> running) {
+        try {
+            return running.join();
+        } catch (CompletionException | CancellationException e) {
+            return null;
+        }
+    }
+
+    private void sendOrGenerate(Entry entry, Generator generator, OutputStream out) throws IOException {
+        try {
+            transfer(entry, out);
+        } catch (NoSuchFileException e) {
+            // 열기 직전에 LRU 로 밀려난 경우. 아직 보낸 바이트가 없으므로 새로 생성해 보낸다
+            generator.writeTo(out);
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    public synchronized int getFileCount() {
+        return entries.size();
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    private synchronized Entry lookup(QueryResultCache.Key key, String name) {
+        Entry entry = entries.get(key);
+        if (entry == null) return null;
+        if (entry.name().equals(name) && Files.exists(entry.path())) return entry;
+        // 데이터 버전이 바뀌었거나 파일이 사라짐 → 이전 파일 정리
+        remove(key);
+        return null;
+    }
+
+    /**
+     * 응답과 임시 파일에 같이 쓰고, 끝까지 한도 안이면 캐시에 올린다.
+     * 한도를 넘는 순간 임시 파일을 버리고 flight 를 null 로 끝내 기다리던 요청이 바로 각자 생성하게 한다.
+     */
+    private void generate(QueryResultCache.Key key, String name, Generator generator, OutputStream out,
+                          CompletableFuture<Entry> flight) throws IOException {
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, "export-", ".tmp");
+        TeeOutputStream tee = new TeeOutputStream(out, Files.newOutputStream(tmp), tmp, flight);
+        try {
+            generator.writeTo(tee);
+            out.flush();
+            if (!tee.finishFile()) return;
+            Path path = dir.resolve(name + ".xlsx");
+            try {
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                // 응답은 이미 다 보냈으므로 캐시에만 남기지 않는다
+                log.warn("export 캐시 파일 저장 실패: {}", path, e);
+                return;
+            }
+            Entry entry = new Entry(name, path, tee.fileBytes);
+            put(key, entry);
+            flight.complete(entry);
+        } finally {
+            tee.abandonFile();
+        }
+    }
+
+    /**
+     * 응답 스트림에 쓰면서 maxBytes 까지 임시 파일에도 쓴다. 파일 쓰기 실패/한도 초과는 응답에 영향을 주지 않는다.
+     */
+    private final class TeeOutputStream extends OutputStream {
+        private final OutputStream response;
+        private final Path tmp;
+        private final CompletableFuture<Entry> flight;
+        private OutputStream file;
+        private long fileBytes;
+
+        TeeOutputStream(OutputStream response, OutputStream file, Path tmp, CompletableFuture<Entry> flight) {
+            this.response = response;
+            this.file = file;
+            this.tmp = tmp;
+            this.flight = flight;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            response.write(b);
+            if (file == null) return;
+            if (fileBytes + 1 > maxBytes) {
+                tooLarge();
+                return;
+            }
+            try {
+                file.write(b);
+                fileBytes++;
+            } catch (IOException e) {
+                fileFailed(e);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            response.write(b, off, len);
+            if (file == null) return;
+            if (fileBytes + len > maxBytes) {
+                tooLarge();
+                return;
+            }
+            try {
+                file.write(b, off, len);
+                fileBytes += len;
+            } catch (IOException e) {
+                fileFailed(e);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            response.flush();
+        }
+
+        /**
+         * @return 임시 파일이 끝까지 남았으면 true (닫힌 상태)
+         */
+        boolean finishFile() {
+            if (file == null) return false;
+            try {
+                file.close();
+                file = null;
+                return true;
+            } catch (IOException e) {
+                fileFailed(e);
+                return false;
+            }
+        }
+
+        /** 캐시에 올리지 못한 임시 파일 정리 (옮긴 뒤에는 지울 파일이 없다) */
+        void abandonFile() {
+            if (file != null) {
+                try {
+                    file.close();
+                } catch (IOException ignored) {
+                    // 지울 파일
+                }
+                file = null;
+            }
+            delete(tmp);
+            flight.complete(null);
+        }
+
+        private void tooLarge() {
+            log.info("export 파일이 캐시 한도({} bytes)보다 커서 저장하지 않습니다", maxBytes);
+            abandonFile();
+        }
+
+        private void fileFailed(IOException e) {
+            log.warn("export 캐시 파일 쓰기 실패, 캐시 없이 계속 보냅니다: {}", tmp, e);
+            abandonFile();
+        }
+    }
+
+    private synchronized void put(QueryResultCache.Key key, Entry entry) {
+        remove(key);
+        entries.put(key, entry);
+        totalBytes += entry.size();
+        Iterator<Map.Entry<QueryResultCache.Key, Entry>> it = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            Map.Entry<QueryResultCache.Key, Entry> eldest = it.next();
+            if (eldest.getKey().equals(key)) continue;
+            it.remove();
+            totalBytes -= eldest.getValue().size();
+            evictionCount.incrementAndGet();
+            delete(eldest.getValue().path());
+        }
+    }
+
+    private void remove(QueryResultCache.Key key) {
+        Entry old = entries.remove(key);
+        if (old != null) {
+            totalBytes -= old.size();
+            delete(old.path());
+        }
+    }
+
+    /**
+     * 응답 스트림으로 파일 전송. 전송 중에 파일이 교체/삭제돼도 이미 연 채널은 끝까지 읽힌다 (POSIX).
+     */
+    private void transfer(Entry entry, OutputStream out) throws IOException {
+        WritableByteChannel target = Channels.newChannel(out);
+        try (FileChannel channel = FileChannel.open(entry.path(), StandardOpenOption.READ)) {
+            long position = 0;
+            long size = channel.size();
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+        }
+        out.flush();
+    }
+
+    private void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("export 캐시 파일 삭제 실패: {}", path, e);
+        }
+    }
+
+    private void clearDirectory() {
+        if (!Files.isDirectory(dir)) return;
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(Files::isRegularFile).forEach(this::delete);
+        } catch (IOException e) {
+            log.warn("export 캐시 디렉터리 정리 실패: {}", dir, e);
+        }
+    }
+
+    private static String fileName(QueryResultCache.Key key, List<Long> stamp) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] hash = md.digest((key + "#" + stamp).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
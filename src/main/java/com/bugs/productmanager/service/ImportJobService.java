@@ -0,0 +1,211 @@
+package com.bugs.productmanager.service;
+
+import com.bugs.productmanager.model.ImportJob;
+import com.bugs.productmanager.repository.ImportJobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 엑셀 업로드 비동기 처리
+ * - 업로드 파일은 spool 디렉터리에 저장하고 작업 ID 를 바로 돌려준다
+ * - importJobExecutor 워커가 ExcelService.importExcel 을 실행하고, 진행 건수는 메모리에서 집계해 상태 조회에 합친다
+ * - 작업에는 받은 노드(owner_node)를 기록한다. spool 파일이 그 노드 디스크에 있으므로 실행/복구는 그 노드만 한다
+ * - 워커는 조건부 UPDATE(QUEUED → RUNNING)로 작업을 가져가므로 같은 작업을 두 번 실행하지 않는다
+ * - 서버 재시작 시 이 노드의 QUEUED/RUNNING 작업은 spool 파일이 있으면 다시 큐에 넣고, 없으면 실패로 기록한다
+ *   (import 는 한 트랜잭션이고 이미 있는 행은 지문으로 건너뛰므로 다시 실행해도 중복 저장되지 않는다)
+ */
+@Service
+public class ImportJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportJobService.class);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final ImportJobRepository jobRepository;
+    private final ExcelService excelService;
+    private final TaskExecutor executor;
+    private final Path spoolDir;
+    private final String nodeId;
+
+    /** 실행 중인 작업의 진행 건수 (작업 ID → 카운터) */
+    private final Map<String, Progress> running = new ConcurrentHashMap<>();
+
+    public ImportJobService(ImportJobRepository jobRepository, ExcelService excelService,
+                            @Qualifier("importJobExecutor") TaskExecutor executor,
+                            @Value("${excel.import.spool-dir:${java.io.tmpdir}/expense-import-spool}") String spoolDir,
+                            @Value("${excel.import.node-id:}") String nodeId) {
+        this.jobRepository = jobRepository;
+        this.excelService = excelService;
+        this.executor = executor;
+        this.spoolDir = Path.of(spoolDir);
+        this.nodeId = nodeId.isBlank() ? hostName() : nodeId;
+    }
+
+    /** 재시작해도 같은 값이어야 자기 작업을 복구할 수 있으므로 기본값은 호스트 이름 */
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException("호스트 이름을 알 수 없습니다. excel.import.node-id 를 지정해주세요.", e);
+        }
+    }
+
+    /**
+     * 작업 상태 조회 응답. 실행 중이면 rowsParsed/rowsPersisted 는 실시간 값이다.
+     * rowsPersisted 는 DB 로 보낸 건수이며 작업이 끝나 커밋되기 전까지는 다른 화면에 보이지 않는다.
+     */
+    public record JobStatus(String id, ImportJob.Phase phase, String fileName,
+                            int rowsParsed, int rowsPersisted, int budgetCount, int expenseCount,
+                            int insertedCount, int skippedCount, int removedCount, String error, LocalDateTime createdAt, LocalDateTime finishedAt) {
+
+        static JobStatus of(ImportJob job, Progress live) {
+            return new JobStatus(job.getId(), job.getPhase(), job.getFileName(),
+                    live != null ? live.parsed.get() : job.getRowsParsed(),
+                    live != null ? live.persisted.get() : job.getRowsPersisted(),
+                    job.getBudgetCount(), job.getExpenseCount(),
+                    job.getInsertedCount(), job.getSkippedCount(), job.getRemovedCount(),
+                    job.getErrorMessage(), job.getCreatedAt(), job.getFinishedAt());
+        }
+    }
+
+    private static final class Progress implements ExcelService.ImportListener {
+        final AtomicInteger parsed = new AtomicInteger();
+        final AtomicInteger persisted = new AtomicInteger();
+
+        @Override
+        public void rowParsed() {
+            parsed.incrementAndGet();
+        }
+
+        @Override
+        public void rowsPersisted(int count) {
+            persisted.addAndGet(count);
+        }
+    }
+
+    public ImportJob submit(MultipartFile file, String ym, String department, String team,
+                            boolean replaceMissing, String username) throws IOException {
+        excelService.checkFileSize(file.getSize());
+
+        String id = UUID.randomUUID().toString();
+        Files.createDirectories(spoolDir);
+        Path spool = spoolDir.resolve(id + ".upload");
+        file.transferTo(spool);
+
+        ImportJob job = new ImportJob();
+        job.setId(id);
+        job.setUsername(username);
+        job.setOwnerNode(nodeId);
+        job.setFileName(file.getOriginalFilename());
+        job.setSpoolPath(spool.toString());
+        job.setYm(ym);
+        job.setDepartment(department);
+        job.setTeam(team);
+        job.setReplaceMissing(replaceMissing);
+        job.setPhase(ImportJob.Phase.QUEUED);
+        job = jobRepository.save(job);
+
+        enqueue(job);
+        return job;
+    }
+
+    public Optional<JobStatus> status(String id) {
+        return jobRepository.findById(id).map(job -> JobStatus.of(job, running.get(id)));
+    }
+
+    public Optional<ImportJob> findById(String id) {
+        return jobRepository.findById(id);
+    }
+
+    /**
+     * 서버 시작 시 이 노드의 미완료 작업 복구 (다른 노드가 실행 중인 작업은 건드리지 않는다)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        for (ImportJob job : jobRepository.findRecoverable(
+                EnumSet.of(ImportJob.Phase.QUEUED, ImportJob.Phase.RUNNING), nodeId)) {
+            boolean spooled = job.getSpoolPath() != null && Files.exists(Path.of(job.getSpoolPath()));
+            // 받은 노드가 없는 이전 작업은 spool 파일을 가진 노드만 가져간다
+            if (job.getOwnerNode() == null && !spooled) continue;
+            if (jobRepository.requeue(job.getId(), nodeId) == 0) continue;
+            job = jobRepository.findById(job.getId()).orElseThrow();
+            if (spooled) {
+                log.info("미완료 업로드 작업 재실행: {} ({})", job.getId(), job.getFileName());
+                enqueue(job);
+            } else {
+                log.warn("업로드 파일이 없어 작업을 실패 처리: {} ({})", job.getId(), job.getFileName());
+                finish(job, ImportJob.Phase.FAILED, "서버 재시작으로 작업이 중단되었습니다. 다시 업로드해주세요.");
+            }
+        }
+    }
+
+    private void enqueue(ImportJob job) {
+        try {
+            executor.execute(() -> run(job.getId()));
+        } catch (TaskRejectedException e) {
+            finish(job, ImportJob.Phase.FAILED, "대기 중인 업로드가 너무 많습니다. 잠시 후 다시 시도해주세요.");
+        }
+    }
+
+    private void run(String id) {
+        if (jobRepository.claim(id, nodeId) == 0) return;
+        ImportJob job = jobRepository.findById(id).orElse(null);
+        if (job == null) return;
+
+        Progress progress = new Progress();
+        running.put(id, progress);
+        try {
+            ExcelService.UploadResult result = excelService.importExcel(Path.of(job.getSpoolPath()),
+                    job.getYm(), job.getDepartment(), job.getTeam(), job.isReplaceMissing(), progress);
+            job.setBudgetCount(result.budgetCount());
+            job.setExpenseCount(result.expenseCount());
+            job.setInsertedCount(result.insertedCount());
+            job.setSkippedCount(result.skippedCount());
+            job.setRemovedCount(result.removedCount());
+            job.setRowsParsed(progress.parsed.get());
+            job.setRowsPersisted(progress.persisted.get());
+            finish(job, ImportJob.Phase.DONE, null);
+        } catch (Exception e) {
+            log.warn("업로드 작업 실패: {} ({})", id, job.getFileName(), e);
+            // 트랜잭션이 롤백되었으므로 저장된 건수는 0
+            job.setRowsParsed(progress.parsed.get());
+            job.setRowsPersisted(0);
+            finish(job, ImportJob.Phase.FAILED, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        } finally {
+            running.remove(id);
+        }
+    }
+
+    private void finish(ImportJob job, ImportJob.Phase phase, String error) {
+        job.setPhase(phase);
+        job.setErrorMessage(error != null && error.length() > MAX_ERROR_LENGTH
+                ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        job.setFinishedAt(LocalDateTime.now());
+        jobRepository.save(job);
+        try {
+            if (job.getSpoolPath() != null) Files.deleteIfExists(Path.of(job.getSpoolPath()));
+        } catch (IOException e) {
+            log.warn("업로드 spool 파일 삭제 실패: {}", job.getSpoolPath(), e);
+        }
+    }
+}
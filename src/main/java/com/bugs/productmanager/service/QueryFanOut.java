@@ -0,0 +1,103 @@
+package com.bugs.productmanager.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * 한 요청 안의 서로 독립적인 조회를 병렬로 실행하고 모아서 기다린다.
+ * - expense.list.parallel.enabled=false 이면 호출 스레드에서 순차 실행
+ * - 분기별 소요 시간은 query.fanout.branch 타이머(request, branch 태그)로 기록
+ * - 각 분기는 리포지토리/서비스의 읽기 전용 트랜잭션을 별도 스레드에서 열기 때문에 커넥션도 분기마다 따로 잡는다
+ *   (open-in-view=false 이므로 기다리는 요청 스레드는 커넥션을 잡고 있지 않다)
+ */
+@Component
+public class QueryFanOut {
+
+    private final Executor executor;
+    private final MeterRegistry meterRegistry;
+    private final QueryStats queryStats;
+    private final boolean enabled;
+    private final long timeoutMs;
+
+    public QueryFanOut(@Qualifier("listQueryExecutor") Executor executor,
+                       MeterRegistry meterRegistry,
+                       QueryStats queryStats,
+                       @Value("${expense.list.parallel.enabled:true}") boolean enabled,
+                       @Value("${expense.list.parallel.timeout-ms:10000}") long timeoutMs) {
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.queryStats = queryStats;
+        this.enabled = enabled;
+        this.timeoutMs = timeoutMs;
+    }
+
+    public Scope open(String requestName) {
+        return new Scope(requestName);
+    }
+
+    public final class Scope {
+
+        private final String requestName;
+        private final List<CompletableFuture<?>> futures = new ArrayList<>();
+
+        private Scope(String requestName) {
+            this.requestName = requestName;
+        }
+
+        public <T> CompletableFuture<T> fork(String branch, Supplier<T> task) {
+            Supplier<T> timed = () -> {
+                Timer.Sample sample = Timer.start(meterRegistry);
+                try {
+                    return task.get();
+                } finally {
+                    sample.stop(meterRegistry.timer("query.fanout.branch", "request", requestName, "branch", branch));
+                }
+            };
+            CompletableFuture<T> future;
+            if (enabled) {
+                // 분기 스레드의 SQL 수/구간 시간도 요청에 합산
+                future = CompletableFuture.supplyAsync(RequestTiming.propagate(queryStats.propagate(timed)), executor);
+            } else {
+                try {
+                    future = CompletableFuture.completedFuture(timed.get());
+                } catch (RuntimeException e) {
+                    future = CompletableFuture.failedFuture(e);
+                }
+            }
+            futures.add(future);
+            return future;
+        }
+
+        /**
+         * 지금까지 fork한 분기를 모두 기다린다. 제한 시간을 넘기면 예외를 던진다.
+         * cancel 은 아직 시작하지 않은 분기만 건너뛰게 할 뿐 실행 중인 분기를 인터럽트하지 않는다.
+         * 실행 중인 쿼리는 목록용 쿼리 제한 시간(ExpenseRepositoryCustom.LIST_QUERY_TIMEOUT_MS)으로 끝나고 커넥션을 반납한다.
+         */
+        public void join() {
+            CompletableFuture<Void> all = CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+            try {
+                all.get(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                futures.forEach(f -> f.cancel(true));
+                meterRegistry.counter("query.fanout.timeout", "request", requestName).increment();
+                throw new IllegalStateException("조회 시간이 초과되었습니다 (" + timeoutMs + "ms)", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                throw new IllegalStateException("조회가 중단되었습니다", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException re) throw re;
+                throw new IllegalStateException(cause);
+            }
+        }
+    }
+}
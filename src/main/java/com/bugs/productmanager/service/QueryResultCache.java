@@ -0,0 +1,203 @@
+package com.bugs.productmanager.service;
+
+import com.bugs.productmanager.config.CacheWeigher;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 필터 조회 결과 캐시 (expenseQuery / budgetQuery)
+ * - 키: 정규화된 필터 (리스트는 정렬/중복 제거, 빈 문자열은 null)
+ * - 값: 결과 + 조회 시점의 데이터 버전 스탬프
+ * - 데이터 버전은 (테이블, ym, category) 파티션 단위로 관리하고 저장/삭제/업로드 시 해당 파티션만 올린다
+ *   → 다른 월/회사 조회 결과는 그대로 유효, 캐시 전체를 비우지 않는다
+ * ym/category 조건이 없는 조회는 와일드카드(*) 파티션 버전을 스탬프로 쓴다 (모든 변경에 같이 증가).
+ * 커밋된 변경 파티션은 PartitionsChangedEvent 로 알려 다른 노드에도 전파한다 (ClusterCacheInvalidator).
+ */
+@Component
+public class QueryResultCache {
+
+    public static final String EXPENSE = "expense";
+    public static final String BUDGET = "budget";
+
+    private static final String ANY = "*";
+
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public QueryResultCache(CacheManager cacheManager, ApplicationEventPublisher eventPublisher) {
+        this.cacheManager = cacheManager;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /** 변경된 (테이블, ym, category) 파티션 */
+    public record Partition(String table, String ym, String category) {}
+
+    /** 이 노드에서 커밋된 변경 파티션 (트랜잭션 하나 또는 트랜잭션 밖 변경 하나 단위) */
+    public record PartitionsChangedEvent(Set<Partition> partitions) {}
+
+    /**
+     * 정규화된 조회 키
+     */
+    public record Key(String op, List<String> ymValues, String category, List<String> divValues,
+                      String purpose, String storeName, String department, List<String> teamValues,
+                      String extra) implements CacheWeigher.Sized {
+
+        public static Key of(String op, List<String> ymValues, String category, List<String> divValues,
+                             String purpose, String storeName, String department, List<String> teamValues,
+                             Object... extra) {
+            return new Key(op, sorted(ymValues), blankToNull(category), sorted(divValues),
+                    blankToNull(purpose), blankToNull(storeName), blankToNull(department), sorted(teamValues),
+                    extra.length == 0 ? null : Arrays.toString(extra));
+        }
+
+        private static List<String> sorted(List<String> values) {
+            if (values == null || values.isEmpty()) return List.of();
+            return values.stream().filter(Objects::nonNull).distinct().sorted().toList();
+        }
+
+        private static String blankToNull(String s) {
+            return s == null || s.isEmpty() ? null : s;
+        }
+
+        @Override
+        public long estimatedBytes() {
+            return CacheWeigher.OBJECT_HEADER + 9L * CacheWeigher.REFERENCE + CacheWeigher.estimate(op)
+                    + CacheWeigher.estimate(ymValues) + CacheWeigher.estimate(category)
+                    + CacheWeigher.estimate(divValues) + CacheWeigher.estimate(purpose)
+                    + CacheWeigher.estimate(storeName) + CacheWeigher.estimate(department)
+                    + CacheWeigher.estimate(teamValues) + CacheWeigher.estimate(extra);
+        }
+    }
+
+    private record Stamped(List<Long> stamp, Object value) implements CacheWeigher.Sized {
+        @Override
+        public long estimatedBytes() {
+            return 16 + 8 + 24 + stamp.size() * 28L + CacheWeigher.estimate(value);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(String table, Key key, Supplier<T> loader) {
+        Cache cache = cacheManager.getCache(cacheName(table));
+        // 스탬프는 조회 전에 떠 둔다 → 조회 중 변경이 있으면 다음 요청에서 불일치로 다시 조회
+        List<Long> stamp;
+        RequestTiming.Span lookup = RequestTiming.span(RequestTiming.Phase.CACHE);
+        try {
+            stamp = stamp(table, key);
+            if (cache != null) {
+                Stamped hit = cache.get(key, Stamped.class);
+                if (hit != null && hit.stamp().equals(stamp)) {
+                    return (T) hit.value();
+                }
+            }
+        } finally {
+            lookup.close();
+        }
+        T value = loader.get();
+        if (cache != null) {
+            RequestTiming.Span store = RequestTiming.span(RequestTiming.Phase.CACHE);
+            try {
+                cache.put(key, new Stamped(stamp, value));
+            } finally {
+                store.close();
+            }
+        }
+        return value;
+    }
+
+    /**
+     * (ym, category) 파티션 변경 표시. 트랜잭션 안이면 모아 두었다가 커밋 후에 한 번에 올린다.
+     */
+    public void bump(String table, String ym, String category) {
+        Partition partition = new Partition(table, ym, category);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            increment(table, ym, category);
+            eventPublisher.publishEvent(new PartitionsChangedEvent(Set.of(partition)));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<Partition> pending = (Set<Partition>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<Partition> collected = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, collected);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void suspend() {
+                    TransactionSynchronizationManager.unbindResource(QueryResultCache.this);
+                }
+
+                @Override
+                public void resume() {
+                    TransactionSynchronizationManager.bindResource(QueryResultCache.this, collected);
+                }
+
+                @Override
+                public void afterCommit() {
+                    collected.forEach(p -> increment(p.table(), p.ym(), p.category()));
+                    eventPublisher.publishEvent(new PartitionsChangedEvent(Set.copyOf(collected)));
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(QueryResultCache.this);
+                }
+            });
+            pending = collected;
+        }
+        pending.add(partition);
+    }
+
+    /**
+     * 다른 노드에서 커밋된 변경 반영 (다시 전파하지 않는다)
+     */
+    public void applyRemote(Collection<Partition> partitions) {
+        partitions.forEach(p -> increment(p.table(), p.ym(), p.category()));
+    }
+
+    private void increment(String table, String ym, String category) {
+        String y = ym != null ? ym : ANY;
+        String c = category != null ? category : ANY;
+        counter(table, y, c).incrementAndGet();
+        counter(table, y, ANY).incrementAndGet();
+        counter(table, ANY, c).incrementAndGet();
+        counter(table, ANY, ANY).incrementAndGet();
+    }
+
+    /**
+     * 키가 보는 파티션들의 현재 데이터 버전. 다른 캐시(export 파일 등)도 같은 스탬프로 유효성을 판단한다.
+     * 읽기만 하고 카운터를 만들지 않는다 (요청 파라미터로 맵이 커지지 않도록, 변경된 적 없는 파티션은 0).
+     */
+    public List<Long> stamp(String table, Key key) {
+        List<String> yms = key.ymValues().isEmpty() ? List.of(ANY) : key.ymValues();
+        String c = key.category() != null ? key.category() : ANY;
+        List<Long> stamp = new ArrayList<>(yms.size());
+        for (String ym : yms) {
+            AtomicLong version = versions.get(versionKey(table, ym, c));
+            stamp.add(version != null ? version.get() : 0L);
+        }
+        return stamp;
+    }
+
+    /** 카운터는 실제 변경(increment)에서만 만든다 */
+    private AtomicLong counter(String table, String ym, String category) {
+        return versions.computeIfAbsent(versionKey(table, ym, category), k -> new AtomicLong());
+    }
+
+    private static String versionKey(String table, String ym, String category) {
+        return table + "|" + ym + "|" + category;
+    }
+
+    private String cacheName(String table) {
+        return table + "Query";
+    }
+}
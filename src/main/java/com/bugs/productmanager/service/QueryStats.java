@@ -0,0 +1,221 @@
+package com.bugs.productmanager.service;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * JDBC 실행 단위 쿼리 통계 (show-sql 로그 대체)
+ * - DataSourceProxyPostProcessor 가 DataSource 를 datasource-proxy 로 감싸고 listener() 를 등록한다
+ * - 실행된 SQL(바인딩 전, ? 자리표시자 = 필터 조합 모양)을 키로 실행 수/평균/최대 시간을 모은다
+ *   → 같은 실행의 SQL 과 시간이 한 콜백에 같이 오므로 사이에 다른 문이 준비돼도 섞이지 않는다
+ * - slow-ms 이상 걸린 실행은 최근 slow-log-size 건을 링 버퍼에 남긴다
+ * - 요청 단위로 JDBC 실행 수(batch 는 1회)를 세고 request-limit 을 넘으면 경고 로그
+ */
+@Component
+public class QueryStats {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryStats.class);
+
+    private final long slowMs;
+    private final int slowLogSize;
+    private final int requestLimit;
+    private final int maxQueries;
+
+    /** 최근 느린 쿼리 (오래된 것부터 밀려남) */
+    private final Deque<SlowQuery> slowQueries = new ArrayDeque<>();
+    /** SQL → 누적 (maxQueries 종류까지, 넘으면 새 SQL 은 건너뛴다) */
+    private final Map<String, Totals> queries = new ConcurrentHashMap<>();
+    private final ThreadLocal<RequestScope> currentRequest = new ThreadLocal<>();
+
+    private final AtomicLong slowCount = new AtomicLong();
+    private final AtomicLong limitExceededCount = new AtomicLong();
+
+    public QueryStats(@Value("${app.query.slow-ms:200}") long slowMs,
+                      @Value("${app.query.slow-log-size:50}") int slowLogSize,
+                      @Value("${app.query.request-limit:30}") int requestLimit,
+                      @Value("${app.query.max-queries:1000}") int maxQueries) {
+        this.slowMs = slowMs;
+        this.slowLogSize = slowLogSize;
+        this.requestLimit = requestLimit;
+        this.maxQueries = maxQueries;
+    }
+
+    public record SlowQuery(LocalDateTime executedAt, String request, String query, long millis) {}
+
+    /** 모니터 표시용 SQL 별 누적 (ms) */
+    public record QueryRow(String query, long count, long avg, long max, long totalMs) {}
+
+    private static final class Totals {
+        final LongAdder count = new LongAdder();
+        final LongAdder totalMs = new LongAdder();
+        final AtomicLong maxMs = new AtomicLong();
+
+        void add(long millis) {
+            count.increment();
+            totalMs.add(millis);
+            maxMs.accumulateAndGet(millis, Math::max);
+        }
+    }
+
+    /** 요청 하나에서 실행된 SQL 문 수 (QueryFanOut 분기 스레드도 같은 객체를 센다) */
+    public static final class RequestScope {
+        private final String name;
+        private final AtomicInteger statements = new AtomicInteger();
+
+        private RequestScope(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getStatementCount() {
+            return statements.get();
+        }
+    }
+
+    // ===== 요청 범위 =====
+
+    public void beginRequest(String name) {
+        currentRequest.set(new RequestScope(name));
+    }
+
+    /**
+     * 요청 종료: 실행한 SQL 문 수가 한도를 넘으면 경고 로그 (N+1 등)
+     */
+    public void endRequest() {
+        RequestScope scope = currentRequest.get();
+        currentRequest.remove();
+        if (scope == null || requestLimit <= 0) return;
+        int count = scope.getStatementCount();
+        if (count > requestLimit) {
+            limitExceededCount.incrementAndGet();
+            log.warn("요청 {} 에서 SQL {}건 실행 (한도 {}건)", scope.getName(), count, requestLimit);
+        }
+    }
+
+    /**
+     * 다른 스레드에서 실행하는 작업도 호출한 요청의 SQL 문 수에 합산되도록 감싼다.
+     */
+    public <T> Supplier<T> propagate(Supplier<T> task) {
+        RequestScope scope = currentRequest.get();
+        if (scope == null) return task;
+        return () -> {
+            RequestScope previous = currentRequest.get();
+            currentRequest.set(scope);
+            try {
+                return task.get();
+            } finally {
+                if (previous != null) currentRequest.set(previous);
+                else currentRequest.remove();
+            }
+        };
+    }
+
+    // ===== JDBC 연동 =====
+
+    public QueryExecutionListener listener() {
+        return new QueryExecutionListener() {
+            @Override
+            public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            }
+
+            @Override
+            public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                onExecuted(key(queryInfoList), execInfo.getElapsedTime());
+            }
+        };
+    }
+
+    /**
+     * Statement batch 처럼 한 번에 여러 SQL 이 실행되면 서로 다른 SQL 을 ; 로 이어 키로 쓴다
+     */
+    private static String key(List<QueryInfo> queryInfoList) {
+        if (queryInfoList.size() == 1) return normalize(queryInfoList.get(0).getQuery());
+        return queryInfoList.stream()
+                .map(q -> normalize(q.getQuery()))
+                .distinct()
+                .collect(Collectors.joining("; "));
+    }
+
+    private void onExecuted(String key, long millis) {
+        RequestScope scope = currentRequest.get();
+        if (scope != null) scope.statements.incrementAndGet();
+
+        Totals totals = queries.get(key);
+        if (totals == null && queries.size() < maxQueries) totals = queries.computeIfAbsent(key, k -> new Totals());
+        if (totals != null) totals.add(millis);
+
+        if (millis >= slowMs) {
+            slowCount.incrementAndGet();
+            SlowQuery slow = new SlowQuery(LocalDateTime.now(), scope != null ? scope.getName() : "-", key, millis);
+            synchronized (slowQueries) {
+                slowQueries.addLast(slow);
+                while (slowQueries.size() > slowLogSize) slowQueries.removeFirst();
+            }
+        }
+    }
+
+    private static String normalize(String sql) {
+        return sql.replaceAll("\\s+", " ").trim();
+    }
+
+    // ===== 조회 =====
+
+    /**
+     * SQL 별 누적 (총 소요 시간 순 상위 limit 건)
+     */
+    public List<QueryRow> getTopQueries(int limit) {
+        List<QueryRow> rows = new ArrayList<>();
+        queries.forEach((query, t) -> {
+            long count = t.count.sum();
+            long total = t.totalMs.sum();
+            rows.add(new QueryRow(query, count, count > 0 ? total / count : 0, t.maxMs.get(), total));
+        });
+        rows.sort(Comparator.comparingLong(QueryRow::totalMs).reversed());
+        return rows.size() > limit ? rows.subList(0, limit) : rows;
+    }
+
+    /**
+     * 링 버퍼의 느린 쿼리 (느린 순)
+     */
+    public List<SlowQuery> getSlowQueries() {
+        List<SlowQuery> list;
+        synchronized (slowQueries) {
+            list = new ArrayList<>(slowQueries);
+        }
+        list.sort(Comparator.comparingLong(SlowQuery::millis).reversed());
+        return list;
+    }
+
+    public long getSlowMs() {
+        return slowMs;
+    }
+
+    public long getSlowCount() {
+        return slowCount.get();
+    }
+
+    public int getRequestLimit() {
+        return requestLimit;
+    }
+
+    public long getLimitExceededCount() {
+        return limitExceededCount.get();
+    }
+}
@@ -0,0 +1,186 @@
+package com.bugs.productmanager.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 컨트롤러 메서드별 응답 시간 (Micrometer Timer: app.requests)
+ * - 태그: uri(매핑 템플릿), handler(컨트롤러#메서드), role, outcome
+ * - p50/p95/p99 는 Micrometer 의 시간 창 히스토그램(최근 window 동안)으로 계산한다
+ * - 처리량은 초 단위 버킷 링으로 최근 window 동안의 요청 수를 센다
+ * 구간별 시간 (Micrometer Timer: app.request.phase, RequestTiming 측정값)
+ * - 태그: uri, handler, phase(db/agg/cache/render/other/total), 엔드포인트별 평균을 /monitor 에 표시
+ */
+@Component
+public class RequestMetrics {
+
+    public static final String TIMER_NAME = "app.requests";
+    public static final String PHASE_TIMER_NAME = "app.request.phase";
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+    private final MeterRegistry registry;
+    private final Duration window;
+    private final Map<Key, Series> series = new ConcurrentHashMap<>();
+    private final Map<Endpoint, PhaseSeries> phaseSeries = new ConcurrentHashMap<>();
+
+    public RequestMetrics(MeterRegistry registry,
+                          @Value("${app.metrics.request-window:1m}") Duration window) {
+        this.registry = registry;
+        this.window = window;
+    }
+
+    public record Key(String uri, String handler, String role, String outcome) {}
+
+    /** 모니터 표시용 한 줄 (시간 단위 ms) */
+    public record Row(String uri, String handler, String role, String outcome,
+                      long windowCount, double throughputPerSec,
+                      double p50, double p95, double p99, double max, long totalCount) {}
+
+    public record Endpoint(String uri, String handler) {}
+
+    /**
+     * 모니터 표시용 구간별 평균 (ms, 앱 시작 이후 누적)
+     * phases 키: db/agg/cache/render/other (other = 전체 - 측정 구간 합, 병렬 분기 합산으로 음수면 0)
+     */
+    public record PhaseRow(String uri, String handler, long count, double totalMs, Map<String, Double> phases) {}
+
+    /** 엔드포인트 하나의 구간별 Timer */
+    private final class PhaseSeries {
+        final Timer total;
+        final Timer other;
+        final Map<RequestTiming.Phase, Timer> phases = new EnumMap<>(RequestTiming.Phase.class);
+
+        PhaseSeries(Endpoint endpoint) {
+            this.total = phaseTimer(endpoint, "total");
+            this.other = phaseTimer(endpoint, "other");
+            for (RequestTiming.Phase phase : RequestTiming.Phase.values()) {
+                phases.put(phase, phaseTimer(endpoint, phase.metricName()));
+            }
+        }
+
+        private Timer phaseTimer(Endpoint endpoint, String phase) {
+            return Timer.builder(PHASE_TIMER_NAME)
+                    .description("요청 구간별 소요 시간")
+                    .tags("uri", endpoint.uri(), "handler", endpoint.handler(), "phase", phase)
+                    .register(registry);
+        }
+    }
+
+    /** Timer + 최근 window 초 단위 요청 수 */
+    private final class Series {
+        final Timer timer;
+        final int seconds = (int) Math.max(1, window.toSeconds());
+        /** 초 → 요청 수, epochSecond % seconds 위치에 기록하고 stamps 로 유효성 확인 */
+        final AtomicLongArray counts = new AtomicLongArray(seconds);
+        final AtomicLongArray stamps = new AtomicLongArray(seconds);
+
+        Series(Key key) {
+            this.timer = Timer.builder(TIMER_NAME)
+                    .description("컨트롤러 메서드 응답 시간")
+                    .tags("uri", key.uri(), "handler", key.handler(), "role", key.role(), "outcome", key.outcome())
+                    .publishPercentiles(PERCENTILES)
+                    .publishPercentileHistogram()
+                    .distributionStatisticExpiry(window)
+                    .distributionStatisticBufferLength(3)
+                    .register(registry);
+        }
+
+        void record(long nanos) {
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+            long now = nowSeconds();
+            int slot = (int) (now % seconds);
+            long stamp = stamps.get(slot);
+            if (stamp != now && stamps.compareAndSet(slot, stamp, now)) {
+                counts.set(slot, 0);
+            }
+            counts.incrementAndGet(slot);
+        }
+
+        /** 레지스트리 시계 기준 (Timer 의 시간 창과 같은 시계, 테스트에서는 MockClock) */
+        private long nowSeconds() {
+            return registry.config().clock().wallTime() / 1000;
+        }
+
+        long windowCount() {
+            long now = nowSeconds();
+            long sum = 0;
+            for (int i = 0; i < seconds; i++) {
+                if (now - stamps.get(i) < seconds) sum += counts.get(i);
+            }
+            return sum;
+        }
+    }
+
+    public void record(Key key, long nanos) {
+        series.computeIfAbsent(key, Series::new).record(nanos);
+    }
+
+    public void recordPhases(Endpoint endpoint, Map<RequestTiming.Phase, Long> phases, long totalNanos) {
+        PhaseSeries s = phaseSeries.computeIfAbsent(endpoint, PhaseSeries::new);
+        long measured = 0;
+        for (Map.Entry<RequestTiming.Phase, Long> e : phases.entrySet()) {
+            s.phases.get(e.getKey()).record(e.getValue(), TimeUnit.NANOSECONDS);
+            measured += e.getValue();
+        }
+        s.other.record(Math.max(0, totalNanos - measured), TimeUnit.NANOSECONDS);
+        s.total.record(totalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 엔드포인트별 구간 평균 (평균 전체 시간 긴 순)
+     */
+    public List<PhaseRow> phaseSnapshot() {
+        List<PhaseRow> rows = new ArrayList<>();
+        phaseSeries.forEach((endpoint, s) -> {
+            Map<String, Double> phases = new LinkedHashMap<>();
+            s.phases.forEach((phase, timer) -> phases.put(phase.metricName(), round(timer.mean(TimeUnit.MILLISECONDS))));
+            phases.put("other", round(s.other.mean(TimeUnit.MILLISECONDS)));
+            rows.add(new PhaseRow(endpoint.uri(), endpoint.handler(), s.total.count(),
+                    round(s.total.mean(TimeUnit.MILLISECONDS)), phases));
+        });
+        rows.sort(Comparator.comparingDouble(PhaseRow::totalMs).reversed());
+        return rows;
+    }
+
+    /**
+     * 최근 window 기준 엔드포인트별 통계 (요청 수 많은 순)
+     */
+    public List<Row> snapshot() {
+        List<Row> rows = new ArrayList<>();
+        series.forEach((key, s) -> {
+            HistogramSnapshot snap = s.timer.takeSnapshot();
+            double p50 = 0, p95 = 0, p99 = 0;
+            for (ValueAtPercentile v : snap.percentileValues()) {
+                double ms = v.value(TimeUnit.MILLISECONDS);
+                if (v.percentile() == 0.5) p50 = ms;
+                else if (v.percentile() == 0.95) p95 = ms;
+                else if (v.percentile() == 0.99) p99 = ms;
+            }
+            long windowCount = s.windowCount();
+            rows.add(new Row(key.uri(), key.handler(), key.role(), key.outcome(),
+                    windowCount, (double) windowCount / s.seconds,
+                    round(p50), round(p95), round(p99), round(snap.max(TimeUnit.MILLISECONDS)), s.timer.count()));
+        });
+        rows.sort(Comparator.comparingLong(Row::windowCount).reversed()
+                .thenComparing(Comparator.comparingLong(Row::totalCount).reversed()));
+        return rows;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    private static double round(double ms) {
+        return Math.round(ms * 10) / 10.0;
+    }
+}
@@ -0,0 +1,159 @@
+package com.bugs.productmanager.service;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 요청 안에서 구간(DB/집계/캐시 조회/렌더링)별 소요 시간을 스레드 로컬 span 으로 잰다.
+ * - ServerTimingFilter 가 요청마다 begin/end, 요청 밖(스케줄러/업로드 작업)에서는 span 이 아무 일도 하지 않는다
+ * - span 은 겹치지 않게 센다: 안쪽 span 이 열려 있는 동안 바깥 span 시간은 멈춘다 (캐시 로더 안의 DB 조회 등)
+ * - QueryFanOut 분기 스레드의 시간은 propagate 로 같은 요청에 합산되므로 병렬 구간은 벽시계 시간보다 클 수 있다
+ */
+public final class RequestTiming {
+
+    public enum Phase {
+        DB("db", "DB"),
+        AGGREGATION("agg", "Aggregation"),
+        CACHE("cache", "Cache lookup"),
+        RENDER("render", "Render");
+
+        private final String metricName;
+        private final String description;
+
+        Phase(String metricName, String description) {
+            this.metricName = metricName;
+            this.description = description;
+        }
+
+        public String metricName() {
+            return metricName;
+        }
+
+        public String description() {
+            return description;
+        }
+    }
+
+    /** 요청 하나의 구간별 누적 시간 (분기 스레드와 공유) */
+    private static final class Context {
+        final long startNanos = System.nanoTime();
+        final LongAdder[] totals = new LongAdder[Phase.values().length];
+
+        Context() {
+            for (int i = 0; i < totals.length; i++) totals[i] = new LongAdder();
+        }
+    }
+
+    /** 스레드별 열린 span 스택 (맨 위 span 만 시간이 흐른다) */
+    private static final class ThreadState {
+        final Context context;
+        final Deque<Phase> open = new ArrayDeque<>();
+        long since;
+
+        ThreadState(Context context) {
+            this.context = context;
+        }
+
+        void charge(long now) {
+            Phase top = open.peek();
+            if (top != null) context.totals[top.ordinal()].add(now - since);
+            since = now;
+        }
+    }
+
+    public interface Span extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final Span NOOP = () -> {};
+    private static final ThreadLocal<ThreadState> STATE = new ThreadLocal<>();
+
+    private RequestTiming() {
+    }
+
+    public static void begin() {
+        STATE.set(new ThreadState(new Context()));
+    }
+
+    public static void end() {
+        STATE.remove();
+    }
+
+    public static boolean isActive() {
+        return STATE.get() != null;
+    }
+
+    public static Span span(Phase phase) {
+        ThreadState state = STATE.get();
+        if (state == null) return NOOP;
+        state.charge(System.nanoTime());
+        state.open.push(phase);
+        return () -> {
+            state.charge(System.nanoTime());
+            state.open.remove(phase);
+        };
+    }
+
+    public static <T> T time(Phase phase, Supplier<T> work) {
+        Span span = span(phase);
+        try {
+            return work.get();
+        } finally {
+            span.close();
+        }
+    }
+
+    /**
+     * 지금까지 구간별 시간(ns), 현재 스레드에서 열려 있는 span 의 진행 중인 시간 포함
+     */
+    public static Map<Phase, Long> snapshot() {
+        Map<Phase, Long> result = new EnumMap<>(Phase.class);
+        ThreadState state = STATE.get();
+        if (state == null) return result;
+        long now = System.nanoTime();
+        for (Phase phase : Phase.values()) {
+            result.put(phase, state.context.totals[phase.ordinal()].sum());
+        }
+        Phase top = state.open.peek();
+        if (top != null) result.merge(top, now - state.since, Long::sum);
+        return result;
+    }
+
+    /**
+     * 요청 시작부터 지금까지(ns)
+     */
+    public static long elapsed() {
+        ThreadState state = STATE.get();
+        return state != null ? System.nanoTime() - state.context.startNanos : 0;
+    }
+
+    /**
+     * 다른 스레드에서 실행하는 작업의 span 도 호출한 요청에 합산되도록 감싼다.
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        ThreadState state = STATE.get();
+        if (state == null) return task;
+        Context context = state.context;
+        return () -> {
+            // CallerRuns 로 호출 스레드에서 실행될 때는 호출 스레드의 열린 span 을 멈춰 두고 복원한다
+            ThreadState previous = STATE.get();
+            if (previous != null) previous.charge(System.nanoTime());
+            STATE.set(new ThreadState(context));
+            try {
+                return task.get();
+            } finally {
+                if (previous != null) {
+                    previous.since = System.nanoTime();
+                    STATE.set(previous);
+                } else {
+                    STATE.remove();
+                }
+            }
+        };
+    }
+}
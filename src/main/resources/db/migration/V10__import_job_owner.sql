@@ -0,0 +1,5 @@
+-- 업로드 작업을 받은 노드 (spool 파일이 그 노드 디스크에 있으므로 실행/재시작 복구는 그 노드만 한다)
+-- 이전 행(NULL)은 spool 파일을 가진 노드가 복구할 때 가져간다
+ALTER TABLE import_job
+    ADD COLUMN owner_node VARCHAR(100) NULL AFTER username,
+    ADD KEY idx_import_job_owner (owner_node, phase);
@@ -0,0 +1,73 @@
+-- 기존 ddl-auto=update 로 생성되던 스키마 (이미 있는 DB에서는 그대로 유지)
+
+CREATE TABLE IF NOT EXISTS app_user (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    username    VARCHAR(50)  NOT NULL,
+    password    VARCHAR(255) NOT NULL,
+    role        VARCHAR(30)  NOT NULL,
+    enabled     BIT          NOT NULL,
+    company     VARCHAR(20),
+    department  VARCHAR(50),
+    team        VARCHAR(50),
+    created_at  DATETIME(6),
+    updated_at  DATETIME(6),
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_app_user_username (username)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS products (
+    id          BIGINT         NOT NULL AUTO_INCREMENT,
+    name        VARCHAR(200)   NOT NULL,
+    category    VARCHAR(100),
+    price       DECIMAL(10, 2) NOT NULL,
+    quantity    INTEGER        NOT NULL,
+    description TEXT,
+    created_at  DATETIME(6),
+    updated_at  DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS expenses (
+    id           BIGINT         NOT NULL AUTO_INCREMENT,
+    ym           VARCHAR(10)    NOT NULL,
+    category     VARCHAR(20)    NOT NULL,
+    division     VARCHAR(20)    NOT NULL,
+    department   VARCHAR(50),
+    team         VARCHAR(50),
+    expense_date DATE,
+    purpose      VARCHAR(200),
+    store_name   VARCHAR(200),
+    amount       DECIMAL(12, 0) NOT NULL,
+    budget       DECIMAL(12, 0),
+    created_at   DATETIME(6),
+    updated_at   DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS budget (
+    id             BIGINT         NOT NULL AUTO_INCREMENT,
+    ym             VARCHAR(10)    NOT NULL,
+    category       VARCHAR(20)    NOT NULL,
+    division       VARCHAR(20)    NOT NULL,
+    department     VARCHAR(50),
+    team           VARCHAR(50),
+    monthly_amount DECIMAL(12, 0),
+    prev_remaining DECIMAL(12, 0),
+    created_at     DATETIME(6),
+    updated_at     DATETIME(6),
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_budget_key (ym, category, division, department, team)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS expense_monthly_rollup (
+    id            BIGINT         NOT NULL AUTO_INCREMENT,
+    ym            VARCHAR(10)    NOT NULL,
+    category      VARCHAR(20)    NOT NULL,
+    division      VARCHAR(20)    NOT NULL,
+    department    VARCHAR(50)    NOT NULL,
+    team          VARCHAR(50)    NOT NULL,
+    total_amount  DECIMAL(15, 0) NOT NULL,
+    expense_count BIGINT         NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_rollup_key (ym, category, division, department, team)
+) ENGINE = InnoDB;
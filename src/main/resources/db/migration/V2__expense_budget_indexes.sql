@@ -0,0 +1,13 @@
+-- 경비/예산 조회 필터(ym IN + category/division/department/team)와 정렬(expense_date, id)에 맞춘 인덱스
+
+-- 목록/집계: ym 범위 + 스코프 등치 조건, amount 포함으로 SUM/GROUP BY 커버링
+CREATE INDEX idx_expenses_ym_scope ON expenses (ym, category, division, department, team, amount);
+
+-- keyset 페이지/최근 경비: (expense_date, id) 순서 (InnoDB 보조 인덱스는 PK를 포함)
+CREATE INDEX idx_expenses_date ON expenses (expense_date);
+
+-- 월 조건 없는 스코프 조회 (전체 백업, 검색)
+CREATE INDEX idx_expenses_scope ON expenses (category, department, team, expense_date);
+
+-- 예산: ym 선두 조회는 uk_budget_key가 담당, 월 조건 없는 스코프 조회용
+CREATE INDEX idx_budget_scope ON budget (category, department, team, ym);
@@ -0,0 +1,9 @@
+-- purpose/store_name 부분 문자열 검색용 2-gram 역색인
+-- gram 컬럼은 expenses와 같은 기본 collation을 써서 LIKE와 동일한 대소문자/악센트 비교를 따른다
+CREATE TABLE IF NOT EXISTS expense_search_gram (
+    field      VARCHAR(1) NOT NULL,
+    gram       VARCHAR(2) NOT NULL,
+    expense_id BIGINT     NOT NULL,
+    PRIMARY KEY (field, gram, expense_id),
+    KEY idx_search_gram_expense (expense_id)
+) ENGINE = InnoDB;
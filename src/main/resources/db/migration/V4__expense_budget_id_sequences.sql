@@ -0,0 +1,18 @@
+-- Expense/Budget id 를 IDENTITY 대신 pooled sequence(allocationSize=50)로 발급해 INSERT 를 JDBC batch 로 묶는다.
+-- MySQL 에는 시퀀스가 없으므로 Hibernate 는 next_val 한 행짜리 테이블로 흉내낸다.
+-- pooled optimizer 는 읽은 값 v 에 대해 (v - 49) ~ v 를 쓰므로 기존 최대 id + 51 로 시작한다.
+CREATE TABLE IF NOT EXISTS expenses_seq (
+    next_val BIGINT NOT NULL
+) ENGINE = InnoDB;
+
+INSERT INTO expenses_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM expenses
+WHERE NOT EXISTS (SELECT 1 FROM expenses_seq);
+
+CREATE TABLE IF NOT EXISTS budget_seq (
+    next_val BIGINT NOT NULL
+) ENGINE = InnoDB;
+
+INSERT INTO budget_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM budget
+WHERE NOT EXISTS (SELECT 1 FROM budget_seq);
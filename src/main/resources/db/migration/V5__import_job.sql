@@ -0,0 +1,21 @@
+-- 엑셀 업로드 비동기 처리 작업 (서버 재시작 시 미완료 작업 복구/실패 처리용)
+CREATE TABLE IF NOT EXISTS import_job (
+    id             VARCHAR(36)   NOT NULL,
+    username       VARCHAR(50)   NOT NULL,
+    file_name      VARCHAR(255),
+    spool_path     VARCHAR(500),
+    ym             VARCHAR(10),
+    department     VARCHAR(50),
+    team           VARCHAR(50),
+    phase          VARCHAR(20)   NOT NULL,
+    rows_parsed    INT           NOT NULL DEFAULT 0,
+    rows_persisted INT           NOT NULL DEFAULT 0,
+    budget_count   INT           NOT NULL DEFAULT 0,
+    expense_count  INT           NOT NULL DEFAULT 0,
+    error_message  VARCHAR(1000),
+    created_at     DATETIME(6),
+    updated_at     DATETIME(6),
+    finished_at    DATETIME(6),
+    PRIMARY KEY (id),
+    KEY idx_import_job_phase (phase)
+) ENGINE = InnoDB;
@@ -0,0 +1,21 @@
+-- 경비 행 내용 지문 (엑셀 재업로드 시 이미 있는 행을 건너뛰기 위함)
+-- Expense.computeFingerprint() 와 같은 규칙: 필드를 0x1F 로 이어 붙인 UTF-8 문자열의 SHA-256 (null → 빈 문자열)
+ALTER TABLE expenses
+    ADD COLUMN fingerprint CHAR(64) NULL,
+    ADD INDEX idx_expenses_fingerprint (ym, category, division, fingerprint);
+
+UPDATE expenses
+SET fingerprint = SHA2(CONCAT_WS(CHAR(31),
+        ym, category, division,
+        COALESCE(department, ''), COALESCE(team, ''),
+        COALESCE(DATE_FORMAT(expense_date, '%Y-%m-%d'), ''),
+        COALESCE(purpose, ''), COALESCE(store_name, ''),
+        CAST(amount AS CHAR)), 256)
+WHERE fingerprint IS NULL;
+
+-- 업로드 작업: 재업로드 시 사라진 행 삭제 여부와 반영 결과 건수
+ALTER TABLE import_job
+    ADD COLUMN replace_missing BIT NOT NULL DEFAULT 0,
+    ADD COLUMN inserted_count  INT NOT NULL DEFAULT 0,
+    ADD COLUMN skipped_count   INT NOT NULL DEFAULT 0,
+    ADD COLUMN removed_count   INT NOT NULL DEFAULT 0;
@@ -0,0 +1,11 @@
+-- 다중 인스턴스 캐시 무효화 로그: 노드가 커밋한 변경 파티션을 기록하고 다른 노드가 주기적으로 읽어 로컬 캐시를 무효화
+CREATE TABLE IF NOT EXISTS cache_invalidation (
+    id          BIGINT        NOT NULL AUTO_INCREMENT,
+    node_id     VARCHAR(36)   NOT NULL,
+    table_name  VARCHAR(20)   NOT NULL,
+    ym          VARCHAR(10),
+    category    VARCHAR(20),
+    created_at  DATETIME(3)   NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    PRIMARY KEY (id),
+    KEY idx_cache_invalidation_created (created_at)
+) ENGINE = InnoDB;
@@ -0,0 +1,11 @@
+-- 검색 색인(expense_search_gram) 완성 표시: ready = 0 이면 재생성 중이거나 중단된 색인
+-- 색인이 완성되기 전에는 검색이 gram 후보 없이 LIKE 만 쓰고, 서버 시작 시 다시 만든다
+CREATE TABLE IF NOT EXISTS expense_search_index_state (
+    id           TINYINT      NOT NULL,
+    ready        TINYINT(1)   NOT NULL,
+    completed_at DATETIME(3),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+-- V3 이후 초기 적재가 끝까지 됐는지 알 수 없으므로 한 번 다시 만든다
+INSERT INTO expense_search_index_state (id, ready) VALUES (1, 0);
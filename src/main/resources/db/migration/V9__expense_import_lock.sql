@@ -0,0 +1,8 @@
+-- 엑셀 import 범위(ym, category, division, department, team)별 잠금 행
+-- import 트랜잭션이 범위의 기존 행 지문을 읽기 전에 이 행을 잠가(INSERT ... ON DUPLICATE KEY UPDATE)
+-- 같은 범위를 동시에 올리는 업로드를 커밋/롤백까지 직렬화한다
+CREATE TABLE IF NOT EXISTS expense_import_lock (
+    scope_hash BINARY(32)  NOT NULL,
+    locked_at  DATETIME(3) NOT NULL,
+    PRIMARY KEY (scope_hash)
+) ENGINE = InnoDB;
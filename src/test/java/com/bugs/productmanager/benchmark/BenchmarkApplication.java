@@ -0,0 +1,52 @@
+package com.bugs.productmanager.benchmark;
+
+import com.bugs.productmanager.ProductManagerApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.MySQLContainer;
+
+/**
+ * MySQL 이 필요한 벤치마크용: Testcontainers MySQL 에 Flyway 스키마를 올리고 웹 서버 없이 애플리케이션 컨텍스트를 띄운다.
+ * 시작 후 예열/다른 노드 무효화 폴링은 측정에 끼어들지 않도록 끈다.
+ */
+final class BenchmarkApplication implements AutoCloseable {
+
+    private final MySQLContainer<?> mysql;
+    private final ConfigurableApplicationContext context;
+
+    private BenchmarkApplication(MySQLContainer<?> mysql, ConfigurableApplicationContext context) {
+        this.mysql = mysql;
+        this.context = context;
+    }
+
+    static BenchmarkApplication start(String... properties) {
+        MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0")
+                .withDatabaseName("test_db")
+                .withUrlParam("allowPublicKeyRetrieval", "true")
+                .withUrlParam("useSSL", "false");
+        mysql.start();
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ProductManagerApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=" + mysql.getJdbcUrl()
+                                + "&serverTimezone=Asia/Seoul&characterEncoding=UTF-8&rewriteBatchedStatements=true",
+                        "spring.datasource.username=" + mysql.getUsername(),
+                        "spring.datasource.password=" + mysql.getPassword(),
+                        "app.warmup.enabled=false",
+                        "cluster.invalidation.enabled=false")
+                .properties(properties)
+                .run();
+        return new BenchmarkApplication(mysql, context);
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+        mysql.stop();
+    }
+}
@@ -0,0 +1,98 @@
+package com.bugs.productmanager.benchmark;
+
+import com.bugs.productmanager.model.Expense;
+import com.bugs.productmanager.service.ExcelService;
+import com.bugs.productmanager.service.ExpenseService;
+import com.bugs.productmanager.support.ExpenseWorkbooks;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 엑셀 import 저장 처리량(rows/s, 50,000행 워크북)
+ * - batched: ExcelService.importExcel (한 트랜잭션, 500건 JDBC batch + rewriteBatchedStatements)
+ * - perRow: 예전 경로처럼 같은 행을 ExpenseService.save 로 한 건씩 (행마다 트랜잭션/INSERT/집계·색인 갱신)
+ * perRow 는 파싱을 건너뛰므로 두 값의 차이는 저장 경로의 차이만큼보다 약간 작게 나온다.
+ * Docker(Testcontainers MySQL) 필요
+ * 실행: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=ExcelImportBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(ExcelImportBenchmark.ROWS)
+@Warmup(iterations = 1, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class ExcelImportBenchmark {
+
+    static final int ROWS = 50_000;
+    private static final int SHEETS = 5;
+
+    private BenchmarkApplication app;
+    private JdbcTemplate jdbcTemplate;
+    private ExcelService excelService;
+    private ExpenseService expenseService;
+    private Map<String, List<ExpenseWorkbooks.Section>> content;
+    private Path workbook;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        app = BenchmarkApplication.start();
+        jdbcTemplate = app.bean(JdbcTemplate.class);
+        excelService = app.bean(ExcelService.class);
+        expenseService = app.bean(ExpenseService.class);
+        content = ExpenseWorkbooks.generate(SHEETS, ROWS / SHEETS, 42);
+        workbook = ExpenseWorkbooks.write(Files.createTempFile("import-benchmark", ".xlsx"), content);
+    }
+
+    @Setup(Level.Invocation)
+    public void clear() {
+        jdbcTemplate.update("DELETE FROM expense_search_gram");
+        jdbcTemplate.update("DELETE FROM expense_monthly_rollup");
+        jdbcTemplate.update("DELETE FROM expenses");
+        jdbcTemplate.update("DELETE FROM budget");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        app.close();
+        Files.deleteIfExists(workbook);
+    }
+
+    @Benchmark
+    public ExcelService.UploadResult batched() throws IOException {
+        return excelService.importExcel(workbook, null, "BUGS개발실", "팀1", false, ExcelService.ImportListener.NONE);
+    }
+
+    @Benchmark
+    public int perRow() {
+        int saved = 0;
+        for (Map.Entry<String, List<ExpenseWorkbooks.Section>> sheet : content.entrySet()) {
+            for (ExpenseWorkbooks.Section section : sheet.getValue()) {
+                String[] header = section.header().split(" - ");
+                for (ExpenseWorkbooks.Line line : section.lines()) {
+                    Expense e = new Expense();
+                    e.setYm(sheet.getKey());
+                    e.setCategory(header[0]);
+                    e.setDivision(header[1]);
+                    e.setDepartment("BUGS개발실");
+                    e.setTeam("팀1");
+                    e.setExpenseDate(line.date());
+                    e.setPurpose(line.purpose());
+                    e.setStoreName(line.store());
+                    e.setAmount(BigDecimal.valueOf(line.amount()));
+                    expenseService.save(e);
+                    saved++;
+                }
+            }
+        }
+        return saved;
+    }
+}
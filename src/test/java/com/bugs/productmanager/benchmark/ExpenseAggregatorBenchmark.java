@@ -0,0 +1,91 @@
+package com.bugs.productmanager.benchmark;
+
+import com.bugs.productmanager.model.Expense;
+import com.bugs.productmanager.service.ExpenseAggregator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 필터된 경비 목록 집계: 예전 방식(합계/월별/예산 키/카테고리/구분을 따로 돌며 BigDecimal 누적, 예산 키는 문자열 연결)
+ * vs ExpenseAggregator 한 번 순회(long 누적, BudgetKey record)
+ * 실행: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=ExpenseAggregatorBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpenseAggregatorBenchmark {
+
+    private static final String[] CATEGORIES = {"BUGS", "CJ", "FLO"};
+    private static final String[] DIVISIONS = {"운영비", "복리후생비", "회의비", "교통비"};
+
+    @Param({"1000", "50000"})
+    private int rows;
+
+    private List<Expense> expenses;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        expenses = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Expense e = new Expense();
+            e.setYm("2024-" + String.format("%02d", 1 + random.nextInt(12)));
+            e.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            e.setDivision(DIVISIONS[random.nextInt(DIVISIONS.length)]);
+            e.setDepartment(e.getCategory() + "개발실");
+            e.setTeam(random.nextInt(4) == 0 ? null : "팀" + random.nextInt(6));
+            e.setAmount(BigDecimal.valueOf(1000 + random.nextInt(500_000)));
+            expenses.add(e);
+        }
+    }
+
+    @Benchmark
+    public void separatePasses(Blackhole bh) {
+        bh.consume(expenses.stream().map(Expense::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add));
+
+        Map<String, BigDecimal> byYm = new LinkedHashMap<>();
+        for (Expense e : expenses) byYm.merge(e.getYm(), amountOf(e), BigDecimal::add);
+        bh.consume(byYm);
+
+        Map<String, BigDecimal> byBudgetKey = new HashMap<>();
+        for (Expense e : expenses) {
+            String key = e.getYm() + "_" + e.getCategory() + "_" + e.getDivision()
+                    + "_" + nullSafe(e.getDepartment()) + "_" + nullSafe(e.getTeam());
+            byBudgetKey.merge(key, amountOf(e), BigDecimal::add);
+        }
+        bh.consume(byBudgetKey);
+
+        Map<String, BigDecimal> byCategory = new LinkedHashMap<>();
+        for (Expense e : expenses) byCategory.merge(e.getCategory(), amountOf(e), BigDecimal::add);
+        bh.consume(byCategory);
+
+        Map<String, BigDecimal> byDivision = new LinkedHashMap<>();
+        for (Expense e : expenses) byDivision.merge(e.getDivision(), amountOf(e), BigDecimal::add);
+        bh.consume(byDivision);
+    }
+
+    @Benchmark
+    public ExpenseAggregator.Result singlePass() {
+        return ExpenseAggregator.of(expenses);
+    }
+
+    private static BigDecimal amountOf(Expense e) {
+        return e.getAmount() != null ? e.getAmount() : BigDecimal.ZERO;
+    }
+
+    private static String nullSafe(String s) {
+        return s != null ? s : "";
+    }
+}
@@ -0,0 +1,93 @@
+package com.bugs.productmanager.benchmark;
+
+import com.bugs.productmanager.model.Expense;
+import com.bugs.productmanager.repository.ExpenseRepository;
+import com.bugs.productmanager.service.ExpenseSearchIndex;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * purpose 검색: LIKE '%keyword%' 전체 스캔 vs 2-gram 색인 후보 + LIKE (ExpenseSearchIndex.contains)
+ * - 같은 조건의 건수를 세어 행 로딩 비용 없이 필터 비용만 비교한다
+ * - Docker(Testcontainers MySQL) 필요
+ * 실행: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=ExpenseSearchBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExpenseSearchBenchmark {
+
+    private static final List<String> PURPOSES = List.of(
+            "팀 회의 다과", "야근 택시비", "거래처 미팅 식대", "사무용품 구매", "부서 회식",
+            "신규 입사자 환영 점심", "세미나 참가비", "Team workshop lunch", "Client dinner", "Office supplies");
+
+    @Param({"100000"})
+    private int rows;
+
+    /** 흔한 단어 / 드문 단어 / 없는 단어 */
+    @Param({"회의", "환영 점심", "workshop", "존재하지않는말"})
+    private String keyword;
+
+    private BenchmarkApplication app;
+    private ExpenseRepository expenseRepository;
+    private ExpenseSearchIndex searchIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        app = BenchmarkApplication.start();
+        expenseRepository = app.bean(ExpenseRepository.class);
+        searchIndex = app.bean(ExpenseSearchIndex.class);
+        JdbcTemplate jdbcTemplate = app.bean(JdbcTemplate.class);
+
+        Random random = new Random(42);
+        LocalDate start = LocalDate.of(2023, 1, 1);
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            LocalDate date = start.plusDays(random.nextInt(730));
+            batch.add(new Object[]{date.toString().substring(0, 7), "BUGS", "운영비", "BUGS개발실", "팀" + random.nextInt(5),
+                    Date.valueOf(date), PURPOSES.get(random.nextInt(PURPOSES.size())) + " " + random.nextInt(1000),
+                    "가게" + random.nextInt(500), BigDecimal.valueOf(1000 + random.nextInt(100_000))});
+            if (batch.size() == 5000) {
+                insert(jdbcTemplate, batch);
+                batch.clear();
+            }
+        }
+        insert(jdbcTemplate, batch);
+        searchIndex.rebuild();
+        jdbcTemplate.execute("ANALYZE TABLE expenses, expense_search_gram");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        app.close();
+    }
+
+    @Benchmark
+    public long like() {
+        Specification<Expense> spec = (r, q, cb) -> cb.like(r.get("purpose"), "%" + keyword + "%");
+        return expenseRepository.count(spec);
+    }
+
+    @Benchmark
+    public long gramIndex() {
+        return expenseRepository.count(searchIndex.contains("purpose", keyword));
+    }
+
+    private static void insert(JdbcTemplate jdbcTemplate, List<Object[]> batch) {
+        if (batch.isEmpty()) return;
+        jdbcTemplate.batchUpdate("INSERT INTO expenses (ym, category, division, department, team, expense_date, "
+                + "purpose, store_name, amount) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+    }
+}
@@ -0,0 +1,128 @@
+package com.bugs.productmanager.config;
+
+import com.bugs.productmanager.service.RequestMetrics;
+import com.bugs.productmanager.service.RequestTiming;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Server-Timing 헤더: 값 형식과, 응답이 커밋되는 redirect/error/본문 쓰기 전에 한 번 붙는지.
+ * 커밋 뒤에는 필터가 헤더를 붙이지 않으므로 커밋된 응답에 헤더가 있으면 커밋 전에 붙은 것이다.
+ */
+class ServerTimingFilterTest {
+
+    private final RequestMetrics requestMetrics = new RequestMetrics(new SimpleMeterRegistry(), Duration.ofMinutes(1));
+    private final ServerTimingFilter filter = new ServerTimingFilter(requestMetrics, true);
+
+    @Test
+    void headerValueListsPhasesThenTotal() {
+        Map<RequestTiming.Phase, Long> phases = new EnumMap<>(RequestTiming.Phase.class);
+        phases.put(RequestTiming.Phase.DB, 12_340_000L);
+        phases.put(RequestTiming.Phase.AGGREGATION, 450_000L);
+        phases.put(RequestTiming.Phase.RENDER, 0L);
+
+        assertThat(ServerTimingFilter.headerValue(phases, 20_000_000L)).isEqualTo(
+                "db;dur=12.3;desc=\"DB\", agg;dur=0.5;desc=\"Aggregation\", total;dur=20.0;desc=\"Total\"");
+        assertThat(ServerTimingFilter.headerValue(Map.of(), 1_500_000L)).isEqualTo("total;dur=1.5;desc=\"Total\"");
+    }
+
+    @Test
+    void headerAddedBeforeRedirectCommits() throws Exception {
+        MockHttpServletResponse response = run((req, res) -> ((HttpServletResponse) res).sendRedirect("/expenses"));
+
+        assertThat(response.isCommitted()).isTrue();
+        assertThat(response.getRedirectedUrl()).isEqualTo("/expenses");
+        assertTimingHeader(response);
+    }
+
+    @Test
+    void headerAddedBeforeErrorCommits() throws Exception {
+        MockHttpServletResponse response = run((req, res) -> ((HttpServletResponse) res).sendError(404));
+
+        assertThat(response.isCommitted()).isTrue();
+        assertThat(response.getStatus()).isEqualTo(404);
+        assertTimingHeader(response);
+    }
+
+    @Test
+    void headerAddedBeforeStreamedBodyCommits() throws Exception {
+        MockHttpServletResponse response = run((req, res) -> {
+            res.getOutputStream().write(new byte[]{1, 2, 3});
+            res.flushBuffer();
+        });
+
+        assertThat(response.isCommitted()).isTrue();
+        assertThat(response.getContentAsByteArray()).containsExactly(1, 2, 3);
+        assertTimingHeader(response);
+    }
+
+    @Test
+    void headerAddedAfterChainWhenNothingWritten() throws Exception {
+        MockHttpServletResponse response = run((req, res) -> {});
+
+        assertThat(response.isCommitted()).isFalse();
+        assertTimingHeader(response);
+        assertThat(RequestTiming.isActive()).isFalse();
+    }
+
+    @Test
+    void disabledFilterSendsNoHeaderButStillRecords() throws Exception {
+        ServerTimingFilter disabled = new ServerTimingFilter(requestMetrics, false);
+        HandlerMethod handler = new HandlerMethod(this, ServerTimingFilterTest.class.getDeclaredMethod("detail"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        disabled.doFilter(new MockHttpServletRequest("GET", "/expenses/7"), response, (req, res) -> {
+            HandlerInfo.resolve((HttpServletRequest) req, handler);
+            ((HttpServletResponse) res).sendRedirect("/expenses");
+        });
+
+        assertThat(response.getHeader("Server-Timing")).isNull();
+        assertThat(requestMetrics.phaseSnapshot()).singleElement()
+                .satisfies(row -> assertThat(row.count()).isEqualTo(1));
+    }
+
+    @Test
+    void recordsPhasesOnlyForControllerRequests() throws Exception {
+        run((req, res) -> {});
+        assertThat(requestMetrics.phaseSnapshot()).isEmpty();
+
+        HandlerMethod handler = new HandlerMethod(this, ServerTimingFilterTest.class.getDeclaredMethod("detail"));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/expenses/7");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/expenses/{id}");
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> HandlerInfo.resolve((HttpServletRequest) req, handler));
+
+        assertThat(requestMetrics.phaseSnapshot()).singleElement().satisfies(row -> {
+            assertThat(row.uri()).isEqualTo("/expenses/{id}");
+            assertThat(row.handler()).isEqualTo("ServerTimingFilterTest#detail");
+            assertThat(row.count()).isEqualTo(1);
+        });
+    }
+
+    /** recordsPhasesOnlyForControllerRequests 의 핸들러 메서드 */
+    void detail() {
+    }
+
+    private MockHttpServletResponse run(FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/expenses"), response, chain);
+        return response;
+    }
+
+    private static void assertTimingHeader(MockHttpServletResponse response) {
+        assertThat(response.getHeaders("Server-Timing")).singleElement().asString()
+                .matches("db;dur=\\d+\\.\\d;desc=\"DB\", .*, total;dur=\\d+\\.\\d;desc=\"Total\"");
+    }
+}
@@ -0,0 +1,80 @@
+package com.bugs.productmanager.repository;
+
+import com.bugs.productmanager.model.Expense;
+import com.bugs.productmanager.support.MySqlIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Expense.computeFingerprint() 와 V6 마이그레이션의 SQL 백필 식이 같은 지문을 내는지 확인한다.
+ * 엔티티로 저장한 행(@PrePersist 로 Java 지문 기록)에 V6 과 같은 SQL 식을 돌려 비교한다.
+ */
+class ExpenseFingerprintParityTest extends MySqlIntegrationTest {
+
+    /** V6__expense_fingerprint.sql 의 UPDATE 식 */
+    private static final String SQL_FINGERPRINT = "SHA2(CONCAT_WS(CHAR(31), "
+            + "ym, category, division, "
+            + "COALESCE(department, ''), COALESCE(team, ''), "
+            + "COALESCE(DATE_FORMAT(expense_date, '%Y-%m-%d'), ''), "
+            + "COALESCE(purpose, ''), COALESCE(store_name, ''), "
+            + "CAST(amount AS CHAR)), 256)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @BeforeEach
+    void clear() {
+        jdbcTemplate.update("DELETE FROM expenses");
+    }
+
+    @Test
+    void javaAndSqlFingerprintsMatch() {
+        List<Expense> cases = List.of(
+                // 선택 컬럼이 모두 null
+                expense("2024-01", null, null, null, null, null, "1000"),
+                // null 대신 빈 문자열
+                expense("2024-01", "", "", null, "", "", "1000"),
+                // 소수 금액: DECIMAL(12,0) 에 반올림돼 저장되는 값과 같아야 한다
+                expense("2024-02", "BUGS개발실", "팀1", LocalDate.of(2024, 2, 29), "회의 다과", "가게", "15000.50"),
+                expense("2024-02", "BUGS개발실", "팀1", LocalDate.of(2024, 2, 1), "환불", "가게", "-1500.5"),
+                expense("2024-02", "BUGS개발실", "팀1", LocalDate.of(2024, 2, 1), "정수 scale", "가게", "2.0E+3"),
+                // 날짜: 한 자리 월/일, 연말
+                expense("2023-12", "CJ개발실", null, LocalDate.of(2023, 12, 31), "송년회", "호텔", "990000"),
+                expense("2024-03", "CJ개발실", "팀2", LocalDate.of(2024, 3, 5), "Team Lunch é", "Café", "12345"));
+
+        expenseRepository.saveAllAndFlush(cases);
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT id, amount, fingerprint AS java_fp, " + SQL_FINGERPRINT + " AS sql_fp FROM expenses ORDER BY id");
+        assertThat(rows).hasSize(cases.size());
+        for (Map<String, Object> row : rows) {
+            assertThat(row.get("java_fp")).as("%s", row).isNotNull().isEqualTo(row.get("sql_fp"));
+        }
+    }
+
+    private static Expense expense(String ym, String department, String team, LocalDate date,
+                                   String purpose, String storeName, String amount) {
+        Expense e = new Expense();
+        e.setYm(ym);
+        e.setCategory("BUGS");
+        e.setDivision("경비");
+        e.setDepartment(department);
+        e.setTeam(team);
+        e.setExpenseDate(date);
+        e.setPurpose(purpose);
+        e.setStoreName(storeName);
+        e.setAmount(new BigDecimal(amount));
+        return e;
+    }
+}
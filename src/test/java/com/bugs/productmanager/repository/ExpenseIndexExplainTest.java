@@ -0,0 +1,105 @@
+package com.bugs.productmanager.repository;
+
+import com.bugs.productmanager.service.ExpenseService;
+import com.bugs.productmanager.support.MySqlIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * V2 인덱스 검증: 목록(keyset 페이지)/집계(GROUP BY) 화면이 실제로 실행한 SQL 을 MySQL general_log 로 잡아
+ * EXPLAIN 했을 때 expenses 를 전체 스캔(type=ALL)하지 않는지 확인한다.
+ */
+class ExpenseIndexExplainTest extends MySqlIntegrationTest {
+
+    private static final List<String> CATEGORIES = List.of("BUGS", "CJ", "FLO");
+    private static final List<String> DIVISIONS = List.of("운영비", "복리후생비", "회의비");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ExpenseService expenseService;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("DELETE FROM expenses");
+        // 옵티마이저가 인덱스를 고를 만큼: 24개월 x 3 카테고리 x 3 구분 x 4 팀 x 10건 = 8640 행
+        List<Object[]> rows = new ArrayList<>();
+        LocalDate start = LocalDate.of(2023, 1, 1);
+        for (int m = 0; m < 24; m++) {
+            LocalDate month = start.plusMonths(m);
+            String ym = month.toString().substring(0, 7);
+            for (String category : CATEGORIES) {
+                for (String division : DIVISIONS) {
+                    for (int t = 0; t < 4; t++) {
+                        for (int i = 0; i < 10; i++) {
+                            rows.add(new Object[]{ym, category, division, category + "개발실", "팀" + t,
+                                    Date.valueOf(month.plusDays(i)), "목적" + i, "가게" + i, BigDecimal.valueOf(1000 + i)});
+                        }
+                    }
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO expenses (ym, category, division, department, team, expense_date, "
+                + "purpose, store_name, amount) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        jdbcTemplate.execute("ANALYZE TABLE expenses");
+    }
+
+    @Test
+    void listAndAggregateQueriesUseIndexes() {
+        List<String> sql = captureSql(() -> {
+            expenseService.findPage(List.of("2024-03"), "BUGS", List.of(), null, null, null, List.of(), null, 100);
+            expenseService.findPage(List.of("2024-01", "2024-02"), "CJ", List.of("운영비"), null, null,
+                    "CJ개발실", List.of("팀1"), null, 100);
+            expenseService.aggregate(List.of("2024-03"), "BUGS", List.of(), null, null, null, List.of());
+            expenseService.aggregate(List.of("2024-01", "2024-02"), "CJ", List.of("운영비"), null, null,
+                    "CJ개발실", List.of("팀1"));
+        });
+
+        assertThat(sql).as("목록/집계 SQL 이 잡혀야 한다").hasSizeGreaterThanOrEqualTo(4);
+        for (String statement : sql) {
+            for (Map<String, Object> plan : jdbcTemplate.queryForList("EXPLAIN " + statement)) {
+                if (!"expenses".equals(tableOf(plan, statement))) continue;
+                assertThat(plan.get("type")).as("전체 스캔: %s%n%s", plan, statement).isNotEqualTo("ALL");
+                assertThat(plan.get("key")).as("인덱스 미사용: %s%n%s", plan, statement).isNotNull();
+            }
+        }
+    }
+
+    /**
+     * 작업 동안 서버가 받은 expenses SELECT 문 (클라이언트 측 prepared statement 라 값이 채워진 SQL)
+     */
+    private List<String> captureSql(Runnable work) {
+        jdbcTemplate.execute("SET GLOBAL log_output = 'TABLE'");
+        jdbcTemplate.execute("TRUNCATE TABLE mysql.general_log");
+        jdbcTemplate.execute("SET GLOBAL general_log = 'ON'");
+        try {
+            work.run();
+        } finally {
+            jdbcTemplate.execute("SET GLOBAL general_log = 'OFF'");
+        }
+        return jdbcTemplate.queryForList(
+                "SELECT CONVERT(argument USING utf8mb4) FROM mysql.general_log "
+                        + "WHERE command_type = 'Query' AND CONVERT(argument USING utf8mb4) LIKE 'select%from expenses%'",
+                String.class);
+    }
+
+    /**
+     * EXPLAIN 의 table 열은 별칭(e1_0 등)이므로 SQL 의 "from expenses 별칭" 과 맞춰 본다
+     */
+    private static String tableOf(Map<String, Object> plan, String statement) {
+        Object alias = plan.get("table");
+        if (alias == null) return null;
+        return statement.contains("from expenses " + alias) || "expenses".equals(alias) ? "expenses" : alias.toString();
+    }
+}
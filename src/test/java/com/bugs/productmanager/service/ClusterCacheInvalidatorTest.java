@@ -0,0 +1,122 @@
+package com.bugs.productmanager.service;
+
+import com.bugs.productmanager.support.MySqlIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 다른 노드의 무효화 로그 읽기(poll)를 실제 cache_invalidation 테이블로 확인한다.
+ * 행의 id/created_at 을 직접 넣어 늦게 커밋된 행(id 역전)과 settle 여부를 만든다.
+ */
+class ClusterCacheInvalidatorTest extends MySqlIntegrationTest {
+
+    private static final long SETTLE_MS = 60_000;
+    private static final String OTHER_NODE = "other-node";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private QueryResultCache queryCache;
+    private ExpenseDimensionIndex dimensionIndex;
+    private ClusterCacheInvalidator invalidator;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM cache_invalidation");
+        queryCache = mock(QueryResultCache.class);
+        dimensionIndex = mock(ExpenseDimensionIndex.class);
+        invalidator = new ClusterCacheInvalidator(jdbcTemplate, transactionManager, queryCache, dimensionIndex,
+                true, SETTLE_MS, 3_600_000, 0);
+        invalidator.start();
+    }
+
+    @Test
+    void lateCommittedRowIsAppliedOnceAndWatermarkStopsAtSettledPrefix() {
+        insert(1, OTHER_NODE, QueryResultCache.EXPENSE, "2024-01", true);
+        insert(3, OTHER_NODE, QueryResultCache.BUDGET, "2024-03", false);
+
+        invalidator.poll();
+        verifyApplied(partition(QueryResultCache.EXPENSE, "2024-01"), partition(QueryResultCache.BUDGET, "2024-03"));
+        verify(dimensionIndex).reconcile();
+        // 3 은 아직 settle 되지 않아 그 앞(1)까지만 확정
+        assertThat(invalidator.getWatermark()).isEqualTo(1);
+
+        // id 2 가 3 보다 늦게 커밋됨: 2 만 새로 반영하고 이미 본 3 은 다시 반영하지 않는다
+        insert(2, OTHER_NODE, QueryResultCache.EXPENSE, "2024-02", false);
+        clearInvocations(queryCache, dimensionIndex);
+        invalidator.poll();
+        verifyApplied(partition(QueryResultCache.EXPENSE, "2024-02"));
+        assertThat(invalidator.getWatermark()).isEqualTo(1);
+
+        // 모두 settle 되면 watermark 가 끝까지 가고, 다시 반영하는 행은 없다
+        jdbcTemplate.update("UPDATE cache_invalidation SET created_at = NOW(3) - INTERVAL 10 MINUTE");
+        clearInvocations(queryCache, dimensionIndex);
+        invalidator.poll();
+        verify(queryCache, never()).applyRemote(any());
+        assertThat(invalidator.getWatermark()).isEqualTo(3);
+
+        insert(4, OTHER_NODE, QueryResultCache.BUDGET, "2024-04", true);
+        invalidator.poll();
+        verifyApplied(partition(QueryResultCache.BUDGET, "2024-04"));
+        verify(dimensionIndex, never()).reconcile();
+        assertThat(invalidator.getWatermark()).isEqualTo(4);
+    }
+
+    @Test
+    void ownRowsAreSkippedButAdvanceWatermark() {
+        insert(1, invalidator.getNodeId(), QueryResultCache.EXPENSE, "2024-01", true);
+        insert(2, OTHER_NODE, QueryResultCache.EXPENSE, "2024-02", true);
+        insert(3, invalidator.getNodeId(), QueryResultCache.BUDGET, "2024-03", true);
+
+        invalidator.poll();
+
+        verifyApplied(partition(QueryResultCache.EXPENSE, "2024-02"));
+        assertThat(invalidator.getReceivedCount()).isEqualTo(1);
+        assertThat(invalidator.getWatermark()).isEqualTo(3);
+    }
+
+    @Test
+    void onlyOwnRowsTriggerNothing() {
+        insert(1, invalidator.getNodeId(), QueryResultCache.EXPENSE, "2024-01", true);
+
+        invalidator.poll();
+
+        verify(queryCache, never()).applyRemote(any());
+        verify(dimensionIndex, never()).reconcile();
+        assertThat(invalidator.getWatermark()).isEqualTo(1);
+    }
+
+    private void insert(long id, String nodeId, String table, String ym, boolean settled) {
+        jdbcTemplate.update("INSERT INTO cache_invalidation (id, node_id, table_name, ym, category, created_at) "
+                        + "VALUES (?, ?, ?, ?, 'BUGS', " + (settled ? "NOW(3) - INTERVAL 10 MINUTE" : "NOW(3)") + ")",
+                id, nodeId, table, ym);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void verifyApplied(QueryResultCache.Partition... expected) {
+        ArgumentCaptor<Collection<QueryResultCache.Partition>> captor =
+                ArgumentCaptor.forClass(Collection.class);
+        verify(queryCache).applyRemote(captor.capture());
+        assertThat(captor.getValue()).containsExactlyElementsOf(List.of(expected));
+    }
+
+    private static QueryResultCache.Partition partition(String table, String ym) {
+        return new QueryResultCache.Partition(table, ym, "BUGS");
+    }
+}
@@ -0,0 +1,116 @@
+package com.bugs.productmanager.service;
+
+import com.bugs.productmanager.ProductManagerApplication;
+import com.bugs.productmanager.model.Expense;
+import com.bugs.productmanager.support.MySqlIntegrationTest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 같은 MySQL 을 쓰는 두 노드(애플리케이션 컨텍스트 2개): 노드 A 에서 저장하면
+ * poll-ms + reconcile-interval-ms 안에 노드 B 의 조회 결과 캐시 스탬프가 바뀌고 필터 값 목록에도 새 값이 보인다.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ClusterInvalidationTwoNodeTest {
+
+    private static final long POLL_MS = 200;
+    private static final long RECONCILE_INTERVAL_MS = 500;
+    /** 스케줄러 지연/쿼리 시간 여유 */
+    private static final long SLACK_MS = 1_000;
+
+    private static final String YM = "2031-07";
+    private static final String CATEGORY = "NODE";
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+    private static Long savedId;
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = start("node-a");
+        nodeB = start("node-b");
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        // 같은 컨테이너를 쓰는 다른 테스트에 남기지 않는다
+        if (nodeA != null && savedId != null) nodeA.getBean(ExpenseService.class).deleteById(savedId);
+        if (nodeB != null) nodeB.close();
+        if (nodeA != null) nodeA.close();
+    }
+
+    @Test
+    void saveOnOneNodeInvalidatesTheOtherNodesCacheAndDimensions() {
+        ExpenseService serviceB = nodeB.getBean(ExpenseService.class);
+        QueryResultCache cacheB = nodeB.getBean(QueryResultCache.class);
+        QueryResultCache.Key key = QueryResultCache.Key.of("findPage", List.of(YM), CATEGORY, List.of(),
+                null, null, null, List.of(), null, 20);
+
+        // 노드 B 가 빈 결과를 캐시해 둔 상태
+        assertThat(serviceB.findPage(List.of(YM), CATEGORY, List.of(), null, null, null, List.of(), null, 20).content())
+                .isEmpty();
+        assertThat(serviceB.findDistinctYm()).doesNotContain(YM);
+        List<Long> stampBefore = cacheB.stamp(QueryResultCache.EXPENSE, key);
+
+        savedId = nodeA.getBean(ExpenseService.class).save(expense()).getId();
+
+        long deadline = System.currentTimeMillis() + POLL_MS + RECONCILE_INTERVAL_MS + SLACK_MS;
+        awaitUntil(deadline, () -> !cacheB.stamp(QueryResultCache.EXPENSE, key).equals(stampBefore)
+                && serviceB.findDistinctYm().contains(YM));
+
+        assertThat(cacheB.stamp(QueryResultCache.EXPENSE, key)).isNotEqualTo(stampBefore);
+        assertThat(serviceB.findDistinctYm()).contains(YM);
+        assertThat(serviceB.findDistinctCategory()).contains(CATEGORY);
+        assertThat(serviceB.findPage(List.of(YM), CATEGORY, List.of(), null, null, null, List.of(), null, 20).content())
+                .singleElement().satisfies(row -> assertThat(row.getPurpose()).isEqualTo("노드 간 무효화"));
+    }
+
+    private static ConfigurableApplicationContext start(String node) {
+        MySQLContainer<?> mysql = MySqlIntegrationTest.mysql();
+        return new SpringApplicationBuilder(ProductManagerApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=" + mysql.getJdbcUrl()
+                        + "&serverTimezone=Asia/Seoul&characterEncoding=UTF-8&rewriteBatchedStatements=true",
+                "--spring.datasource.username=" + mysql.getUsername(),
+                "--spring.datasource.password=" + mysql.getPassword(),
+                "--app.warmup.enabled=false",
+                "--excel.import.node-id=" + node,
+                "--cluster.invalidation.enabled=true",
+                "--cluster.invalidation.poll-ms=" + POLL_MS,
+                "--cluster.invalidation.reconcile-interval-ms=" + RECONCILE_INTERVAL_MS);
+    }
+
+    private static Expense expense() {
+        Expense e = new Expense();
+        e.setYm(YM);
+        e.setCategory(CATEGORY);
+        e.setDivision("운영비");
+        e.setExpenseDate(LocalDate.of(2031, 7, 1));
+        e.setPurpose("노드 간 무효화");
+        e.setAmount(BigDecimal.valueOf(12_000));
+        return e;
+    }
+
+    private static void awaitUntil(long deadline, BooleanSupplier condition) {
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
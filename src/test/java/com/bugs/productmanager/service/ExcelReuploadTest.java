@@ -0,0 +1,125 @@
+package com.bugs.productmanager.service;
+
+import com.bugs.productmanager.support.ExpenseWorkbooks;
+import com.bugs.productmanager.support.MySqlIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 엑셀 재업로드: 같은 내용의 행은 지문으로 건너뛰고, replaceMissing 이면 파일에서 사라진 행을 지운다.
+ */
+class ExcelReuploadTest extends MySqlIntegrationTest {
+
+    private static final String DEPARTMENT = "BUGS개발실";
+    private static final String TEAM = "팀1";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ExcelService excelService;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void clear() {
+        jdbcTemplate.update("DELETE FROM expense_search_gram");
+        jdbcTemplate.update("DELETE FROM expense_monthly_rollup");
+        jdbcTemplate.update("DELETE FROM expenses");
+        jdbcTemplate.update("DELETE FROM budget");
+    }
+
+    @Test
+    void reuploadSkipsExistingRowsAndReplaceMissingRemovesDroppedOnes() throws Exception {
+        List<ExpenseWorkbooks.Line> lines = new ArrayList<>(List.of(
+                line(3, "회의 다과", "가게A", 12_000),
+                line(3, "회의 다과", "가게A", 12_000), // 같은 날 같은 내용 두 건
+                line(7, "야근 택시비", "택시", 23_000),
+                line(9, "거래처 미팅", "식당", 80_000),
+                line(15, "사무용품", "문구점", 5_500)));
+        Path original = write("original.xlsx", lines);
+
+        assertThat(upload(original, false)).isEqualTo(new ExcelService.UploadResult(1, 5, 5, 0, 0));
+        assertThat(upload(original, false)).isEqualTo(new ExcelService.UploadResult(1, 5, 0, 5, 0));
+        assertThat(expenseCount()).isEqualTo(5);
+
+        // 중복 한 건과 택시비 삭제, 미팅 금액 수정, 새 행 추가
+        lines.remove(1);
+        lines.remove(1);
+        lines.set(1, line(9, "거래처 미팅", "식당", 85_000));
+        lines.add(line(20, "도서 구입", "서점", 30_000));
+        Path changed = write("changed.xlsx", lines);
+
+        // 수정 행 + 새 행 insert, 남은 두 행 skip, 사라진 두 행 + 수정 전 행 삭제
+        assertThat(upload(changed, true)).isEqualTo(new ExcelService.UploadResult(1, 4, 2, 2, 3));
+        assertThat(expenseCount()).isEqualTo(4);
+        assertThat(jdbcTemplate.queryForList("SELECT amount FROM expenses WHERE purpose = '거래처 미팅'", Long.class))
+                .containsExactly(85_000L);
+    }
+
+    @Test
+    void concurrentUploadsOfSameFileInsertRowsOnce() throws Exception {
+        Path file = write("monthly.xlsx", List.of(
+                line(3, "회의 다과", "가게A", 12_000),
+                line(3, "회의 다과", "가게A", 12_000),
+                line(7, "야근 택시비", "택시", 23_000),
+                line(9, "거래처 미팅", "식당", 80_000),
+                line(15, "사무용품", "문구점", 5_500)));
+
+        CyclicBarrier start = new CyclicBarrier(2);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<ExcelService.UploadResult>> uploads = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                uploads.add(pool.submit(() -> {
+                    start.await(10, TimeUnit.SECONDS);
+                    return upload(file, false);
+                }));
+            }
+            List<ExcelService.UploadResult> results = new ArrayList<>();
+            for (Future<ExcelService.UploadResult> upload : uploads) results.add(upload.get(60, TimeUnit.SECONDS));
+
+            // 범위 잠금으로 한 업로드가 먼저 넣고, 다른 업로드는 그 커밋을 보고 전부 건너뛴다
+            assertThat(results).containsExactlyInAnyOrder(
+                    new ExcelService.UploadResult(1, 5, 5, 0, 0),
+                    new ExcelService.UploadResult(1, 5, 0, 5, 0));
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(expenseCount()).isEqualTo(5);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM budget", Integer.class)).isEqualTo(1);
+    }
+
+    private ExcelService.UploadResult upload(Path file, boolean replaceMissing) throws Exception {
+        return excelService.importExcel(file, null, DEPARTMENT, TEAM, replaceMissing, ExcelService.ImportListener.NONE);
+    }
+
+    private Path write(String name, List<ExpenseWorkbooks.Line> lines) throws Exception {
+        return ExpenseWorkbooks.write(tempDir.resolve(name), Map.of("2024-05",
+                List.of(new ExpenseWorkbooks.Section("BUGS - 경비", 1_000_000, 0, lines))));
+    }
+
+    private int expenseCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM expenses", Integer.class);
+    }
+
+    private static ExpenseWorkbooks.Line line(int day, String purpose, String store, long amount) {
+        return new ExpenseWorkbooks.Line(LocalDate.of(2024, 5, day), purpose, store, amount);
+    }
+}
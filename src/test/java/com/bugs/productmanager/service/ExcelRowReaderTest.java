@@ -0,0 +1,77 @@
+package com.bugs.productmanager.service;
+
+import com.bugs.productmanager.support.ExpenseWorkbooks;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 시트별 병렬 읽기: 시트 순서대로 넘기고, 넘기지 못한 시트는 window 개를 넘지 않는다.
+ */
+class ExcelRowReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    /** 시트 하나의 행 수를 세는 handler */
+    private static final class CountingHandler implements ExcelRowReader.RowHandler {
+        final int index;
+        String sheetName;
+        int rows;
+
+        CountingHandler(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public void startSheet(String sheetName) {
+            this.sheetName = sheetName;
+        }
+
+        @Override
+        public void row(ExcelRowReader.SheetRow row) {
+            rows++;
+        }
+
+        @Override
+        public void endSheet() {
+        }
+    }
+
+    @Test
+    void readPerSheetHandsOverInOrderWithBoundedBuffer() throws Exception {
+        Path file = ExpenseWorkbooks.write(tempDir.resolve("sheets.xlsx"), ExpenseWorkbooks.generate(8, 500, 3));
+        ExcelRowReader reader = new ExcelRowReader(100, 100_000);
+
+        AtomicInteger outstanding = new AtomicInteger();
+        AtomicInteger maxOutstanding = new AtomicInteger();
+        List<CountingHandler> handedOver = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            reader.readPerSheet(file.toFile(), i -> {
+                maxOutstanding.accumulateAndGet(outstanding.incrementAndGet(), Math::max);
+                return new CountingHandler(i);
+            }, pool, 2, handler -> {
+                outstanding.decrementAndGet();
+                handedOver.add(handler);
+            });
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThat(handedOver).extracting(h -> h.index).containsExactly(0, 1, 2, 3, 4, 5, 6, 7);
+        assertThat(handedOver).extracting(h -> h.sheetName)
+                .containsExactly("2024-01", "2024-02", "2024-03", "2024-04", "2024-05", "2024-06", "2024-07", "2024-08");
+        assertThat(handedOver).allSatisfy(h -> assertThat(h.rows).isGreaterThan(500));
+        assertThat(maxOutstanding).hasValueLessThanOrEqualTo(2);
+        assertThat(outstanding).hasValue(0);
+    }
+}
@@ -0,0 +1,103 @@
+package com.bugs.productmanager.service;
+
+import com.bugs.productmanager.model.Budget;
+import com.bugs.productmanager.model.Expense;
+import com.bugs.productmanager.support.ExpenseWorkbooks;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 여러 시트 엑셀 import: 시트별 병렬 파싱과 순차 파싱이 같은 순서로 같은 경비/예산을 저장하는지 확인한다.
+ * 저장은 ExpenseService/BudgetService 를 대신한 mock 이 받은 값을 비교한다 (DB 불필요).
+ */
+class ExcelServiceImportTest {
+
+    private static ExecutorService parseExecutor;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeAll
+    static void startExecutor() {
+        parseExecutor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterAll
+    static void stopExecutor() {
+        parseExecutor.shutdown();
+    }
+
+    /** 저장 호출을 받아 둔 결과 */
+    private record Imported(ExcelService.UploadResult result, List<String> expenses, List<String> budgets) {}
+
+    @Test
+    void parallelAndSequentialImportSaveTheSameRows() throws Exception {
+        Map<String, List<ExpenseWorkbooks.Section>> sheets = new LinkedHashMap<>(ExpenseWorkbooks.generate(6, 1_500, 7));
+        // 시트 이름에 년월이 없으면 섹션의 첫 날짜 행에서 년월을 정한다
+        sheets.put("기타", List.of(new ExpenseWorkbooks.Section("BUGS - 임원", 500_000, 0, List.of(
+                new ExpenseWorkbooks.Line(null, "날짜 없는 첫 행", "가게", 1_000),
+                new ExpenseWorkbooks.Line(LocalDate.of(2023, 12, 5), "연말 행사", "호텔", 250_000),
+                new ExpenseWorkbooks.Line(LocalDate.of(2023, 12, 20), "송년회", null, 90_000)))));
+        Path file = ExpenseWorkbooks.write(tempDir.resolve("multi-sheet.xlsx"), sheets);
+
+        Imported sequential = importWith(false, file);
+        Imported parallel = importWith(true, file);
+
+        assertThat(sequential.expenses()).hasSize(6 * 1_500 + 3);
+        assertThat(parallel.result()).isEqualTo(sequential.result());
+        assertThat(parallel.expenses()).containsExactlyElementsOf(sequential.expenses());
+        assertThat(parallel.budgets()).containsExactlyElementsOf(sequential.budgets());
+    }
+
+    private Imported importWith(boolean parallel, Path file) throws Exception {
+        ExpenseService expenseService = mock(ExpenseService.class);
+        BudgetService budgetService = mock(BudgetService.class);
+        when(expenseService.findFingerprints(any())).thenReturn(List.of());
+        List<String> expenses = new ArrayList<>();
+        List<String> budgets = new ArrayList<>();
+        // PersistingSink 가 호출 뒤 목록을 비우므로 받을 때 값으로 옮겨 둔다
+        doAnswer(inv -> {
+            for (Expense e : inv.<List<Expense>>getArgument(0)) expenses.add(describe(e));
+            return null;
+        }).when(expenseService).saveAllNew(anyList());
+        doAnswer(inv -> {
+            for (Budget b : inv.<List<Budget>>getArgument(0)) budgets.add(describe(b));
+            return List.of();
+        }).when(budgetService).upsertAll(anyList());
+
+        ExcelService excelService = new ExcelService(expenseService, budgetService, new ExcelRowReader(100, 100_000),
+                parseExecutor, DataSize.ofMegabytes(20), parallel, 2);
+        ExcelService.UploadResult result = excelService.importExcel(file, null, "BUGS개발실", "팀1", false,
+                ExcelService.ImportListener.NONE);
+        return new Imported(result, expenses, budgets);
+    }
+
+    private static String describe(Expense e) {
+        return String.join("|", e.getYm(), e.getCategory(), e.getDivision(), e.getDepartment(), e.getTeam(),
+                String.valueOf(e.getExpenseDate()), e.getPurpose(), e.getStoreName(), e.getAmount().toPlainString());
+    }
+
+    private static String describe(Budget b) {
+        return String.join("|", b.getYm(), b.getCategory(), b.getDivision(), b.getDepartment(), b.getTeam(),
+                b.getMonthlyAmount().toPlainString(), b.getPrevRemaining().toPlainString());
+    }
+}
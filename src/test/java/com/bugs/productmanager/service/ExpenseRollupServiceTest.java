@@ -0,0 +1,79 @@
+package com.bugs.productmanager.service;
+
+import com.bugs.productmanager.support.MySqlIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 월별 집계 초기 적재: 이름 잠금을 잡은 노드 하나만 적재하고, 동시에 시작해도 집계가 두 번 쌓이지 않는다.
+ */
+class ExpenseRollupServiceTest extends MySqlIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ExpenseRollupService rollupService;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("DELETE FROM expenses");
+        jdbcTemplate.update("DELETE FROM expense_monthly_rollup");
+        for (int i = 0; i < 30; i++) {
+            jdbcTemplate.update("INSERT INTO expenses (ym, category, division, purpose, amount) "
+                            + "VALUES (?, 'BUGS', '운영비', '회의', ?)",
+                    i % 2 == 0 ? "2024-01" : "2024-02", BigDecimal.valueOf(1000 + i));
+        }
+    }
+
+    @Test
+    void backfillIsSkippedWhileAnotherNodeHoldsTheLock() {
+        // 다른 노드가 적재 중인 경우와 같은 상태
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            try (PreparedStatement ps = con.prepareStatement("SELECT GET_LOCK('expense_rollup_backfill', 0)")) {
+                ps.executeQuery();
+            }
+            try {
+                rollupService.backfillIfEmpty();
+            } finally {
+                try (PreparedStatement ps = con.prepareStatement("SELECT RELEASE_LOCK('expense_rollup_backfill')")) {
+                    ps.executeQuery();
+                }
+            }
+            return null;
+        });
+        assertThat(rollupRows()).isZero();
+
+        rollupService.backfillIfEmpty();
+        assertRollupMatchesExpenses();
+    }
+
+    @Test
+    void concurrentBackfillsLoadOnce() {
+        CompletableFuture<Void> a = CompletableFuture.runAsync(rollupService::backfillIfEmpty);
+        CompletableFuture<Void> b = CompletableFuture.runAsync(rollupService::backfillIfEmpty);
+        CompletableFuture.allOf(a, b).join();
+
+        assertRollupMatchesExpenses();
+    }
+
+    private long rollupRows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM expense_monthly_rollup", Long.class);
+    }
+
+    private void assertRollupMatchesExpenses() {
+        assertThat(rollupRows()).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("SELECT SUM(total_amount) FROM expense_monthly_rollup", BigDecimal.class))
+                .isEqualByComparingTo(jdbcTemplate.queryForObject("SELECT SUM(amount) FROM expenses", BigDecimal.class));
+        assertThat(jdbcTemplate.queryForObject("SELECT SUM(expense_count) FROM expense_monthly_rollup", Long.class))
+                .isEqualTo(30);
+    }
+}
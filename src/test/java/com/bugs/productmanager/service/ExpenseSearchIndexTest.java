@@ -0,0 +1,91 @@
+package com.bugs.productmanager.service;
+
+import com.bugs.productmanager.model.Expense;
+import com.bugs.productmanager.repository.ExpenseRepository;
+import com.bugs.productmanager.support.MySqlIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 검색 색인 재생성: 중단된(완성 표시 없는) 색인은 검색에 쓰지 않고, 시작 시 다시 만든 뒤 LIKE 와 같은 결과를 낸다.
+ */
+class ExpenseSearchIndexTest extends MySqlIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ExpenseRepository expenseRepository;
+    @Autowired
+    private ExpenseSearchIndex searchIndex;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("DELETE FROM expenses");
+        jdbcTemplate.update("DELETE FROM expense_search_gram");
+        List<String> purposes = List.of("팀 회의 다과", "야근 택시비", "거래처 미팅 식대", "Team 회의록", "회식");
+        for (int i = 0; i < 50; i++) {
+            jdbcTemplate.update("INSERT INTO expenses (ym, category, division, purpose, store_name, amount) "
+                            + "VALUES ('2024-01', 'BUGS', '운영비', ?, ?, ?)",
+                    purposes.get(i % purposes.size()), "가게" + i, BigDecimal.valueOf(1000 + i));
+        }
+    }
+
+    @Test
+    void interruptedRebuildIsNotUsedAndIsRebuiltOnStartup() {
+        searchIndex.rebuild();
+        // 재생성 도중 중단: 색인 일부만 남고 완성 표시가 내려간 상태
+        jdbcTemplate.update("UPDATE expense_search_index_state SET ready = 0 WHERE id = 1");
+        jdbcTemplate.update("DELETE FROM expense_search_gram WHERE expense_id % 2 = 0");
+        searchIndex.rebuildIfIncomplete();
+        assertThat(searchIndex.isReady()).isTrue();
+        assertThat(jdbcTemplate.queryForObject("SELECT ready FROM expense_search_index_state WHERE id = 1", Boolean.class))
+                .isTrue();
+
+        for (String keyword : List.of("회의", "팀 회의", "team", "식대", "가게1", "없는말")) {
+            assertThat(ids(searchIndex.contains("purpose", keyword))).as(keyword).isEqualTo(ids(like("purpose", keyword)));
+            assertThat(ids(searchIndex.contains("storeName", keyword))).as(keyword).isEqualTo(ids(like("storeName", keyword)));
+        }
+    }
+
+    @Test
+    void incompleteIndexFallsBackToLike() {
+        searchIndex.rebuild();
+        jdbcTemplate.update("DELETE FROM expense_search_gram");
+        jdbcTemplate.update("UPDATE expense_search_index_state SET ready = 0 WHERE id = 1");
+        // 다른 노드가 재생성 중이라 이 노드는 잠금을 못 잡은 경우와 같은 상태
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            try (PreparedStatement ps = con.prepareStatement("SELECT GET_LOCK('expense_search_rebuild', 0)")) {
+                ps.executeQuery();
+            }
+            try {
+                searchIndex.rebuildIfIncomplete();
+            } finally {
+                try (PreparedStatement ps = con.prepareStatement("SELECT RELEASE_LOCK('expense_search_rebuild')")) {
+                    ps.executeQuery();
+                }
+            }
+            return null;
+        });
+
+        assertThat(searchIndex.isReady()).isFalse();
+        assertThat(ids(searchIndex.contains("purpose", "회의"))).isEqualTo(ids(like("purpose", "회의"))).isNotEmpty();
+    }
+
+    private List<Long> ids(Specification<Expense> spec) {
+        return expenseRepository.findAll(spec).stream().map(Expense::getId).sorted().toList();
+    }
+
+    private static Specification<Expense> like(String attribute, String keyword) {
+        return (r, q, cb) -> cb.like(r.get(attribute), "%" + keyword + "%");
+    }
+}
@@ -0,0 +1,160 @@
+package com.bugs.productmanager.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * export 파일 캐시: 같은 파일을 동시에 놓친 요청은 한 번만 생성하고, 다른 키의 생성은 기다리지 않는다.
+ */
+class ExportFileCacheTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void concurrentMissesOnSameKeyGenerateOnce() throws Exception {
+        ExportFileCache cache = new ExportFileCache(true, dir.toString(), DataSize.ofMegabytes(10));
+        QueryResultCache.Key key = QueryResultCache.Key.of("export", List.of("2024-01"), "BUGS", List.of(),
+                null, null, null, List.of());
+        AtomicInteger generated = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> responses = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                responses.add(pool.submit(() -> {
+                    ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    cache.serve(key, List.of(1L), o -> {
+                        generated.incrementAndGet();
+                        await(release);
+                        o.write("xlsx".getBytes(StandardCharsets.UTF_8));
+                    }, out);
+                    return out.toString(StandardCharsets.UTF_8);
+                }));
+            }
+            // 생성 중에 다른 키는 기다리지 않고 바로 생성된다
+            ByteArrayOutputStream other = new ByteArrayOutputStream();
+            cache.serve(QueryResultCache.Key.of("export", List.of("2024-02"), "BUGS", List.of(),
+                    null, null, null, List.of()), List.of(1L), o -> o.write('x'), other);
+            assertThat(other.toString(StandardCharsets.UTF_8)).isEqualTo("x");
+
+            release.countDown();
+            for (Future<String> response : responses) {
+                assertThat(response.get(10, TimeUnit.SECONDS)).isEqualTo("xlsx");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(generated).hasValue(1);
+        assertThat(cache.getMissCount()).isEqualTo(2);
+        assertThat(cache.getHitCount()).isEqualTo(7);
+    }
+
+    @Test
+    void missStreamsToResponseWhileWritingCacheFile() throws Exception {
+        ExportFileCache cache = new ExportFileCache(true, dir.toString(), DataSize.ofMegabytes(10));
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> response = pool.submit(() -> {
+                cache.serve(key("2024-01"), List.of(1L), o -> {
+                    o.write("xl".getBytes(StandardCharsets.UTF_8));
+                    o.flush();
+                    written.countDown();
+                    await(release);
+                    o.write("sx".getBytes(StandardCharsets.UTF_8));
+                }, out);
+                return null;
+            });
+            // 생성이 끝나기 전에 앞부분이 응답에 나간다
+            assertThat(written.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("xl");
+            release.countDown();
+            response.get(10, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("xlsx");
+        assertThat(cache.getFileCount()).isEqualTo(1);
+
+        ByteArrayOutputStream cached = new ByteArrayOutputStream();
+        cache.serve(key("2024-01"), List.of(1L), o -> { throw new AssertionError("캐시 적중이어야 한다"); }, cached);
+        assertThat(cached.toString(StandardCharsets.UTF_8)).isEqualTo("xlsx");
+    }
+
+    @Test
+    void exportOverLimitIsGeneratedOnceAndReleasesWaiters() throws Exception {
+        ExportFileCache cache = new ExportFileCache(true, dir.toString(), DataSize.ofBytes(4));
+        AtomicInteger generated = new AtomicInteger();
+        CountDownLatch overLimit = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ByteArrayOutputStream first = new ByteArrayOutputStream();
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> leader = pool.submit(() -> {
+                cache.serve(key("2024-01"), List.of(1L), o -> {
+                    generated.incrementAndGet();
+                    o.write("0123456789".getBytes(StandardCharsets.UTF_8));
+                    overLimit.countDown();
+                    await(release);
+                    o.write('!');
+                }, first);
+                return null;
+            });
+            assertThat(overLimit.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // 한도를 넘긴 뒤 온 요청은 첫 요청이 끝나길 기다리지 않고 바로 생성한다
+            ByteArrayOutputStream waiter = new ByteArrayOutputStream();
+            cache.serve(key("2024-01"), List.of(1L), o -> {
+                generated.incrementAndGet();
+                o.write("0123456789!".getBytes(StandardCharsets.UTF_8));
+            }, waiter);
+            assertThat(waiter.toString(StandardCharsets.UTF_8)).isEqualTo("0123456789!");
+            assertThat(release.getCount()).isEqualTo(1);
+
+            release.countDown();
+            leader.get(10, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+        // 요청마다 한 번씩만 생성하고, 디스크에는 남기지 않는다
+        assertThat(first.toString(StandardCharsets.UTF_8)).isEqualTo("0123456789!");
+        assertThat(generated).hasValue(2);
+        assertThat(cache.getFileCount()).isZero();
+        try (Stream<Path> files = Files.list(dir)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    private static QueryResultCache.Key key(String ym) {
+        return QueryResultCache.Key.of("export", List.of(ym), "BUGS", List.of(), null, null, null, List.of());
+    }
+
+    private static void await(CountDownLatch latch) throws InterruptedIOException {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException();
+        }
+    }
+}
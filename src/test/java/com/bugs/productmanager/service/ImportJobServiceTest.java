@@ -0,0 +1,86 @@
+package com.bugs.productmanager.service;
+
+import com.bugs.productmanager.model.ImportJob;
+import com.bugs.productmanager.repository.ImportJobRepository;
+import com.bugs.productmanager.support.MySqlIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 여러 노드가 import_job 을 공유할 때: 작업은 한 번만 가져가고, 재시작 복구는 자기 노드 작업만 한다.
+ */
+class ImportJobServiceTest extends MySqlIntegrationTest {
+
+    @Autowired
+    private ImportJobRepository jobRepository;
+
+    private final ExcelService excelService = mock(ExcelService.class);
+
+    @TempDir
+    Path spoolDir;
+
+    @BeforeEach
+    void clear() {
+        jobRepository.deleteAll();
+    }
+
+    @Test
+    void queuedJobIsClaimedOnceByItsOwner() {
+        ImportJob job = save("job-1", "node-a", ImportJob.Phase.QUEUED, null);
+
+        assertThat(jobRepository.claim(job.getId(), "node-b")).isZero();
+        assertThat(jobRepository.claim(job.getId(), "node-a")).isEqualTo(1);
+        assertThat(jobRepository.claim(job.getId(), "node-a")).isZero();
+        assertThat(jobRepository.findById(job.getId()).orElseThrow().getPhase()).isEqualTo(ImportJob.Phase.RUNNING);
+    }
+
+    @Test
+    void recoverLeavesOtherNodesJobsAlone() throws Exception {
+        ImportJob running = save("job-a", "node-a", ImportJob.Phase.RUNNING, spoolDir.resolve("missing.upload"));
+        Path spool = Files.writeString(spoolDir.resolve("job-b.upload"), "xlsx");
+        ImportJob queued = save("job-b", "node-b", ImportJob.Phase.QUEUED, spool);
+        when(excelService.importExcel(any(), isNull(), any(), any(), anyBoolean(), any()))
+                .thenReturn(new ExcelService.UploadResult(1, 2, 2, 0, 0));
+
+        // node-b 재시작: node-a 가 실행 중인 작업은 그대로, 자기 작업만 다시 실행
+        service("node-b").recover();
+        assertThat(jobRepository.findById(running.getId()).orElseThrow().getPhase()).isEqualTo(ImportJob.Phase.RUNNING);
+        ImportJob done = jobRepository.findById(queued.getId()).orElseThrow();
+        assertThat(done.getPhase()).isEqualTo(ImportJob.Phase.DONE);
+        assertThat(done.getInsertedCount()).isEqualTo(2);
+
+        // node-a 재시작: spool 파일이 없으므로 실패 처리
+        service("node-a").recover();
+        ImportJob failed = jobRepository.findById(running.getId()).orElseThrow();
+        assertThat(failed.getPhase()).isEqualTo(ImportJob.Phase.FAILED);
+        assertThat(failed.getOwnerNode()).isEqualTo("node-a");
+    }
+
+    private ImportJobService service(String node) {
+        return new ImportJobService(jobRepository, excelService, new SyncTaskExecutor(), spoolDir.toString(), node);
+    }
+
+    private ImportJob save(String id, String owner, ImportJob.Phase phase, Path spool) {
+        ImportJob job = new ImportJob();
+        job.setId(id);
+        job.setUsername("admin");
+        job.setOwnerNode(owner);
+        job.setFileName(id + ".xlsx");
+        job.setSpoolPath(spool != null ? spool.toString() : null);
+        job.setPhase(phase);
+        return jobRepository.save(job);
+    }
+}
@@ -0,0 +1,125 @@
+package com.bugs.productmanager.service;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * JDBC 실행 콜백 기준 쿼리 통계: 느린 쿼리 링 버퍼와, 분기 스레드까지 합친 요청당 SQL 한도.
+ */
+class QueryStatsTest {
+
+    private final QueryStats stats = new QueryStats(100, 3, 5, 1000);
+    private final QueryExecutionListener listener = stats.listener();
+
+    @Test
+    void slowLogKeepsLatestEntriesSlowestFirst() {
+        execute("select 1", 150);
+        execute("select 2", 400);
+        execute("select 3", 50);
+        execute("select 4", 120);
+        execute("select 5", 300);
+
+        // 100ms 이상 4건 중 가장 오래된 select 1 이 밀려난다
+        assertThat(stats.getSlowCount()).isEqualTo(4);
+        assertThat(stats.getSlowQueries())
+                .extracting(QueryStats.SlowQuery::query)
+                .containsExactly("select 2", "select 5", "select 4");
+    }
+
+    @Test
+    void slowLogKeysByExecutedSqlAndRequest() {
+        stats.beginRequest("ExpenseController#list GET /expenses");
+        execute("select *\n  from expense\n where team = ?", 250);
+        execute("select count(*) from expense", 10);
+        stats.endRequest();
+
+        QueryStats.SlowQuery slow = stats.getSlowQueries().get(0);
+        assertThat(slow.query()).isEqualTo("select * from expense where team = ?");
+        assertThat(slow.request()).isEqualTo("ExpenseController#list GET /expenses");
+        assertThat(slow.millis()).isEqualTo(250);
+        assertThat(stats.getTopQueries(10))
+                .extracting(QueryStats.QueryRow::query)
+                .containsExactly("select * from expense where team = ?", "select count(*) from expense");
+    }
+
+    @Test
+    void requestLimitCountsStatementsFromPropagatedTasks() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            stats.beginRequest("ExpenseController#list GET /expenses");
+            execute("select 1", 1);
+            CompletableFuture.allOf(
+                    CompletableFuture.supplyAsync(stats.propagate(this::branch), pool),
+                    CompletableFuture.supplyAsync(stats.propagate(this::branch), pool)
+            ).get(10, TimeUnit.SECONDS);
+
+            // 요청 스레드 1건 + 분기 2 × 2건 = 5건 → 한도(5) 이내
+            stats.endRequest();
+            assertThat(stats.getLimitExceededCount()).isZero();
+
+            stats.beginRequest("ExpenseController#list GET /expenses");
+            execute("select 1", 1);
+            CompletableFuture.allOf(
+                    CompletableFuture.supplyAsync(stats.propagate(this::branch), pool),
+                    CompletableFuture.supplyAsync(stats.propagate(this::branch), pool)
+            ).get(10, TimeUnit.SECONDS);
+            // 6건째 → 한도 초과
+            execute("select 4", 1);
+            stats.endRequest();
+            assertThat(stats.getLimitExceededCount()).isEqualTo(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void propagatedTaskDoesNotLeakScopeIntoPoolThread() throws Exception {
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            stats.beginRequest("ExpenseController#list GET /expenses");
+            Supplier<Integer> branch = stats.propagate(() -> {
+                for (int i = 0; i < 6; i++) execute("select 1", 1);
+                return 6;
+            });
+            CompletableFuture.supplyAsync(branch, pool).get(10, TimeUnit.SECONDS);
+            stats.endRequest();
+            assertThat(stats.getLimitExceededCount()).isEqualTo(1);
+
+            // 요청이 끝난 뒤 같은 풀 스레드의 실행은 어느 요청에도 세지 않는다
+            CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < 6; i++) execute("select 1", 1);
+            }, pool).get(10, TimeUnit.SECONDS);
+            stats.beginRequest("HomeController#home GET /");
+            stats.endRequest();
+            assertThat(stats.getLimitExceededCount()).isEqualTo(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private int branch() {
+        execute("select 2", 1);
+        execute("select 3", 1);
+        return 2;
+    }
+
+    private void execute(String sql, long millis) {
+        ExecutionInfo info = new ExecutionInfo();
+        info.setElapsedTime(millis);
+        info.setSuccess(true);
+        List<QueryInfo> queries = List.of(new QueryInfo(sql));
+        listener.beforeQuery(info, queries);
+        listener.afterQuery(info, queries);
+    }
+}
@@ -0,0 +1,64 @@
+package com.bugs.productmanager.service;
+
+import io.micrometer.core.instrument.MockClock;
+import io.micrometer.core.instrument.simple.SimpleConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 최근 window 요청 수: 초 단위 버킷 링이 창을 벗어난 버킷을 빼고, 한 바퀴 돈 버킷은 새로 센다.
+ */
+class RequestMetricsTest {
+
+    private static final RequestMetrics.Key KEY = new RequestMetrics.Key("/expenses", "ExpenseController#list", "ROLE_ADMIN", "SUCCESS");
+
+    private final MockClock clock = new MockClock();
+    private final RequestMetrics metrics = new RequestMetrics(new SimpleMeterRegistry(SimpleConfig.DEFAULT, clock),
+            Duration.ofSeconds(10));
+
+    @Test
+    void countsRequestsInsideWindow() {
+        record(3);
+        clock.add(5, TimeUnit.SECONDS);
+        record(2);
+
+        RequestMetrics.Row row = metrics.snapshot().get(0);
+        assertThat(row.windowCount()).isEqualTo(5);
+        assertThat(row.throughputPerSec()).isEqualTo(0.5);
+        assertThat(row.totalCount()).isEqualTo(5);
+    }
+
+    @Test
+    void dropsBucketsOlderThanWindow() {
+        record(3);
+        clock.add(5, TimeUnit.SECONDS);
+        record(2);
+
+        clock.add(6, TimeUnit.SECONDS);
+        assertThat(metrics.snapshot().get(0).windowCount()).isEqualTo(2);
+
+        clock.add(5, TimeUnit.SECONDS);
+        RequestMetrics.Row row = metrics.snapshot().get(0);
+        assertThat(row.windowCount()).isZero();
+        assertThat(row.totalCount()).isEqualTo(5);
+    }
+
+    @Test
+    void reusedBucketStartsFromZero() {
+        record(4);
+        // 정확히 한 바퀴 뒤 같은 버킷
+        clock.add(10, TimeUnit.SECONDS);
+        record(1);
+
+        assertThat(metrics.snapshot().get(0).windowCount()).isEqualTo(1);
+    }
+
+    private void record(int times) {
+        for (int i = 0; i < times; i++) metrics.record(KEY, TimeUnit.MILLISECONDS.toNanos(20));
+    }
+}
@@ -0,0 +1,102 @@
+package com.bugs.productmanager.support;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 경비 업로드 형식의 xlsx 를 만든다 (테스트/벤치마크용).
+ * 시트 = 년월, 섹션 머리행(A: "BUGS - 경비" 등, C: 월 예산, D: 전월 잔액) 다음 행은 열 제목, 그 아래가 경비 행(A~D).
+ */
+public final class ExpenseWorkbooks {
+
+    private static final List<String> HEADERS = List.of("BUGS - 경비", "BUGS - 대외", "LINK - 경비", "LINK - 플젝");
+    private static final List<String> PURPOSES = List.of("팀 회의 다과", "야근 택시비", "거래처 미팅 식대", "사무용품 구매", "부서 회식");
+
+    /** date 가 null 이면 빈 칸, purpose/store 가 null 이면 셀을 만들지 않는다 */
+    public record Line(LocalDate date, String purpose, String store, long amount) {}
+
+    public record Section(String header, long monthly, long prevRemaining, List<Line> lines) {}
+
+    private ExpenseWorkbooks() {
+    }
+
+    /**
+     * sheets 개 월 시트에 시트마다 rowsPerSheet 건을 섹션 4개로 나눠 담은 워크북 내용
+     */
+    public static Map<String, List<Section>> generate(int sheets, int rowsPerSheet, long seed) {
+        Random random = new Random(seed);
+        Map<String, List<Section>> workbook = new LinkedHashMap<>();
+        YearMonth first = YearMonth.of(2024, 1);
+        for (int s = 0; s < sheets; s++) {
+            YearMonth ym = first.plusMonths(s);
+            List<Section> sections = new ArrayList<>();
+            for (int h = 0; h < HEADERS.size(); h++) {
+                int count = rowsPerSheet / HEADERS.size() + (h < rowsPerSheet % HEADERS.size() ? 1 : 0);
+                List<Line> lines = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    lines.add(new Line(ym.atDay(1 + random.nextInt(ym.lengthOfMonth())),
+                            PURPOSES.get(random.nextInt(PURPOSES.size())) + " " + random.nextInt(100),
+                            "가게" + random.nextInt(300), 1000 + random.nextInt(200_000)));
+                }
+                sections.add(new Section(HEADERS.get(h), 1_000_000L * (h + 1), 10_000L * h, lines));
+            }
+            workbook.put(ym.toString(), sections);
+        }
+        return workbook;
+    }
+
+    public static Path write(Path file, Map<String, List<Section>> sheets) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(200);
+        try (OutputStream out = Files.newOutputStream(file)) {
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd"));
+            for (Map.Entry<String, List<Section>> entry : sheets.entrySet()) {
+                Sheet sheet = workbook.createSheet(entry.getKey());
+                int r = 0;
+                for (Section section : entry.getValue()) {
+                    Row header = sheet.createRow(r++);
+                    header.createCell(0).setCellValue(section.header());
+                    header.createCell(2).setCellValue(section.monthly());
+                    header.createCell(3).setCellValue(section.prevRemaining());
+                    Row titles = sheet.createRow(r++);
+                    titles.createCell(0).setCellValue("날짜");
+                    titles.createCell(1).setCellValue("내용");
+                    titles.createCell(2).setCellValue("상호");
+                    titles.createCell(3).setCellValue("금액");
+                    for (Line line : section.lines()) {
+                        Row row = sheet.createRow(r++);
+                        if (line.date() != null) {
+                            Cell date = row.createCell(0);
+                            date.setCellValue(line.date());
+                            date.setCellStyle(dateStyle);
+                        }
+                        if (line.purpose() != null) row.createCell(1).setCellValue(line.purpose());
+                        if (line.store() != null) row.createCell(2).setCellValue(line.store());
+                        row.createCell(3).setCellValue(line.amount());
+                    }
+                    r++; // 섹션 사이 빈 행
+                }
+            }
+            workbook.write(out);
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+        return file;
+    }
+}
@@ -0,0 +1,47 @@
+package com.bugs.productmanager.support;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * 실제 MySQL(Testcontainers)에 Flyway 스키마를 올린 전체 애플리케이션 컨텍스트 통합 테스트 기반 클래스.
+ * - Docker 가 없는 환경에서는 건너뛴다
+ * - 컨테이너는 JVM 당 하나만 띄워 Spring 테스트 컨텍스트 캐시와 함께 재사용한다 (종료는 Ryuk 가 정리)
+ *   여러 노드를 직접 띄우는 테스트도 mysql() 로 같은 컨테이너를 쓴다
+ * - 시작 후 예열/다른 노드 무효화 폴링은 꺼 두고, 필요한 테스트가 직접 호출한다
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = {
+        "app.warmup.enabled=false",
+        "cluster.invalidation.enabled=false",
+        "spring.task.scheduling.pool.size=1"
+})
+public abstract class MySqlIntegrationTest {
+
+    private static MySQLContainer<?> mysql;
+
+    public static synchronized MySQLContainer<?> mysql() {
+        if (mysql == null) {
+            mysql = new MySQLContainer<>("mysql:8.0")
+                    .withDatabaseName("test_db")
+                    // general_log 등 전역 설정을 바꾸는 테스트가 있어 root 로 접속
+                    .withUsername("root")
+                    .withPassword("test")
+                    .withUrlParam("allowPublicKeyRetrieval", "true")
+                    .withUrlParam("useSSL", "false");
+            mysql.start();
+        }
+        return mysql;
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> mysql().getJdbcUrl()
+                + "&serverTimezone=Asia/Seoul&characterEncoding=UTF-8&rewriteBatchedStatements=true");
+        registry.add("spring.datasource.username", () -> mysql().getUsername());
+        registry.add("spring.datasource.password", () -> mysql().getPassword());
+    }
+}